@@ -1,9 +1,19 @@
+import com.igormaznitsa.cli.HeadlessApp;
 import com.igormaznitsa.gui.AppFrame;
 import javax.swing.SwingUtilities;
 
 public class DCF77Soundwave {
 
   public static void main(final String... args) {
+    if (HeadlessApp.isRequested(args)) {
+      // command line mode, AWT and Swing classes must not be touched
+      final int exitCode = HeadlessApp.run(args);
+      if (exitCode != 0) {
+        System.exit(exitCode);
+      }
+      return;
+    }
+
     AppFrame.ensureAppropriateLF();
     SwingUtilities.invokeLater(() -> {
       final AppFrame appFrame = new AppFrame();
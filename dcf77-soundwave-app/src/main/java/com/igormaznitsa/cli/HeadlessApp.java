@@ -0,0 +1,651 @@
+package com.igormaznitsa.cli;
+
+import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRecord;
+import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRenderer;
+import com.igormaznitsa.soundtime.AdjustableClock;
+import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.DstDetection;
+import com.igormaznitsa.soundtime.LoopbackVerifier;
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.MinuteRecordCache;
+import com.igormaznitsa.soundtime.RollingRecordProducer;
+import com.igormaznitsa.soundtime.SignalMonitor;
+import com.igormaznitsa.soundtime.SynthesisKernels;
+import com.igormaznitsa.soundtime.TaskScope;
+import com.igormaznitsa.soundtime.TimeSignalDecoder;
+import com.igormaznitsa.soundtime.WavFileReader;
+import com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+import org.apache.commons.net.ntp.NTPUDPClient;
+import org.apache.commons.net.ntp.TimeInfo;
+
+/**
+ * Command line mode of the application, it doesn't touch AWT and Swing classes so that it can be
+ * started with {@code -Djava.awt.headless=true}. Signal can be played through a mixer or written
+ * as WAV into file or standard output, also rendered signal can be checked by software loopback
+ * and WAV can be decoded. All log messages go into standard error.
+ *
+ * @author Igor Maznitsa
+ */
+public final class HeadlessApp {
+
+  /**
+   * Name of output file which means standard output.
+   */
+  public static final String STDOUT = "-";
+  /**
+   * Name of input file which means standard input.
+   */
+  public static final String STDIN = "-";
+  /**
+   * Option to start command line mode without any other option.
+   */
+  public static final String OPTION_HEADLESS = "--headless";
+
+  private static final Set<String> OPTIONS = Set.of(OPTION_HEADLESS, "-h", "--help",
+      "--list-mixers", "--protocol", "--start", "--minutes", "--continuous", "--carrier", "--shape",
+      "--sample-rate", "--dst", "--latency", "--buffer", "--mixer", "--ntp", "--out", "--verify",
+      "--monitor", "--decode");
+
+  private static final List<MinuteBasedTimeSignalWavRenderer> PROTOCOLS = List.of(
+      Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+      JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+      WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+      BpcMinuteBasedTimeSignalSignalRenderer.INSTANCE
+  );
+
+  private static final int DEFAULT_PLAY_MINUTES = 60;
+  private static final int DEFAULT_FILE_MINUTES = 15;
+  private static final long NTP_REFRESH_DELAY_MS = 16_000L;
+  private static final int NTP_TIMEOUT_MS = 600;
+  private static final int MONITOR_BUFFER_MS = 2000;
+
+  private final PrintStream log;
+  private MinuteBasedTimeSignalWavRenderer protocol = PROTOCOLS.get(0);
+  private String start;
+  private int minutes = -1;
+  private int carrierFreq = -1;
+  private AmplitudeSoundSignalRenderer.SignalShape shape =
+      AmplitudeSoundSignalRenderer.SignalShape.SIN;
+  private int sampleRate = 48000;
+  private DstDetection dstDetection = DstDetection.DST_AUTODETECT;
+  private String mixer;
+  private String ntpServer;
+  private int outputLatencyMillis;
+  private int pcmBufferMillis = AmplitudeSoundSignalRenderer.DEFAULT_PCM_BUFFER_MILLISECONDS;
+  private String output;
+  private String decode;
+  private boolean verify;
+  private boolean monitor;
+  private boolean continuous;
+  private boolean listMixers;
+  private boolean help;
+
+  private HeadlessApp(final PrintStream log) {
+    this.log = log;
+  }
+
+  /**
+   * Check that application must work in command line mode. Unknown arguments don't turn it on,
+   * because launchers can pass their own ones, for instance process serial number on macOS.
+   *
+   * @param args command line arguments, must not be null
+   * @return true if there is any known option or AWT works in headless mode
+   */
+  public static boolean isRequested(final String... args) {
+    return Boolean.getBoolean("java.awt.headless")
+        || Arrays.stream(args).anyMatch(OPTIONS::contains);
+  }
+
+  /**
+   * Parse arguments and execute command.
+   *
+   * @param args command line arguments, must not be null
+   * @return exit code, 0 if successful
+   */
+  public static int run(final String... args) {
+    final HeadlessApp app = new HeadlessApp(System.err);
+    try {
+      app.parse(args);
+    } catch (IllegalArgumentException ex) {
+      app.log.println("Error: " + ex.getMessage());
+      app.printHelp();
+      return 2;
+    }
+
+    if (app.help) {
+      app.printHelp();
+      return 0;
+    }
+
+    try {
+      if (app.listMixers) {
+        app.printMixers();
+        return 0;
+      }
+      if (app.decode != null) {
+        return app.decode();
+      }
+      if (app.verify) {
+        return app.verify();
+      }
+      if (app.output == null) {
+        return app.play();
+      } else {
+        return app.save();
+      }
+    } catch (Exception ex) {
+      app.log.println("Error: " + ex.getMessage());
+      return 1;
+    }
+  }
+
+  private static String takeValue(final String[] args, final int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+    }
+    return args[index];
+  }
+
+  private static int parseInt(final String name, final String value) {
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Wrong number for " + name + ": " + value);
+    }
+  }
+
+  private static MinuteBasedTimeSignalWavRenderer findProtocol(final String id) {
+    return PROTOCOLS.stream()
+        .filter(x -> x.getProtocolId().equalsIgnoreCase(id.trim()))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown protocol: " + id));
+  }
+
+  private static DstDetection findDstDetection(final String mode) {
+    switch (mode.trim().toLowerCase(Locale.ENGLISH)) {
+      case "auto":
+        return DstDetection.DST_AUTODETECT;
+      case "on":
+        return DstDetection.DST_FORCE_ON;
+      case "off":
+        return DstDetection.DST_FORCE_OFF;
+      default:
+        throw new IllegalArgumentException("Unknown DST mode: " + mode);
+    }
+  }
+
+  private void parse(final String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      final String arg = args[i];
+      switch (arg) {
+        case OPTION_HEADLESS:
+          break;
+        case "-h":
+        case "--help":
+          this.help = true;
+          break;
+        case "--list-mixers":
+          this.listMixers = true;
+          break;
+        case "--protocol":
+          this.protocol = findProtocol(takeValue(args, ++i));
+          break;
+        case "--start":
+          this.start = takeValue(args, ++i);
+          break;
+        case "--minutes":
+          this.minutes = parseInt(arg, takeValue(args, ++i));
+          if (this.minutes <= 0) {
+            throw new IllegalArgumentException("Number of minutes must be positive");
+          }
+          break;
+        case "--continuous":
+          this.continuous = true;
+          break;
+        case "--carrier":
+          this.carrierFreq = parseInt(arg, takeValue(args, ++i));
+          break;
+        case "--shape": {
+          final String value = takeValue(args, ++i);
+          try {
+            this.shape = AmplitudeSoundSignalRenderer.SignalShape.valueOf(
+                value.trim().toUpperCase(Locale.ENGLISH));
+          } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown shape: " + value);
+          }
+          break;
+        }
+        case "--sample-rate":
+          this.sampleRate = parseInt(arg, takeValue(args, ++i));
+          break;
+        case "--dst":
+          this.dstDetection = findDstDetection(takeValue(args, ++i));
+          break;
+        case "--latency":
+          this.outputLatencyMillis = parseInt(arg, takeValue(args, ++i));
+          break;
+        case "--buffer":
+          this.pcmBufferMillis = parseInt(arg, takeValue(args, ++i));
+          if (this.pcmBufferMillis <= 0) {
+            throw new IllegalArgumentException("Buffer duration must be positive");
+          }
+          break;
+        case "--mixer":
+          this.mixer = takeValue(args, ++i);
+          break;
+        case "--ntp":
+          this.ntpServer = takeValue(args, ++i);
+          break;
+        case "--out":
+          this.output = takeValue(args, ++i);
+          break;
+        case "--verify":
+          this.verify = true;
+          break;
+        case "--monitor":
+          this.monitor = true;
+          break;
+        case "--decode":
+          this.decode = takeValue(args, ++i);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument: " + arg);
+      }
+    }
+
+    if (this.continuous && (this.output != null || this.minutes > 0)) {
+      throw new IllegalArgumentException(
+          "Continuous mode can't be used with number of minutes or output file");
+    }
+    if ((this.verify || this.decode != null)
+        && (this.continuous || this.output != null || (this.verify && this.decode != null))) {
+      throw new IllegalArgumentException(
+          "Verify and decode modes can't be used together or with play and output options");
+    }
+    if (this.monitor && (this.output != null || this.verify || this.decode != null)) {
+      throw new IllegalArgumentException("Monitor can be used only for played signal");
+    }
+    if (this.carrierFreq < 0) {
+      this.carrierFreq = this.protocol.getAllowedCarrierFrequencies().get(0);
+    }
+    if (this.sampleRate <= 0) {
+      throw new IllegalArgumentException("Sample rate must be positive");
+    }
+    if (this.carrierFreq <= 0 || this.carrierFreq * 2 > this.sampleRate) {
+      throw new IllegalArgumentException(
+          "Carrier frequency must be 1.." + this.sampleRate / 2 + " Hz");
+    }
+  }
+
+  private void printHelp() {
+    this.log.println("Usage: [options]");
+    this.log.println("  --protocol <DCF77|JJY|WWVB|BPC>  time signal protocol (default DCF77)");
+    this.log.println("  --start <date-time>              ISO date time of the first minute,"
+        + " without zone the protocol zone is used (default upcoming minute)");
+    this.log.println("  --minutes <number>               number of minutes (default "
+        + DEFAULT_PLAY_MINUTES + " for play, " + DEFAULT_FILE_MINUTES + " for file)");
+    this.log.println("  --continuous                     play until stopped, records are made"
+        + " just in time");
+    this.log.println("  --carrier <hz>                   carrier frequency (default first allowed"
+        + " for protocol)");
+    this.log.println("  --shape <shape>                  carrier shape, one of "
+        + List.of(AmplitudeSoundSignalRenderer.SignalShape.values()) + " (default SIN)");
+    this.log.println("  --sample-rate <hz>               sample rate (default 48000)");
+    this.log.println("  --dst <auto|on|off>              DST detection mode (default auto)");
+    this.log.println("  --mixer <name>                   play through mixer which name contains"
+        + " the text (default system one)");
+    this.log.println("  --latency <ms>                   extra output device latency to align"
+        + " seconds (default 0)");
+    this.log.println("  --buffer <ms>                    PCM data buffered ahead of audio line"
+        + " (default " + AmplitudeSoundSignalRenderer.DEFAULT_PCM_BUFFER_MILLISECONDS + ")");
+    this.log.println("  --ntp <host>                     correct playback drift against NTP"
+        + " server time");
+    this.log.println("  --out <file|" + STDOUT + ">                    write WAV into file or"
+        + " standard output instead of play");
+    this.log.println("  --monitor                        decode played signal in background and"
+        + " print decoded minutes");
+    this.log.println("  --verify                         render minutes, decode them back and"
+        + " print bit errors and jitter, exit code 0 if no errors");
+    this.log.println("  --decode <file|" + STDIN + ">                decode WAV file or standard"
+        + " input, print minutes into standard output");
+    this.log.println("  --list-mixers                    print names of output mixers");
+    this.log.println("  --headless                       work without GUI if there is no other"
+        + " option");
+    this.log.println("  -h, --help                       print this help");
+    this.log.println("Allowed carrier frequencies:");
+    PROTOCOLS.forEach(x -> this.log.println(
+        "  " + x.getProtocolId() + ": " + x.getAllowedCarrierFrequencies()));
+  }
+
+  private void printMixers() {
+    final DataLine.Info info = new DataLine.Info(SourceDataLine.class, this.makeAudioFormat());
+    for (final Mixer.Info mixerInfo : AudioSystem.getMixerInfo()) {
+      if (AudioSystem.getMixer(mixerInfo).isLineSupported(info)) {
+        System.out.println(mixerInfo.getName() + " - " + mixerInfo.getDescription());
+      }
+    }
+  }
+
+  private AudioFormat makeAudioFormat() {
+    return new AudioFormat(this.sampleRate, 16, 1, true, false);
+  }
+
+  private ZonedDateTime findStartTime(final boolean play, final AdjustableClock clock) {
+    final ZonedDateTime now =
+        this.protocol.getZonedTimeDateNow(this.dstDetection).plusNanos(clock.getOffsetNanos());
+    if (this.start == null) {
+      final ZonedDateTime upcoming = now.plusMinutes(1); // ensure upcoming minute
+      return play ? upcoming : upcoming.truncatedTo(ChronoUnit.MINUTES);
+    }
+    try {
+      return ZonedDateTime.parse(this.start);
+    } catch (DateTimeParseException ex) {
+      try {
+        return LocalDateTime.parse(this.start).atZone(now.getZone());
+      } catch (DateTimeParseException exx) {
+        throw new IllegalArgumentException("Wrong start date time: " + this.start);
+      }
+    }
+  }
+
+  private List<MinuteBasedTimeSignalBits> makeRecords(final ZonedDateTime startTime,
+                                                      final int numberOfMinutes) {
+    return MinuteRecordCache.INSTANCE.findMinutes(this.protocol, startTime, numberOfMinutes,
+        this.dstDetection);
+  }
+
+  private int save() throws IOException {
+    final ZonedDateTime startTime =
+        this.findStartTime(false, new AdjustableClock(Clock.systemUTC()));
+    final List<MinuteBasedTimeSignalBits> records = this.makeRecords(startTime,
+        this.minutes < 0 ? DEFAULT_FILE_MINUTES : this.minutes);
+    this.log.println(String.format("Rendering %s since (%s): %s", this.protocol.getProtocolId(),
+        this.dstDetection, startTime));
+    this.log.println("Synthesis kernel: " + SynthesisKernels.getActive().getName());
+
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(this.protocol, 1, this.sampleRate, a -> null);
+    try {
+      final long length;
+      if (STDOUT.equals(this.output)) {
+        final OutputStream stream = new BufferedOutputStream(System.out, 65536);
+        length = renderer.renderWav(records, this.carrierFreq,
+            this.protocol.getAmplitudeDeviation(), this.shape, stream);
+      } else {
+        length = renderer.renderWavParallel(records, this.carrierFreq,
+            this.protocol.getAmplitudeDeviation(), this.shape, Paths.get(this.output),
+            ForkJoinPool.commonPool());
+      }
+      this.log.println("Written " + length + " byte(s)");
+    } finally {
+      renderer.dispose();
+    }
+    return 0;
+  }
+
+  private AbstractMinuteBasedTimeSignalRenderer findDecodableProtocol() {
+    if (!(this.protocol instanceof AbstractMinuteBasedTimeSignalRenderer)) {
+      throw new IllegalArgumentException(
+          "Protocol can't be decoded: " + this.protocol.getProtocolId());
+    }
+    return (AbstractMinuteBasedTimeSignalRenderer) this.protocol;
+  }
+
+  private int verify() {
+    final AbstractMinuteBasedTimeSignalRenderer renderer = this.findDecodableProtocol();
+    final ZonedDateTime startTime =
+        this.findStartTime(false, new AdjustableClock(Clock.systemUTC()));
+    final List<MinuteBasedTimeSignalBits> records = this.makeRecords(startTime,
+        this.minutes < 0 ? DEFAULT_FILE_MINUTES : this.minutes);
+    this.log.println(String.format("Verifying %s since (%s): %s", this.protocol.getProtocolId(),
+        this.dstDetection, startTime));
+    final LoopbackVerifier.Report report = LoopbackVerifier.verify(renderer, records,
+        this.carrierFreq, this.sampleRate, this.shape, this.protocol.getAmplitudeDeviation());
+    this.log.println(report);
+    return report.isPassed() ? 0 : 1;
+  }
+
+  private static String describeRecord(final int[] symbols,
+                                       final MinuteBasedTimeSignalBits record) {
+    final String result;
+    if (record == null) {
+      result = "not decodable";
+    } else if (record instanceof AbstractMinuteBasedTimeSignalRecord
+        && !((AbstractMinuteBasedTimeSignalRecord) record).isValid()) {
+      result = "invalid " + record;
+    } else {
+      String time;
+      try {
+        time = record.extractSourceTime().toString();
+      } catch (DateTimeException ex) {
+        time = "wrong time " + record;
+      }
+      result = time;
+    }
+    // unknown seconds are decoded as zero bits, for instance JJY call sign
+    final long unknown = Arrays.stream(symbols).filter(x -> x < 0).count();
+    return unknown == 0L ? result : result + " (unknown seconds: " + unknown + ')';
+  }
+
+  private int decode() throws IOException {
+    final AbstractMinuteBasedTimeSignalRenderer renderer = this.findDecodableProtocol();
+    final InputStream stream = STDIN.equals(this.decode)
+        ? System.in : Files.newInputStream(Paths.get(this.decode));
+    try (WavFileReader reader = new WavFileReader(stream)) {
+      if (reader.getChannels() != 1 || reader.getBitsPerSample() != 16) {
+        throw new IOException("Only mono 16 bit PCM is supported");
+      }
+      final int rate = reader.getSampleRate();
+      if (this.carrierFreq * 2 > rate) {
+        throw new IllegalArgumentException("Carrier frequency must be 1.." + rate / 2 + " Hz");
+      }
+      this.log.println(String.format("Decoding %s at %d Hz", this.protocol.getProtocolId(),
+          this.carrierFreq));
+      final TimeSignalDecoder decoder = new TimeSignalDecoder(renderer.getDescriptor(),
+          this.carrierFreq, rate, new TimeSignalDecoder.Listener() {
+        @Override
+        public void onMinute(final double startSample, final int[] symbols,
+                             final MinuteBasedTimeSignalBits record) {
+          System.out.println(String.format(Locale.ENGLISH, "%.6f s: %s", startSample / rate,
+              describeRecord(symbols, record)));
+        }
+      });
+      final byte[] buffer = new byte[65536];
+      int read;
+      while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+        decoder.process(buffer, 0, read);
+      }
+      decoder.flush();
+      this.log.println(String.format(Locale.ENGLISH,
+          "Minutes: %d, seconds: %d, unknown seconds: %d, carrier: %.3f, depth: %.3f",
+          decoder.getDecodedMinutes(), decoder.getDecodedSeconds(),
+          decoder.getUnknownSeconds(), decoder.getCarrierLevel(),
+          decoder.getModulationDepth()));
+      this.log.println("Start jitter: " + decoder.getStartJitter());
+      this.log.println("Width jitter: " + decoder.getWidthJitter());
+      return decoder.getDecodedMinutes() > 0 ? 0 : 1;
+    }
+  }
+
+  private void attachMonitor(final AmplitudeSoundSignalRenderer renderer) {
+    final SignalMonitor signalMonitor = new SignalMonitor(
+        this.findDecodableProtocol().getDescriptor(), this.sampleRate, MONITOR_BUFFER_MS,
+        new TimeSignalDecoder.Listener() {
+          @Override
+          public void onMinute(final double startSample, final int[] symbols,
+                               final MinuteBasedTimeSignalBits record) {
+            HeadlessApp.this.log.println("Monitor decoded: " + describeRecord(symbols, record));
+          }
+        });
+    renderer.setSignalMonitor(signalMonitor);
+    renderer.addPlaybackMetricsListener(
+        (source, metrics) -> this.log.println("Monitor: " + signalMonitor.getStatus()));
+  }
+
+  private SourceDataLine findLine(final AudioFormat format) throws LineUnavailableException {
+    final DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+    if (this.mixer == null) {
+      return (SourceDataLine) AudioSystem.getLine(info);
+    }
+    final String name = this.mixer.toLowerCase(Locale.ENGLISH);
+    for (final Mixer.Info mixerInfo : AudioSystem.getMixerInfo()) {
+      final Mixer found = AudioSystem.getMixer(mixerInfo);
+      if (mixerInfo.getName().toLowerCase(Locale.ENGLISH).contains(name)
+          && found.isLineSupported(info)) {
+        this.log.println("Selected mixer: " + mixerInfo.getName());
+        return (SourceDataLine) found.getLine(info);
+      }
+    }
+    throw new IllegalArgumentException("Can't find output mixer: " + this.mixer);
+  }
+
+  private boolean refreshNtpOffset(final NTPUDPClient client, final InetAddress address,
+                                   final AdjustableClock clock) {
+    try {
+      final TimeInfo info = client.getTime(address);
+      info.computeDetails();
+      final Long offset = info.getOffset();
+      if (offset != null) {
+        clock.setOffsetNanos(offset * 1_000_000L);
+        return true;
+      }
+    } catch (IOException ex) {
+      this.log.println("Can't get NTP packets from " + this.ntpServer + ": " + ex.getMessage());
+    }
+    return false;
+  }
+
+  private void startNtp(final NTPUDPClient client, final AdjustableClock clock,
+                        final TaskScope tasks) throws IOException {
+    final InetAddress address = InetAddress.getByName(this.ntpServer);
+    client.setDefaultTimeout(Duration.ofMillis(NTP_TIMEOUT_MS));
+    client.open();
+    if (this.refreshNtpOffset(client, address, clock)) {
+      this.log.println("NTP offset: " + clock.getOffsetNanos() / 1_000_000L + " ms");
+    }
+    tasks.scheduleWithFixedDelay("ntp-refresh",
+        () -> this.refreshNtpOffset(client, address, clock),
+        NTP_REFRESH_DELAY_MS, NTP_REFRESH_DELAY_MS);
+  }
+
+  private int play() throws InterruptedException, IOException {
+    final AdjustableClock clock = new AdjustableClock(Clock.systemUTC());
+    // NTP refresh and playback threads are stopped together
+    try (TaskScope tasks = new TaskScope("headless")) {
+      if (this.ntpServer == null) {
+        return this.play(clock, tasks);
+      }
+      final NTPUDPClient client = new NTPUDPClient();
+      try {
+        this.startNtp(client, clock, tasks);
+        return this.play(clock, tasks);
+      } finally {
+        tasks.cancel();
+        client.close();
+      }
+    }
+  }
+
+  private int play(final AdjustableClock clock, final TaskScope tasks)
+      throws InterruptedException {
+    final ZonedDateTime startTime = this.findStartTime(true, clock);
+    // reference clock moment when the first record second begins, to align played seconds
+    final Instant secondStart = Instant.now(clock).minusNanos(startTime.getNano());
+    final int numberOfMinutes = this.minutes < 0 ? DEFAULT_PLAY_MINUTES : this.minutes;
+    final List<MinuteBasedTimeSignalBits> records = this.continuous ? List.of()
+        : this.makeRecords(startTime, numberOfMinutes + 1);
+    final MinuteBasedTimeSignalBits stopRecord =
+        this.continuous ? null : records.get(numberOfMinutes);
+
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(this.protocol,
+            this.continuous ? RollingRecordProducer.DEFAULT_LOOK_AHEAD_MINUTES + 1
+                : records.size(), this.sampleRate, this::findLine);
+    renderer.setOutputLatencyMicros(this.outputLatencyMillis * 1000L);
+    renderer.setPcmBufferMilliseconds(this.pcmBufferMillis);
+    renderer.setClock(clock);
+    renderer.setTaskScope(tasks);
+    if (this.monitor) {
+      this.attachMonitor(renderer);
+    }
+
+    final CountDownLatch completed = new CountDownLatch(1);
+    renderer.addAmplitudeSoundSignalRendererListener((source, record) -> {
+      if (record == stopRecord) {
+        completed.countDown();
+      } else {
+        this.log.println("Playing: " + record);
+      }
+    });
+
+    final Thread shutdownHook = new Thread(renderer::dispose, "headless-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    try {
+      renderer.initAudioLine();
+      renderer.startAudio();
+      this.log.println(String.format("Playing %s since (%s): %s", this.protocol.getProtocolId(),
+          this.dstDetection, startTime));
+      this.log.println("Synthesis kernel: " + SynthesisKernels.getActive().getName());
+      if (this.continuous) {
+        final RollingRecordProducer producer =
+            new RollingRecordProducer(renderer, this.protocol, this.dstDetection,
+                this.carrierFreq, this.protocol.getAmplitudeDeviation(), this.shape,
+                RollingRecordProducer.DEFAULT_LOOK_AHEAD_MINUTES);
+        producer.start(startTime, secondStart);
+        try {
+          producer.join();
+        } finally {
+          producer.stop();
+        }
+        return renderer.isDisposed() ? 0 : 1;
+      }
+      for (final MinuteBasedTimeSignalBits record : records) {
+        if (!renderer.offer(record, this.carrierFreq, this.protocol.getAmplitudeDeviation(),
+            this.shape, record == records.get(0) ? secondStart : null)) {
+          throw new IllegalStateException("Can't queue record: " + record);
+        }
+      }
+      completed.await();
+    } finally {
+      renderer.dispose();
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException ex) {
+        // shutdown in progress
+      }
+    }
+    return 0;
+  }
+}
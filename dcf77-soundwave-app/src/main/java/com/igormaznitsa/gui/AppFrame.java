@@ -1,9 +1,12 @@
 package com.igormaznitsa.gui;
 
+import com.igormaznitsa.soundtime.AdjustableClock;
 import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
 import com.igormaznitsa.soundtime.DstDetection;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.MinuteRecordCache;
+import com.igormaznitsa.soundtime.TaskScope;
 import com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer;
 import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
 import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
@@ -18,19 +21,20 @@ import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.time.Duration;
-import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.sound.sampled.AudioFormat;
@@ -56,13 +60,13 @@ import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollPane;
 import javax.swing.JSeparator;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.event.MenuEvent;
 import javax.swing.event.MenuListener;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.commons.net.ntp.NTPUDPClient;
@@ -116,25 +120,26 @@ public final class AppFrame extends JFrame {
 
   private static final FileFilter FILE_FILTER_WAV =
       new FileNameExtensionFilter("WAV file (*.wav)", "wav");
+  /**
+   * Max number of minutes allowed to be saved into file, a week.
+   */
+  private static final int MAX_SAVED_MINUTES = 7 * 24 * 60;
   private static final int NTP_REFRESH_DELAY_MS = 333;
   private static final int NTP_TIMEOUT_MS = 600;
   private static final int MAX_NTP_ERROR_COUNTER = 5;
   private final Timer timer;
   private final AppPanel appPanel;
   private final AtomicReference<OutputLineInfo> currentMixer = new AtomicReference<>();
-  private final AtomicReference<Instant> currentTime = new AtomicReference<>(Instant.now());
+  private final AdjustableClock referenceClock = new AdjustableClock(Clock.systemUTC());
   private final AtomicReference<NTPUDPClient> currentNtpUDpClient = new AtomicReference<>();
-  private final ScheduledExecutorService timerNtpRefresh = new ScheduledThreadPoolExecutor(1,
-      r -> {
-        final Thread thread = new Thread(r, "timer-ntp-refresh");
-        thread.setDaemon(true);
-        return thread;
-      }, (r, executor) -> System.err.println("Detected rejected ntp task"));
-  private final AtomicReference<ScheduledFuture<?>> ntpScheduledFuture = new AtomicReference<>();
+  private final TaskScope tasks = new TaskScope("dcf77-soundwave");
+  private final AtomicReference<TaskScope.Task> ntpRefreshTask = new AtomicReference<>();
   private final AtomicReference<MinuteBasedTimeSignalWavRenderer> currentTimeSignalRenderer =
       new AtomicReference<>();
+  private final AtomicBoolean savingInProgress = new AtomicBoolean();
   private File lastSavedFile;
   private volatile DstDetection dstDetectionMode = DstDetection.DST_AUTODETECT;
+  private volatile boolean continuousPlayback;
 
   public AppFrame() {
     super(TITLE);
@@ -144,7 +149,10 @@ public final class AppFrame extends JFrame {
     this.appPanel = new AppPanel(
         this.currentMixer::get,
         this::getCurrentMinuteWavDataRenderer,
-        () -> this.dstDetectionMode
+        () -> this.dstDetectionMode,
+        () -> this.continuousPlayback,
+        this.referenceClock,
+        this.tasks
     );
     this.setJMenuBar(this.makeMenuBar());
     this.setContentPane(this.appPanel);
@@ -156,9 +164,9 @@ public final class AppFrame extends JFrame {
       @Override
       public void windowClosing(WindowEvent e) {
         AppFrame.this.closeCurrentNtpClient();
-        AppFrame.this.timerNtpRefresh.shutdownNow();
         AppFrame.this.cancelCurrentNtpRefreshTask(true);
         AppFrame.this.appPanel.dispose();
+        AppFrame.this.tasks.cancel();
         AppFrame.this.timer.stop();
         AppFrame.this.dispose();
       }
@@ -277,9 +285,9 @@ public final class AppFrame extends JFrame {
   }
 
   private void cancelCurrentNtpRefreshTask(final boolean mayInterruptIfRunning) {
-    final ScheduledFuture<?> scheduledFuture = this.ntpScheduledFuture.getAndSet(null);
-    if (scheduledFuture != null) {
-      scheduledFuture.cancel(mayInterruptIfRunning);
+    final TaskScope.Task task = this.ntpRefreshTask.getAndSet(null);
+    if (task != null) {
+      task.cancel(mayInterruptIfRunning);
     }
   }
 
@@ -296,6 +304,11 @@ public final class AppFrame extends JFrame {
   }
 
   private void saveAs() {
+    if (this.savingInProgress.get()) {
+      JOptionPane.showMessageDialog(this, "Previous file is still being saved", "Busy",
+          JOptionPane.WARNING_MESSAGE);
+      return;
+    }
     final JFileChooser fileChooser =
         new JFileChooser(this.lastSavedFile == null ? null : this.lastSavedFile.getParentFile());
     fileChooser.setAcceptAllFileFilterUsed(false);
@@ -312,19 +325,20 @@ public final class AppFrame extends JFrame {
       int minutes = 15;
       while (enter) {
         final String entered =
-            JOptionPane.showInputDialog(this, "Number of rendered minutes (1..60)", 15);
+            JOptionPane.showInputDialog(this,
+                "Number of rendered minutes (1.." + MAX_SAVED_MINUTES + ")", 15);
         if (entered == null) {
           return;
         } else {
           try {
             minutes = Integer.parseInt(entered.trim());
-            if (minutes <= 0 || minutes > 60) {
+            if (minutes <= 0 || minutes > MAX_SAVED_MINUTES) {
               throw new NumberFormatException();
             }
             enter = false;
           } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(this, "Value must be 1..60", "Wrong value",
-                JOptionPane.WARNING_MESSAGE);
+            JOptionPane.showMessageDialog(this, "Value must be 1.." + MAX_SAVED_MINUTES,
+                "Wrong value", JOptionPane.WARNING_MESSAGE);
           }
         }
       }
@@ -337,34 +351,88 @@ public final class AppFrame extends JFrame {
               this.appPanel.getSampleRate(),
               a -> null);
 
-      ZonedDateTime time = this.appPanel.getCurrentTimeWithShiftAwareness(this.dstDetectionMode)
+      final DstDetection dstDetection = this.dstDetectionMode;
+      final ZonedDateTime time = this.appPanel.getCurrentTimeWithShiftAwareness(dstDetection)
           .plusMinutes(1) // ensure upcoming minute
           .truncatedTo(ChronoUnit.MINUTES);
 
-      System.out.println("'Save as', rendering since (" + this.dstDetectionMode + "): " + time);
+      System.out.println("'Save as', rendering since (" + dstDetection + "): " + time);
+
+      // records are made lazily by batches of parallel rendering
+      final Iterable<MinuteBasedTimeSignalBits> records =
+          makeRecordSequence(minuteBasedTimeSignalWavRenderer, time, minutes, dstDetection);
+
+      final int carrierFreq = this.appPanel.getCarrierFreq();
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape = this.appPanel.getSignalShape();
+      final File targetFile = file;
+
+      final SwingWorker<Long, Void> worker = new SwingWorker<>() {
+        @Override
+        protected Long doInBackground() throws Exception {
+          return renderer.renderWavParallel(
+              records,
+              carrierFreq,
+              minuteBasedTimeSignalWavRenderer.getAmplitudeDeviation(),
+              signalShape,
+              targetFile.toPath(),
+              ForkJoinPool.commonPool());
+        }
 
-      final List<MinuteBasedTimeSignalBits> recordList = new ArrayList<>();
-      for (int i = 0; i < minutes; i++) {
-        recordList.add(
-            minuteBasedTimeSignalWavRenderer.makeTimeSignalBits(time, this.dstDetectionMode));
-        time = time.plusMinutes(1);
+        @Override
+        protected void done() {
+          try {
+            final long fileLength = this.get();
+            JOptionPane.showMessageDialog(AppFrame.this,
+                "Successfully saved as a WAV file, length " + fileLength + " byte(s)",
+                "Completed", JOptionPane.INFORMATION_MESSAGE);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            if (cause instanceof IOException) {
+              JOptionPane.showMessageDialog(AppFrame.this, "IO error: " + cause.getMessage(),
+                  "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+              JOptionPane.showMessageDialog(AppFrame.this,
+                  "Unexpected error: " + cause.getMessage(), "Error",
+                  JOptionPane.ERROR_MESSAGE);
+            }
+          } finally {
+            AppFrame.this.savingInProgress.set(false);
+          }
+        }
+      };
+      this.savingInProgress.set(true);
+      worker.execute();
+    }
+  }
+
+  private static Iterable<MinuteBasedTimeSignalBits> makeRecordSequence(
+      final MinuteBasedTimeSignalWavRenderer renderer,
+      final ZonedDateTime startTime,
+      final int minutes,
+      final DstDetection dstDetection) {
+    return () -> new Iterator<>() {
+      private ZonedDateTime time = startTime;
+      private int counter = minutes;
+
+      @Override
+      public boolean hasNext() {
+        return this.counter > 0;
       }
-      try {
-        final byte[] wavData = renderer.renderWav(recordList, this.appPanel.getCarrierFreq(),
-            minuteBasedTimeSignalWavRenderer.getAmplitudeDeviation(),
-            this.appPanel.getSignalShape());
-        FileUtils.writeByteArrayToFile(file, wavData);
-        JOptionPane.showMessageDialog(this,
-            "Successfully saved as a WAV file, length " + wavData.length + " byte(s)", "Completed",
-            JOptionPane.INFORMATION_MESSAGE);
-      } catch (IOException ex) {
-        JOptionPane.showMessageDialog(this, "IO error: " + ex.getMessage(), "Error",
-            JOptionPane.ERROR_MESSAGE);
-      } catch (Exception ex) {
-        JOptionPane.showMessageDialog(this, "Unexpected error: " + ex.getMessage(), "Error",
-            JOptionPane.ERROR_MESSAGE);
+
+      @Override
+      public MinuteBasedTimeSignalBits next() {
+        if (this.counter <= 0) {
+          throw new NoSuchElementException();
+        }
+        final MinuteBasedTimeSignalBits result =
+            MinuteRecordCache.INSTANCE.find(renderer, this.time, dstDetection);
+        this.time = this.time.plusMinutes(1);
+        this.counter--;
+        return result;
       }
-    }
+    };
   }
 
   private JMenuBar makeMenuBar() {
@@ -446,14 +514,14 @@ public final class AppFrame extends JFrame {
             System.out.println("Selected time source: " + timeSource);
             ntpErrorCounter.set(MAX_NTP_ERROR_COUNTER);
             this.cancelCurrentNtpRefreshTask(true);
-            final ScheduledFuture<?> newFuture = this.timerNtpRefresh.scheduleAtFixedRate(() -> {
+            final TaskScope.Task newTask =
+                this.tasks.scheduleWithFixedDelay("ntp-refresh", () -> {
                   this.closeCurrentNtpClient();
-                  this.currentTime.set(Instant.now());
-                },
-                0L, NTP_REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
-            if (!this.ntpScheduledFuture.compareAndSet(null, newFuture)) {
-              System.err.println("Can't set new future, unexpected racing!");
-              newFuture.cancel(true);
+                  this.referenceClock.setOffsetNanos(0L);
+                }, 0L, NTP_REFRESH_DELAY_MS);
+            if (!this.ntpRefreshTask.compareAndSet(null, newTask)) {
+              System.err.println("Can't set new task, unexpected racing!");
+              newTask.cancel(true);
             }
           });
         } else {
@@ -465,9 +533,8 @@ public final class AppFrame extends JFrame {
               System.out.println("Selected NTP server: " + timeSource);
 
               this.cancelCurrentNtpRefreshTask(true);
-              final ScheduledFuture<?> newFuture =
-                  this.timerNtpRefresh.scheduleAtFixedRate(() -> {
-                    long time;
+              final TaskScope.Task newTask =
+                  this.tasks.scheduleWithFixedDelay("ntp-refresh", () -> {
                     NTPUDPClient ntpudpClient = this.currentNtpUDpClient.get();
                     if (ntpudpClient == null) {
                       System.out.println("Creating NTP client");
@@ -490,12 +557,15 @@ public final class AppFrame extends JFrame {
                             JOptionPane.ERROR_MESSAGE);
                         activateFirstNtpSource.run();
                       });
-                      time = System.currentTimeMillis();
                     } else {
                       try {
                         ntpErrorCounter.set(MAX_NTP_ERROR_COUNTER);
                         final TimeInfo info = ntpudpClient.getTime(inetAddress);
-                        time = System.currentTimeMillis() + info.getOffset();
+                        info.computeDetails();
+                        final Long offset = info.getOffset();
+                        if (offset != null) {
+                          this.referenceClock.setOffsetNanos(offset * 1_000_000L);
+                        }
                       } catch (Exception ex) {
                         if (ntpErrorCounter.decrementAndGet() <= 0) {
                           this.cancelCurrentNtpRefreshTask(false);
@@ -507,15 +577,13 @@ public final class AppFrame extends JFrame {
                             activateFirstNtpSource.run();
                           });
                         }
-                        time = System.currentTimeMillis();
                       }
                     }
-                    this.currentTime.set(Instant.ofEpochMilli(time));
-                  }, 0L, NTP_REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
+                  }, 0L, NTP_REFRESH_DELAY_MS);
 
-              if (!this.ntpScheduledFuture.compareAndSet(null, newFuture)) {
-                System.err.println("Can't set new future, unexpected racing!");
-                newFuture.cancel(true);
+              if (!this.ntpRefreshTask.compareAndSet(null, newTask)) {
+                System.err.println("Can't set new task, unexpected racing!");
+                newTask.cancel(true);
               }
 
             });
@@ -598,6 +666,18 @@ public final class AppFrame extends JFrame {
     menuSettings.add(menuDstAutoDetect);
     menuSettings.add(menuForceDst);
 
+    final JCheckBoxMenuItem menuContinuousPlayback =
+        new JCheckBoxMenuItem("Continuous playback", GuiUtils.loadIcon("control_play_blue.png"),
+            this.continuousPlayback);
+    menuContinuousPlayback.setToolTipText(
+        "Play signal until stopped, otherwise playback is stopped after one hour");
+    menuContinuousPlayback.addActionListener(e -> {
+      this.continuousPlayback = menuContinuousPlayback.isSelected();
+      System.out.println("Continuous playback changed to " + this.continuousPlayback);
+    });
+    menuSettings.addSeparator();
+    menuSettings.add(menuContinuousPlayback);
+
     menuMode.addMenuListener(new MenuListener() {
       @Override
       public void menuSelected(MenuEvent e) {
@@ -624,6 +704,7 @@ public final class AppFrame extends JFrame {
         menuOutputDevices.setEnabled(!appPanel.isInRendering());
         menuDstAutoDetect.setEnabled(!appPanel.isInRendering());
         menuForceDst.setEnabled(!appPanel.isInRendering() && !menuDstAutoDetect.isSelected());
+        menuContinuousPlayback.setEnabled(!appPanel.isInRendering());
       }
 
       @Override
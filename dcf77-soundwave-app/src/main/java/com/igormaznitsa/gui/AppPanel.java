@@ -8,10 +8,15 @@ import static javax.swing.BorderFactory.createEtchedBorder;
 import com.github.lgooddatepicker.components.DatePickerSettings;
 import com.github.lgooddatepicker.components.DateTimePicker;
 import com.github.lgooddatepicker.components.TimePickerSettings;
+import com.igormaznitsa.soundtime.AdjustableClock;
 import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
 import com.igormaznitsa.soundtime.DstDetection;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.MinuteRecordCache;
+import com.igormaznitsa.soundtime.RollingRecordProducer;
+import com.igormaznitsa.soundtime.TaskScope;
+import com.igormaznitsa.soundtime.TimeUtils;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
@@ -19,11 +24,11 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicReference;
@@ -58,6 +63,9 @@ public class AppPanel extends JPanel {
   private final AppPanelToggleButton buttonFreq3;
   private final AtomicReference<AmplitudeSoundSignalRenderer> currentRenderer =
       new AtomicReference<>();
+  private final AtomicReference<TaskScope> currentSession = new AtomicReference<>();
+  private final AtomicReference<RollingRecordProducer> currentProducer =
+      new AtomicReference<>();
   private final Supplier<AppFrame.OutputLineInfo> mixerSupplier;
   private final SignalProgressBar progressBarTime;
   private final AppPanelToggleButton buttonCustomTime;
@@ -86,12 +94,19 @@ public class AppPanel extends JPanel {
   private volatile Supplier<? extends TimeOffsetProvider> currentTimeOffsetProvider;
   private volatile Supplier<? extends TimeDateIndicationProvider>
       currentTimeDateIndicationProviderSupplier;
+  private final AdjustableClock referenceClock;
+  private final TaskScope tasks;
+  private final Supplier<Boolean> continuousPlaybackSupplier;
+  private final Supplier<DstDetection> dstDetectionSupplier;
   private int lastSelectedTimeOffsetInSeconds = 0;
 
   public AppPanel(
       final Supplier<AppFrame.OutputLineInfo> mixerSupplier,
       final Supplier<MinuteBasedTimeSignalWavRenderer> minuteWavDataRendererSupplier,
-      final Supplier<DstDetection> dstDetectionSupplier
+      final Supplier<DstDetection> dstDetectionSupplier,
+      final Supplier<Boolean> continuousPlaybackSupplier,
+      final AdjustableClock referenceClock,
+      final TaskScope tasks
   ) {
     super(new BorderLayout(0, 0));
     this.setBorder(createEmptyBorder(8, 8, 8, 8));
@@ -100,10 +115,14 @@ public class AppPanel extends JPanel {
     this.baseTimeDateIndicationProviderSupplier = minuteWavDataRendererSupplier;
     this.currentTimeDateIndicationProviderSupplier = this.baseTimeDateIndicationProviderSupplier;
 
+    this.referenceClock = requireNonNull(referenceClock);
+    this.tasks = requireNonNull(tasks);
+    this.continuousPlaybackSupplier = requireNonNull(continuousPlaybackSupplier);
+    this.dstDetectionSupplier = requireNonNull(dstDetectionSupplier);
     this.currentTimeOffsetProvider = SUPPLIER_NO_OFFSET_PROVIDER;
     this.mixerSupplier = requireNonNull(mixerSupplier);
     this.timePanel = new TimePanel(() -> this.currentTimeDateIndicationProviderSupplier.get(),
-        () -> this.currentTimeOffsetProvider.get(), dstDetectionSupplier);
+        this::makeReferenceAwareTimeOffsetProvider, dstDetectionSupplier);
     this.timePanel.setBackground(TIME_PANEL_NORMAL);
     this.progressBarTime = new SignalProgressBar();
 
@@ -206,6 +225,7 @@ public class AppPanel extends JPanel {
       } else {
         this.currentTimeOffsetProvider = SUPPLIER_NO_OFFSET_PROVIDER;
       }
+      this.applyLiveTime();
     });
 
     this.buttonForceUTCTimeZone.addActionListener(e -> {
@@ -221,6 +241,7 @@ public class AppPanel extends JPanel {
               this.baseTimeDateIndicationProviderSupplier;
         }
       }
+      this.applyLiveTime();
     });
 
     this.buttonCustomTime.addActionListener(e -> {
@@ -267,6 +288,7 @@ public class AppPanel extends JPanel {
         this.timePanel.setBackground(TIME_PANEL_NORMAL);
       }
       this.timePanel.refreshTime();
+      this.applyLiveTime();
     });
 
     final ButtonGroup buttonGroupSignal = new ButtonGroup();
@@ -283,6 +305,10 @@ public class AppPanel extends JPanel {
     buttonGroupCarrier.add(this.buttonFreq2);
     buttonGroupCarrier.add(this.buttonFreq3);
 
+    List.of(this.buttonSine, this.buttonSquare, this.buttonTriangle, this.buttonFreq1,
+            this.buttonFreq2, this.buttonFreq3)
+        .forEach(b -> b.addActionListener(e -> this.applyLiveSignal()));
+
     this.button44100 = new AppPanelToggleButton("44.1 KHz");
     this.button44100.setToolTipText("Sound-card sampling 44100 Hz");
 
@@ -358,14 +384,35 @@ public class AppPanel extends JPanel {
     }
   }
 
+  /**
+   * Make time offset provider which also moves time by offset of selected time source.
+   *
+   * @return time offset provider, must not be null
+   */
+  private TimeOffsetProvider makeReferenceAwareTimeOffsetProvider() {
+    final TimeOffsetProvider provider = this.currentTimeOffsetProvider.get();
+    final long offsetNanos = this.referenceClock.getOffsetNanos();
+    return new TimeOffsetProvider() {
+      @Override
+      public ZonedDateTime apply(final ZonedDateTime dateTime) {
+        return provider.apply(dateTime.plusNanos(offsetNanos));
+      }
+
+      @Override
+      public String getOffsetTimeText() {
+        return provider.getOffsetTimeText();
+      }
+    };
+  }
+
   public ZonedDateTime getCurrentTimeWithShiftAwareness(final DstDetection dstDetection) {
     if (this.buttonForceUTCTimeZone.isSelected()) {
-      return this.currentTimeOffsetProvider.get()
+      return this.makeReferenceAwareTimeOffsetProvider()
           .apply(
               this.currentTimeDateIndicationProviderSupplier.get().getZonedTimeDateNow(dstDetection)
                   .withZoneSameInstant(UTC));
     } else {
-      return this.currentTimeOffsetProvider.get()
+      return this.makeReferenceAwareTimeOffsetProvider()
           .apply(this.currentTimeDateIndicationProviderSupplier.get()
               .getZonedTimeDateNow(dstDetection));
     }
@@ -377,6 +424,7 @@ public class AppPanel extends JPanel {
   }
 
   private void sendTimeData(
+      final TaskScope session,
       final AmplitudeSoundSignalRenderer renderer,
       final int numberOfRenderedMinutes,
       final int freqHz,
@@ -386,27 +434,32 @@ public class AppPanel extends JPanel {
     final MinuteBasedTimeSignalWavRenderer minuteRenderer =
         this.minuteWavDataRendererSupplier.get();
 
-    final Thread thread = new Thread(() -> {
-      ZonedDateTime zonedDateTime = this.getCurrentTimeWithShiftAwareness(dstDetection)
-          .plusMinutes(1); // ensure upcoming minute
+    session.start("fill-time", () -> {
+      final ZonedDateTime zonedDateTime =
+          TimeUtils.upcomingMinute(this.getCurrentTimeWithShiftAwareness(dstDetection));
+      // reference clock moment when the first record second begins, to align played seconds
+      Instant secondStart = Instant.now(this.referenceClock).minusNanos(zonedDateTime.getNano());
 
       System.out.println(
           String.format("Rendering start time (%s): %s", dstDetection, zonedDateTime));
 
       boolean addedSuccessfully = true;
 
+      // records of all minutes and the stop record are made in one batch
+      final List<MinuteBasedTimeSignalBits> records = MinuteRecordCache.INSTANCE.findMinutes(
+          minuteRenderer, zonedDateTime, numberOfRenderedMinutes + 1, dstDetection);
+
       for (int i = 0;
            i < numberOfRenderedMinutes && !renderer.isDisposed() &&
                !Thread.currentThread().isInterrupted(); i++) {
         addedSuccessfully &=
-            renderer.offer(minuteRenderer.makeTimeSignalBits(zonedDateTime, dstDetection), freqHz,
-                this.minuteWavDataRendererSupplier.get().getAmplitudeDeviation(), shape);
-
-        zonedDateTime = zonedDateTime.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+            renderer.offer(records.get(i), freqHz,
+                this.minuteWavDataRendererSupplier.get().getAmplitudeDeviation(), shape,
+                secondStart);
+        secondStart = null;
       }
 
-      final MinuteBasedTimeSignalBits stopRecord =
-          minuteRenderer.makeTimeSignalBits(zonedDateTime, dstDetection);
+      final MinuteBasedTimeSignalBits stopRecord = records.get(numberOfRenderedMinutes);
       addedSuccessfully &= renderer.offer(stopRecord, freqHz,
           this.minuteWavDataRendererSupplier.get().getAmplitudeDeviation(), shape);
 
@@ -433,9 +486,61 @@ public class AppPanel extends JPanel {
                       JOptionPane.INFORMATION_MESSAGE));
             }
           });
-    }, "fill-time");
-    thread.setDaemon(true);
-    thread.start();
+    });
+  }
+
+  private void sendTimeDataContinuously(
+      final AmplitudeSoundSignalRenderer renderer,
+      final int freqHz,
+      final AmplitudeSoundSignalRenderer.SignalShape shape,
+      final DstDetection dstDetection
+  ) {
+    final MinuteBasedTimeSignalWavRenderer minuteRenderer =
+        this.minuteWavDataRendererSupplier.get();
+    final ZonedDateTime zonedDateTime =
+        TimeUtils.upcomingMinute(this.getCurrentTimeWithShiftAwareness(dstDetection));
+    // reference clock moment when the first record second begins, to align played seconds
+    final Instant secondStart =
+        Instant.now(this.referenceClock).minusNanos(zonedDateTime.getNano());
+
+    System.out.println(
+        String.format("Continuous rendering start time (%s): %s", dstDetection, zonedDateTime));
+
+    final RollingRecordProducer producer =
+        new RollingRecordProducer(renderer, minuteRenderer, dstDetection, freqHz,
+            minuteRenderer.getAmplitudeDeviation(), shape,
+            RollingRecordProducer.DEFAULT_LOOK_AHEAD_MINUTES);
+    this.currentProducer.set(producer);
+    producer.start(zonedDateTime, secondStart);
+    this.setEnableLiveButtons(true);
+  }
+
+  /**
+   * Send selected carrier to continuous playback, it is applied on the next second.
+   */
+  private void applyLiveSignal() {
+    final AmplitudeSoundSignalRenderer renderer = this.currentRenderer.get();
+    if (renderer != null && this.currentProducer.get() != null) {
+      final int freq = this.getCarrierFreq();
+      final AmplitudeSoundSignalRenderer.SignalShape shape = this.getSignalShape();
+      System.out.println("Live signal change: " + freq + " Hz, " + shape);
+      renderer.changeSignal(freq, this.minuteWavDataRendererSupplier.get().getAmplitudeDeviation(),
+          shape);
+    }
+  }
+
+  /**
+   * Send selected time to continuous playback, it is applied on the next second.
+   */
+  private void applyLiveTime() {
+    final RollingRecordProducer producer = this.currentProducer.get();
+    if (producer != null) {
+      final ZonedDateTime zonedDateTime = TimeUtils.upcomingMinute(
+          this.getCurrentTimeWithShiftAwareness(this.dstDetectionSupplier.get()));
+      final Instant secondStart =
+          Instant.now(this.referenceClock).minusNanos(zonedDateTime.getNano());
+      producer.restart(zonedDateTime, secondStart);
+    }
   }
 
   private ZonedDateTime getSelectedTime(final ZonedDateTime now) {
@@ -489,6 +594,11 @@ public class AppPanel extends JPanel {
           140,
           sampleRate,
           audioFormat -> output.line);
+      renderer.setClock(this.referenceClock);
+      // all tasks of the playback are cancelled together during stop
+      final TaskScope session = this.tasks.newChild("playback");
+      this.currentSession.set(session);
+      renderer.setTaskScope(session);
 
       if (this.currentRenderer.compareAndSet(null, renderer)) {
         try {
@@ -498,9 +608,15 @@ public class AppPanel extends JPanel {
           final AmplitudeSoundSignalRenderer.SignalShape shape = this.getSignalShape();
           final int freq = this.getCarrierFreq();
 
-          this.sendTimeData(renderer, 60, freq, shape, dstDetection);
+          if (this.continuousPlaybackSupplier.get()) {
+            this.sendTimeDataContinuously(renderer, freq, shape, dstDetection);
+          } else {
+            this.sendTimeData(session, renderer, 60, freq, shape, dstDetection);
+          }
         } catch (Exception ex) {
           renderer.dispose();
+          this.currentSession.set(null);
+          session.close();
           this.currentRenderer.set(null);
           this.buttonStartStop.setSelected(false);
           this.setEnableButtons(true);
@@ -510,11 +626,22 @@ public class AppPanel extends JPanel {
   }
 
   private void stopRendering(final Runnable nextSwingAction) {
+    final RollingRecordProducer producer = this.currentProducer.getAndSet(null);
+    if (producer != null) {
+      producer.stop();
+    }
+    final TaskScope session = this.currentSession.getAndSet(null);
+    if (session != null) {
+      session.cancel();
+    }
     final AmplitudeSoundSignalRenderer renderer = this.currentRenderer.getAndSet(null);
     if (renderer != null) {
-      final Thread stopThread = new Thread(renderer::dispose, "stopping");
-      stopThread.setDaemon(true);
-      stopThread.start();
+      this.tasks.start("stopping", () -> {
+        renderer.dispose();
+        if (session != null) {
+          session.close();
+        }
+      });
 
       final Runnable swingAction = () -> {
         this.progressBarTime.setVisible(false);
@@ -536,13 +663,10 @@ public class AppPanel extends JPanel {
     }
   }
 
-  private void setEnableButtons(final boolean flag) {
+  private void setEnableLiveButtons(final boolean flag) {
     this.buttonSine.setEnabled(flag);
     this.buttonSquare.setEnabled(flag);
     this.buttonTriangle.setEnabled(flag);
-    this.button44100.setEnabled(flag);
-    this.button48000.setEnabled(flag);
-    this.button96000.setEnabled(flag);
     this.buttonFreq1.setEnabled(flag);
     this.buttonFreq2.setEnabled(flag);
     this.buttonFreq3.setEnabled(flag);
@@ -551,6 +675,13 @@ public class AppPanel extends JPanel {
     this.buttonForceUTCTimeZone.setEnabled(flag);
   }
 
+  private void setEnableButtons(final boolean flag) {
+    this.setEnableLiveButtons(flag);
+    this.button44100.setEnabled(flag);
+    this.button48000.setEnabled(flag);
+    this.button96000.setEnabled(flag);
+  }
+
   public TimePanel getTimePanel() {
     return this.timePanel;
   }
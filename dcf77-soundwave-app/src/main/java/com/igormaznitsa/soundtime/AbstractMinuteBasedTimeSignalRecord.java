@@ -31,20 +31,8 @@ public abstract class AbstractMinuteBasedTimeSignalRecord implements MinuteBased
       final int shift,
       final long mask
   ) {
-    long result = (data >>> shift) & mask;
-    if (mask > 1L) {
-      long reversed = 0L;
-      long restMask = mask;
-
-      while (restMask != 0L) {
-        reversed = (reversed << 1L) | (result & 1L);
-        result >>>= 1;
-        restMask >>>= 1;
-      }
-      return reversed;
-    } else {
-      return result;
-    }
+    // reverse of one bit field returns the bit
+    return BitFields.reverse((data >>> shift) & mask, BitFields.widthOf(mask));
   }
 
   /**
@@ -92,6 +80,18 @@ public abstract class AbstractMinuteBasedTimeSignalRecord implements MinuteBased
     return c * 100 + b * 10 + a;
   }
 
+  /**
+   * Read BCD field with padding bit between digits written in MSB first order.
+   *
+   * @param data  bit string
+   * @param shift index of the first field bit
+   * @param width width of field
+   * @return decoded value
+   */
+  protected static int readBcdPadded5(final long data, final int shift, final int width) {
+    return fromBcdPadded5((int) BitFields.extractReversed(data, shift, width));
+  }
+
   /**
    * Decode BCD value as integer.
    *
@@ -115,13 +115,7 @@ public abstract class AbstractMinuteBasedTimeSignalRecord implements MinuteBased
   }
 
   protected static boolean calcEvenParityOverBits(final long data, final int from, final int to) {
-    boolean result = false;
-    for (int i = from; i < to; i++) {
-      if (bits(data, i, 1L) != 0L) {
-        result = !result;
-      }
-    }
-    return result;
+    return BitFields.parity(data, from, to) != 0;
   }
 
   /**
@@ -132,13 +126,7 @@ public abstract class AbstractMinuteBasedTimeSignalRecord implements MinuteBased
    * @return result with reversed lowest bits
    */
   public static long reverseLowestBits(final long value, final int numberOfLowestBits) {
-    long acc = 0L;
-    long src = value;
-    for (int i = 0; i < numberOfLowestBits; i++) {
-      acc = (acc << 1) | (src & 1L);
-      src >>>= 1L;
-    }
-    return acc;
+    return BitFields.reverse(value, numberOfLowestBits);
   }
 
   protected static long setBits(
@@ -148,19 +136,7 @@ public abstract class AbstractMinuteBasedTimeSignalRecord implements MinuteBased
       final long mask,
       final boolean msb0
   ) {
-    long x;
-    if (mask != 1L && msb0) {
-      int maskBitsCount = 0;
-      long tempMask = mask;
-      while (tempMask != 0L) {
-        maskBitsCount++;
-        tempMask >>>= 1;
-      }
-      x = reverseLowestBits(value, maskBitsCount);
-    } else {
-      x = value;
-    }
-
+    final long x = msb0 ? BitFields.reverse(value, BitFields.widthOf(mask)) : value;
     final long shiftedMaskedValue = (x & mask) << shift;
     return (data & ~(mask << shift)) | shiftedMaskedValue;
   }
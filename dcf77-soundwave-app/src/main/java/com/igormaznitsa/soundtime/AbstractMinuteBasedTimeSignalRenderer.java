@@ -0,0 +1,59 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base renderer of minute time code described by {@link TimeCodeDescriptor}. Segments of seconds
+ * are taken from compiled table of the descriptor and second templates are played from them, so
+ * a protocol implementation provides only its description and record factory.
+ *
+ * @author Igor Maznitsa
+ */
+public abstract class AbstractMinuteBasedTimeSignalRenderer
+    implements MinuteBasedTimeSignalWavRenderer {
+
+  private final TimeCodeDescriptor descriptor;
+
+  protected AbstractMinuteBasedTimeSignalRenderer(final TimeCodeDescriptor descriptor) {
+    this.descriptor = requireNonNull(descriptor);
+  }
+
+  public TimeCodeDescriptor getDescriptor() {
+    return this.descriptor;
+  }
+
+  @Override
+  public String getProtocolId() {
+    return this.descriptor.getProtocolId();
+  }
+
+  @Override
+  public void makeSecondSegments(
+      final MinuteBasedTimeSignalBits minuteBitStringProvider,
+      final int second,
+      final int sampleRate,
+      final double amplitudeDeviation,
+      final SignalSegments segments) {
+    this.descriptor.appendSymbolSegments(
+        this.descriptor.findSymbol(minuteBitStringProvider, second), sampleRate,
+        amplitudeDeviation, segments);
+  }
+
+  @Override
+  public byte[] makeSecondWavData(
+      final MinuteBasedTimeSignalBits minuteBitStringProvider,
+      final int second,
+      final double freq,
+      final int sampleRate,
+      final int sampleBytes,
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      final double amplitudeDeviation,
+      final double startPhase) {
+    final int symbol = this.descriptor.findSymbol(minuteBitStringProvider, second);
+    return SecondTemplateCache.INSTANCE.find(
+        new SecondTemplateCache.Key(this.getProtocolId(), symbol, freq, sampleRate, sampleBytes,
+            signalShape, amplitudeDeviation, startPhase),
+        () -> this.descriptor.appendSymbolSegments(symbol, sampleRate, amplitudeDeviation,
+            new SignalSegments()).play(signalShape, freq, sampleRate, sampleBytes, startPhase));
+  }
+}
@@ -0,0 +1,67 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock which adds adjustable offset to base clock, for instance offset measured through NTP.
+ * Clocks made through {@link #withZone(ZoneId)} share the offset with the origin clock.
+ *
+ * @author Igor Maznitsa
+ */
+public final class AdjustableClock extends Clock {
+
+  private final Clock base;
+  private final AtomicLong offsetNanos;
+
+  /**
+   * Constructor.
+   *
+   * @param base base clock, must not be null
+   */
+  public AdjustableClock(final Clock base) {
+    this(base, new AtomicLong());
+  }
+
+  private AdjustableClock(final Clock base, final AtomicLong offsetNanos) {
+    this.base = requireNonNull(base);
+    this.offsetNanos = offsetNanos;
+  }
+
+  /**
+   * Get current offset from the base clock.
+   *
+   * @return offset in nanoseconds
+   */
+  public long getOffsetNanos() {
+    return this.offsetNanos.get();
+  }
+
+  /**
+   * Set offset from the base clock.
+   *
+   * @param offsetNanos offset in nanoseconds
+   */
+  public void setOffsetNanos(final long offsetNanos) {
+    this.offsetNanos.set(offsetNanos);
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return this.base.getZone();
+  }
+
+  @Override
+  public Clock withZone(final ZoneId zone) {
+    return new AdjustableClock(this.base.withZone(zone), this.offsetNanos);
+  }
+
+  @Override
+  public Instant instant() {
+    return this.base.instant().plusNanos(this.offsetNanos.get());
+  }
+}
@@ -1,18 +1,31 @@
 package com.igormaznitsa.soundtime;
 
-import static java.lang.Math.PI;
 import static java.util.Objects.requireNonNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import javax.sound.sampled.AudioFileFormat;
 import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
@@ -28,15 +41,55 @@ import javax.sound.sampled.SourceDataLine;
 public class AmplitudeSoundSignalRenderer {
 
   private static final int SAMPLE_BYTES = 2;
+  /**
+   * Duration of sound data chunk written into audio line per call.
+   */
+  private static final int CHUNK_MILLISECONDS = 20;
+  /**
+   * Number of minutes per pool thread in one batch of parallel WAV rendering.
+   */
+  private static final int PARALLEL_MINUTES_PER_THREAD = 4;
+  /**
+   * Period of playback metrics report.
+   */
+  private static final long METRICS_PERIOD_MILLISECONDS = 30_000L;
+  /**
+   * Max number of samples inserted or dropped per second of played audio during drift
+   * correction.
+   */
+  private static final int MAX_DRIFT_ADJUSTMENT_SAMPLES = 8;
+  /**
+   * Default duration of PCM data buffered between synthesis and audio writer threads.
+   */
+  public static final int DEFAULT_PCM_BUFFER_MILLISECONDS = 200;
+  /**
+   * Pause of a thread waiting for the other side of PCM ring buffer.
+   */
+  private static final long IDLE_PARK_NANOSECONDS = 1_000_000L;
   private final AudioFormat audioFormat;
   private final AtomicBoolean disposed = new AtomicBoolean();
   private final int sampleRate;
-  private final AtomicReference<Thread> thread = new AtomicReference<>();
-  private final BlockingQueue<RenderedRecord> renderQueue;
+  private final AtomicReference<TaskScope> taskScope = new AtomicReference<>();
+  private volatile TaskScope parentTaskScope;
+  private final BlockingQueue<PendingRecord> renderQueue;
   private final SourceDataLineSupplier sourceDataLineSupplier;
   private final AtomicReference<SourceDataLine> sourceDataLine = new AtomicReference<>();
   private final List<AmplitudeSoundSignalRendererListener> listeners = new CopyOnWriteArrayList<>();
+  private final List<PlaybackMetricsListener> metricsListeners = new CopyOnWriteArrayList<>();
   private final MinuteBasedTimeSignalWavRenderer minuteBasedTimeSignalWavRenderer;
+  private final int chunkBytes;
+  private final AtomicReference<PlaybackMetrics> lastPlaybackMetrics = new AtomicReference<>();
+  private final AtomicLong recordGeneration = new AtomicLong();
+  private volatile LiveSignal liveSignal;
+  private volatile long lineStartNanos = -1L;
+  private volatile long alignOffsetSamples;
+  private volatile boolean metricsLogging = true;
+  private volatile Clock clock = Clock.systemUTC();
+  private volatile long outputLatencyMicros;
+  private volatile boolean driftCorrection = true;
+  private volatile int pcmBufferMilliseconds = DEFAULT_PCM_BUFFER_MILLISECONDS;
+  private volatile SignalMonitor signalMonitor;
+  private PcmRingBuffer pcmRingBuffer;
 
   /**
    * Constructor.
@@ -55,6 +108,8 @@ public class AmplitudeSoundSignalRenderer {
     this.sampleRate = sampleRate;
     this.audioFormat = new AudioFormat(sampleRate, 8 * SAMPLE_BYTES, 1, true, false);
     this.sourceDataLineSupplier = sourceDataLineSupplier;
+    this.chunkBytes =
+        Math.max(SAMPLE_BYTES, sampleRate * CHUNK_MILLISECONDS / 1000 * SAMPLE_BYTES);
   }
 
   public void addAmplitudeSoundSignalRendererListener(
@@ -67,6 +122,39 @@ public class AmplitudeSoundSignalRenderer {
     this.listeners.remove(listener);
   }
 
+  /**
+   * Add listener of periodic playback metrics. Listeners are called from audio thread so they
+   * must not block.
+   *
+   * @param listener listener, must not be null
+   */
+  public void addPlaybackMetricsListener(final PlaybackMetricsListener listener) {
+    this.metricsListeners.add(Objects.requireNonNull(listener));
+  }
+
+  public void removePlaybackMetricsListener(final PlaybackMetricsListener listener) {
+    this.metricsListeners.remove(listener);
+  }
+
+  /**
+   * Get last reported playback metrics.
+   *
+   * @return last metrics or null if there is no any report yet
+   */
+  public PlaybackMetrics getLastPlaybackMetrics() {
+    return this.lastPlaybackMetrics.get();
+  }
+
+  /**
+   * Turn on or off periodic log line with playback metrics, it is on by default. The line is
+   * printed into standard error, so that standard output stays free for data.
+   *
+   * @param flag true to print metrics into log, false otherwise
+   */
+  public void setMetricsLogging(final boolean flag) {
+    this.metricsLogging = flag;
+  }
+
   /**
    * Check that internal queue is empty.
    *
@@ -116,16 +204,20 @@ public class AmplitudeSoundSignalRenderer {
     }
 
     final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    // all minutes of the call are rendered through the same buffer
+    final byte[] minuteBuffer = new byte[60 * this.sampleRate * SAMPLE_BYTES];
     for (final MinuteBasedTimeSignalBits record : recordList) {
-      buffer.writeBytes(
-          this.minuteBasedTimeSignalWavRenderer.makeMinuteWavData(
-              record,
-              freqHz,
-              this.sampleRate,
-              SAMPLE_BYTES,
-              signalShape,
-              amplitudeDeviation
-          ));
+      final int length = this.minuteBasedTimeSignalWavRenderer.makeMinuteWavData(
+          record,
+          freqHz,
+          this.sampleRate,
+          SAMPLE_BYTES,
+          signalShape,
+          amplitudeDeviation,
+          minuteBuffer,
+          0
+      );
+      buffer.write(minuteBuffer, 0, length);
     }
     buffer.close();
     final byte[] wavData = buffer.toByteArray();
@@ -138,58 +230,511 @@ public class AmplitudeSoundSignalRenderer {
     return resultFile.toByteArray();
   }
 
+  /**
+   * Render WAV data from records into output stream which can't be repositioned, for instance
+   * standard output. Number of seconds is calculated before rendering so that the header is
+   * written first with correct sizes, then seconds are written as soon as they are rendered.
+   *
+   * @param records            records to be rendered, must not be null
+   * @param freqHz             carrier wave frequency in Hz.
+   * @param amplitudeDeviation AM amplitude deviation.
+   * @param signalShape        signal shape to form audio signal.
+   * @param outputStream       target stream, must not be null, will not be closed
+   * @return number of written bytes
+   * @throws IOException if any problem during io operations.
+   */
+  public long renderWav(
+      final List<? extends MinuteBasedTimeSignalBits> records,
+      final int freqHz,
+      final double amplitudeDeviation,
+      final SignalShape signalShape,
+      final OutputStream outputStream) throws IOException {
+
+    if (freqHz <= 0 || freqHz > this.sampleRate) {
+      throw new IllegalArgumentException("Freq must be 0.." + this.sampleRate + ": " + freqHz);
+    }
+
+    long totalSeconds = 0L;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      totalSeconds += 60 - record.getSecond();
+    }
+    final long dataBytes = totalSeconds * this.sampleRate * SAMPLE_BYTES;
+    final ByteBuffer header =
+        WavFileWriter.makeHeader(this.sampleRate, 1, 8 * SAMPLE_BYTES, dataBytes);
+    outputStream.write(header.array(), header.position(), header.remaining());
+
+    final int bytesPerSecond = this.sampleRate * SAMPLE_BYTES;
+    long writtenSeconds = 0L;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      for (int i = record.getSecond(); i < 60; i++) {
+        outputStream.write(this.minuteBasedTimeSignalWavRenderer.makeSecondWavData(
+            record,
+            i,
+            freqHz,
+            this.sampleRate,
+            SAMPLE_BYTES,
+            signalShape,
+            amplitudeDeviation,
+            SecondTemplateCache.phaseAfterSeconds(0.0d, freqHz, writtenSeconds)), 0,
+            bytesPerSecond);
+        writtenSeconds++;
+      }
+    }
+    outputStream.flush();
+    return WavFileWriter.HEADER_SIZE + dataBytes;
+  }
+
+  /**
+   * Render WAV file from records in parallel. Minutes are rendered independently on the pool,
+   * carrier phase of each minute is calculated analytically from number of preceding seconds.
+   * Size of the file is known in advance so that the header is written first and each minute is
+   * rendered in place into memory mapped region of the file, without intermediate heap buffers.
+   * Each region is forced to the storage device when its minute is rendered. Records are taken
+   * in batches of few minutes per pool thread, so lazy generated records are not collected at
+   * once, they are iterated twice: to calculate size of the file and to render minutes.
+   *
+   * @param records            records to be rendered, can be lazy generated, must not be null
+   * @param freqHz             carrier wave frequency in Hz.
+   * @param amplitudeDeviation AM amplitude deviation.
+   * @param signalShape        signal shape to form audio signal.
+   * @param file               target file, will be overwritten
+   * @param pool               pool to render minutes, must not be null
+   * @return size of written file in bytes
+   * @throws IOException if any problem during io operations.
+   */
+  public long renderWavParallel(
+      final Iterable<? extends MinuteBasedTimeSignalBits> records,
+      final int freqHz,
+      final double amplitudeDeviation,
+      final SignalShape signalShape,
+      final Path file,
+      final ForkJoinPool pool) throws IOException {
+
+    if (freqHz <= 0 || freqHz > this.sampleRate) {
+      throw new IllegalArgumentException("Freq must be 0.." + this.sampleRate + ": " + freqHz);
+    }
+
+    long totalSeconds = 0L;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      totalSeconds += 60 - record.getSecond();
+    }
+    final long dataBytes = totalSeconds * this.sampleRate * SAMPLE_BYTES;
+
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeFully(channel,
+          WavFileWriter.makeHeader(this.sampleRate, 1, 8 * SAMPLE_BYTES, dataBytes), 0L);
+
+      final int batchSize = Math.max(1, pool.getParallelism()) * PARALLEL_MINUTES_PER_THREAD;
+      final List<MinuteBasedTimeSignalBits> batch = new ArrayList<>(batchSize);
+      final long[] secondOffsets = new long[batchSize];
+      long seconds = 0L;
+      for (final MinuteBasedTimeSignalBits record : records) {
+        secondOffsets[batch.size()] = seconds;
+        batch.add(record);
+        seconds += 60 - record.getSecond();
+        if (seconds > totalSeconds) {
+          break;
+        }
+        if (batch.size() == batchSize) {
+          this.renderMinutes(pool, batch, secondOffsets, freqHz, amplitudeDeviation, signalShape,
+              channel);
+          batch.clear();
+        }
+      }
+      if (seconds != totalSeconds) {
+        throw new IllegalStateException("Records are changed during rendering");
+      }
+      this.renderMinutes(pool, batch, secondOffsets, freqHz, amplitudeDeviation, signalShape,
+          channel);
+      channel.force(false);
+      return WavFileWriter.HEADER_SIZE + dataBytes;
+    }
+  }
+
+  private void renderMinutes(
+      final ForkJoinPool pool,
+      final List<MinuteBasedTimeSignalBits> records,
+      final long[] secondOffsets,
+      final int freqHz,
+      final double amplitudeDeviation,
+      final SignalShape signalShape,
+      final FileChannel channel) throws IOException {
+    if (records.isEmpty()) {
+      return;
+    }
+    try {
+      pool.invoke(new MinuteRenderTask(0, records.size(), records, secondOffsets, freqHz,
+          amplitudeDeviation, signalShape, channel));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private static void writeFully(final FileChannel channel, final ByteBuffer buffer,
+                                 final long position) throws IOException {
+    long pos = position;
+    while (buffer.hasRemaining()) {
+      pos += channel.write(buffer, pos);
+    }
+  }
+
+  /**
+   * Offer record for playing. The record is not rendered at once, its sound data is synthesized
+   * in small chunks just before writing into the audio line.
+   *
+   * @param dataProvider       minute record, must not be null
+   * @param freqHz             carrier wave frequency in Hz.
+   * @param amplitudeDeviation AM amplitude deviation.
+   * @param signalShape        signal shape to form audio signal.
+   * @return true if the record has been placed into queue, false otherwise
+   */
   public boolean offer(
       final MinuteBasedTimeSignalBits dataProvider,
       final int freqHz,
       final double amplitudeDeviation,
       final SignalShape signalShape) {
+    return this.offer(dataProvider, freqHz, amplitudeDeviation, signalShape, null);
+  }
+
+  /**
+   * Offer record for playing with known moment of its second start. The record is played
+   * sample-accurate aligned, its start is trimmed or preceding seconds of the minute are added
+   * so that each second begins at its true moment, the moment when a sample is heard is
+   * calculated from the line frame position and the output latency.
+   *
+   * @param dataProvider       minute record, must not be null
+   * @param freqHz             carrier wave frequency in Hz.
+   * @param amplitudeDeviation AM amplitude deviation.
+   * @param signalShape        signal shape to form audio signal.
+   * @param secondStart        moment when the record second begins, null if unknown
+   * @return true if the record has been placed into queue, false otherwise
+   * @see #setOutputLatencyMicros(long)
+   */
+  public boolean offer(
+      final MinuteBasedTimeSignalBits dataProvider,
+      final int freqHz,
+      final double amplitudeDeviation,
+      final SignalShape signalShape,
+      final Instant secondStart) {
     if (this.disposed.get()) {
       return false;
     }
-
-    final byte[] rendered = minuteBasedTimeSignalWavRenderer.makeMinuteWavData(
-        requireNonNull(dataProvider),
-        freqHz,
-        this.sampleRate,
-        SAMPLE_BYTES,
-        signalShape,
-        amplitudeDeviation);
     // 11071 , 15500, 12700
     return this.renderQueue.offer(
-        new RenderedRecord(dataProvider, rendered));
+        new PendingRecord(requireNonNull(dataProvider), freqHz, amplitudeDeviation,
+            requireNonNull(signalShape), secondStart, this.recordGeneration.get()));
   }
 
-  private void runnable() {
+  /**
+   * Set clock used to align seconds of played records.
+   *
+   * @param clock clock, must not be null
+   */
+  public void setClock(final Clock clock) {
+    this.clock = requireNonNull(clock);
+  }
+
+  /**
+   * Set extra latency of output device which is not visible through the line frame position,
+   * it is zero by default.
+   *
+   * @param latencyMicros latency in microseconds
+   */
+  public void setOutputLatencyMicros(final long latencyMicros) {
+    this.outputLatencyMicros = latencyMicros;
+  }
+
+  /**
+   * Turn on or off correction of drift between played audio and the clock, it is on by default.
+   * Correction works only for aligned playback, it inserts or drops single samples on second
+   * boundaries keeping carrier phase continuous.
+   *
+   * @param flag true to correct drift, false otherwise
+   * @see #setClock(Clock)
+   */
+  public void setDriftCorrection(final boolean flag) {
+    this.driftCorrection = flag;
+  }
+
+  /**
+   * Change carrier of played signal without restart, new parameters are applied on nearest
+   * second boundary of synthesized data and override parameters of all records.
+   *
+   * @param freqHz             carrier wave frequency in Hz
+   * @param amplitudeDeviation AM amplitude deviation
+   * @param signalShape        signal shape, must not be null
+   */
+  public void changeSignal(final int freqHz, final double amplitudeDeviation,
+                           final SignalShape signalShape) {
+    this.liveSignal = new LiveSignal(freqHz, amplitudeDeviation, requireNonNull(signalShape));
+  }
+
+  /**
+   * Remove queued records and complete currently played record on its nearest second boundary,
+   * so that records offered after the call take place of them. A record offered with its second
+   * start is aligned, so encoded time can be changed without break of played seconds.
+   */
+  public void skipQueuedRecords() {
+    this.recordGeneration.incrementAndGet();
+    this.renderQueue.clear();
+  }
+
+  /**
+   * Set duration of PCM data buffered between synthesis thread and audio writer thread, it must
+   * be called before audio line init.
+   *
+   * @param milliseconds buffer duration in milliseconds, must be positive
+   * @throws IllegalStateException if audio line already initialized
+   */
+  public void setPcmBufferMilliseconds(final int milliseconds) {
+    if (milliseconds <= 0) {
+      throw new IllegalArgumentException("Duration must be positive: " + milliseconds);
+    }
+    if (this.taskScope.get() != null) {
+      throw new IllegalStateException("Audio line already initialized");
+    }
+    this.pcmBufferMilliseconds = milliseconds;
+  }
+
+  /**
+   * Set monitor of played signal, each chunk written into audio line is tapped by the monitor and
+   * decoded in its own thread, the audio writer thread is never blocked by the monitor. It must be
+   * called before audio line init.
+   *
+   * @param monitor monitor with the same sample rate, null to play without monitor
+   * @throws IllegalArgumentException if sample rate of the monitor differs from the renderer one
+   * @throws IllegalStateException    if audio line already initialized
+   */
+  public void setSignalMonitor(final SignalMonitor monitor) {
+    if (monitor != null && monitor.getSampleRate() != this.sampleRate) {
+      throw new IllegalArgumentException("Monitor sample rate must be " + this.sampleRate);
+    }
+    if (this.taskScope.get() != null) {
+      throw new IllegalStateException("Audio line already initialized");
+    }
+    this.signalMonitor = monitor;
+  }
+
+  /**
+   * Get monitor of played signal.
+   *
+   * @return the monitor or null if not set
+   */
+  public SignalMonitor getSignalMonitor() {
+    return this.signalMonitor;
+  }
+
+  /**
+   * Set scope owning threads of the renderer, the renderer makes its own child scope in it during
+   * audio line init, so that cancel of the parent scope stops playback threads. It must be called
+   * before audio line init, if not set then independent root scope is used.
+   *
+   * @param parent parent task scope, can be null
+   * @throws IllegalStateException if audio line already initialized
+   */
+  public void setTaskScope(final TaskScope parent) {
+    if (this.taskScope.get() != null) {
+      throw new IllegalStateException("Audio line already initialized");
+    }
+    this.parentTaskScope = parent;
+  }
+
+  /**
+   * Get scope owning threads of the renderer, tasks started in it are cancelled during dispose.
+   *
+   * @return the task scope or null if audio line is not initialized
+   */
+  TaskScope getTaskScope() {
+    return this.taskScope.get();
+  }
+
+  private void synthesisRunnable() {
+    final PcmRingBuffer ring = this.pcmRingBuffer;
+    final SignalMonitor monitor = this.signalMonitor;
+    final DriftController drift =
+        new DriftController(this.sampleRate, MAX_DRIFT_ADJUSTMENT_SAMPLES);
+    final byte[] chunk = new byte[this.chunkBytes];
+    long driftLineStartNanos = this.lineStartNanos;
+    double carrierPhase = 0.0d;
+    Instant expectedSecondStart = null;
+
     while (!Thread.currentThread().isInterrupted()) {
-      final RenderedRecord nextRenderedRecord;
+      final PendingRecord nextRecord;
       try {
-        nextRenderedRecord = this.renderQueue.take();
+        nextRecord = this.renderQueue.take();
       } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
         break;
       }
 
+      if (nextRecord.generation != this.recordGeneration.get()) {
+        // skipped record
+        continue;
+      }
+
       this.listeners.forEach(x ->
-          x.onNextRecord(this, nextRenderedRecord.bitStringProvider));
+          x.onNextRecord(this, nextRecord.bitStringProvider));
 
       final SourceDataLine line = this.sourceDataLine.get();
       if (line == null) {
         return;
       }
       if (line.isOpen()) {
-        int length = nextRenderedRecord.soundData.length;
-        int offset = 0;
-        while (length > 0 && !Thread.currentThread().isInterrupted() && !this.disposed.get()) {
-          try {
-            final int written =
-                line.write(nextRenderedRecord.soundData, offset, length);
-            length -= written;
-            offset += written;
-          } catch (IllegalArgumentException ex) {
-            // looks like interrupted
+        final int recordSecond = nextRecord.bitStringProvider.getSecond();
+        final Instant secondStart =
+            nextRecord.secondStart == null ? expectedSecondStart : nextRecord.secondStart;
+        long startOffsetSamples = 0L;
+        if (secondStart != null && (nextRecord.secondStart != null
+            || (ring.size() == 0 && line.available() >= line.getBufferSize()))) {
+          final long producedFrames = ring.getWrittenBytes() / SAMPLE_BYTES;
+          final Instant playAt = SecondBoundaryAligner.calculatePlayMoment(
+              this.clock.instant(),
+              producedFrames,
+              line.getLongFramePosition(),
+              this.sampleRate,
+              this.outputLatencyMicros);
+          startOffsetSamples =
+              SecondBoundaryAligner.calculateStartOffsetSamples(secondStart, playAt,
+                  this.sampleRate);
+          drift.reset(playAt, producedFrames);
+          driftLineStartNanos = this.lineStartNanos;
+          this.alignOffsetSamples = startOffsetSamples;
+        }
+        expectedSecondStart =
+            secondStart == null ? null : secondStart.plusSeconds(60 - recordSecond);
+
+        LiveSignal streamSignal = this.liveSignal;
+        if (monitor != null) {
+          monitor.setCarrierFrequency(
+              streamSignal == null ? nextRecord.freqHz : streamSignal.freqHz);
+        }
+        final MinuteWavStream stream = new MinuteWavStream(
+            this.minuteBasedTimeSignalWavRenderer,
+            nextRecord.bitStringProvider,
+            streamSignal == null ? nextRecord.freqHz : streamSignal.freqHz,
+            this.sampleRate,
+            SAMPLE_BYTES,
+            streamSignal == null ? nextRecord.signalShape : streamSignal.signalShape,
+            streamSignal == null ? nextRecord.amplitudeDeviation
+                : streamSignal.amplitudeDeviation,
+            carrierPhase,
+            startOffsetSamples);
+        int streamAdjustment = 0;
+
+        while (!stream.isCompleted() && !Thread.currentThread().isInterrupted()
+            && !this.disposed.get()) {
+          final LiveSignal signal = this.liveSignal;
+          if (signal != streamSignal) {
+            stream.changeParameters(signal.freqHz, signal.signalShape,
+                signal.amplitudeDeviation);
+            streamSignal = signal;
+            if (monitor != null) {
+              // the monitor gets new carrier a bit earlier than buffered data is played
+              monitor.setCarrierFrequency(signal.freqHz);
+            }
           }
+          if (nextRecord.generation != this.recordGeneration.get()) {
+            stream.completeAtSecondEnd();
+          }
+          final int length = stream.read(chunk, 0, chunk.length);
+          int offset = 0;
+          while (offset < length && !Thread.currentThread().isInterrupted()
+              && !this.disposed.get()) {
+            final int written = ring.write(chunk, offset, length - offset);
+            if (written == 0) {
+              // ring is full, the writer thread is behind
+              LockSupport.parkNanos(IDLE_PARK_NANOSECONDS);
+            } else {
+              offset += written;
+            }
+          }
+
+          if (driftLineStartNanos != this.lineStartNanos) {
+            // line restarted, written frames are counted from zero
+            drift.stop();
+            driftLineStartNanos = this.lineStartNanos;
+          }
+          if (stream.getAppliedAdjustment() != streamAdjustment) {
+            drift.onAdjustmentApplied(stream.getAppliedAdjustment() - streamAdjustment);
+            streamAdjustment = stream.getAppliedAdjustment();
+          }
+          if (this.driftCorrection && drift.isStarted()) {
+            final long producedFrames = ring.getWrittenBytes() / SAMPLE_BYTES;
+            drift.update(SecondBoundaryAligner.calculatePlayMoment(
+                this.clock.instant(),
+                producedFrames,
+                line.getLongFramePosition(),
+                this.sampleRate,
+                this.outputLatencyMicros), producedFrames);
+            if (!stream.hasPendingAdjustment()) {
+              final int adjustment = drift.nextAdjustment(producedFrames);
+              if (adjustment != 0) {
+                stream.requestAdjustment(adjustment);
+              }
+            }
+          }
+        }
+        carrierPhase = stream.getEndPhase();
+      }
+    }
+  }
+
+  private void writerRunnable() {
+    final PcmRingBuffer ring = this.pcmRingBuffer;
+    final SignalMonitor monitor = this.signalMonitor;
+    final PlaybackMetricsCollector metrics =
+        new PlaybackMetricsCollector(this.sampleRate, METRICS_PERIOD_MILLISECONDS);
+    final byte[] chunk = new byte[this.chunkBytes];
+
+    while (!Thread.currentThread().isInterrupted() && !this.disposed.get()) {
+      final SourceDataLine line = this.sourceDataLine.get();
+      if (line == null) {
+        return;
+      }
+      int length = line.isOpen() ? ring.read(chunk, 0, chunk.length) : 0;
+      if (length == 0) {
+        // ring is starved, report metrics anyway
+        this.reportMetricsIfDue(metrics, line);
+        LockSupport.parkNanos(IDLE_PARK_NANOSECONDS);
+        continue;
+      }
+      int offset = 0;
+      while (length > 0 && !Thread.currentThread().isInterrupted()
+          && !this.disposed.get()) {
+        try {
+          metrics.syncLineStart(this.lineStartNanos);
+          metrics.checkUnderrun(line.getBufferSize(), line.available());
+          final long startNanos = System.nanoTime();
+          final int written = line.write(chunk, offset, length);
+          metrics.onWrite(System.nanoTime() - startNanos, written);
+          if (monitor != null && written > 0) {
+            // copy into monitor ring, data is dropped if the monitor is behind
+            monitor.tap(chunk, offset, written);
+          }
+          length -= written;
+          offset += written;
+        } catch (IllegalArgumentException ex) {
+          // looks like interrupted
         }
       }
+      this.reportMetricsIfDue(metrics, line);
+    }
+  }
+
+  private void reportMetricsIfDue(final PlaybackMetricsCollector metrics,
+                                  final SourceDataLine line) {
+    metrics.syncLineStart(this.lineStartNanos);
+    final long now = System.nanoTime();
+    if (metrics.isReportDue(now) && line.isOpen()) {
+      final PlaybackMetrics report = metrics.makeReport(now, this.renderQueue.size(),
+          line.getBufferSize(), line.available(), line.getLongFramePosition(),
+          this.alignOffsetSamples);
+      this.lastPlaybackMetrics.set(report);
+      if (this.metricsLogging) {
+        System.err.println("Playback metrics: " + report);
+      }
+      this.metricsListeners.forEach(x -> x.onPlaybackMetrics(this, report));
     }
   }
 
@@ -205,7 +750,7 @@ public class AmplitudeSoundSignalRenderer {
 
   public void initAudioLine() {
     this.assertNotDisposed();
-    if (this.thread.get() == null) {
+    if (this.taskScope.get() == null) {
       try {
         this.sourceDataLine.set(this.sourceDataLineSupplier.apply(this.audioFormat));
       } catch (Exception ex) {
@@ -223,14 +768,23 @@ public class AmplitudeSoundSignalRenderer {
         throw new IllegalStateException("Line unavailable", ex);
       }
 
-      final Thread thread =
-          new Thread(null, this::runnable, "minute-sound-renderer-" + System.identityHashCode(this),
-              16384);
-      thread.setPriority(Thread.NORM_PRIORITY);
-      thread.setDaemon(true);
-      if (this.thread.compareAndSet(null, thread)) {
-        thread.start();
+      this.pcmRingBuffer = PcmRingBuffer.ofMilliseconds(this.pcmBufferMilliseconds,
+          this.sampleRate, SAMPLE_BYTES);
+
+      final String scopeName = "minute-sound-renderer-" + System.identityHashCode(this);
+      final TaskScope parent = this.parentTaskScope;
+      final TaskScope scope =
+          parent == null ? new TaskScope(scopeName) : parent.newChild(scopeName);
+      if (this.taskScope.compareAndSet(null, scope)) {
+        scope.start("synthesis", this::synthesisRunnable);
+        // blocking write into audio line pins virtual thread, so platform thread is used
+        scope.startPlatform("writer", this::writerRunnable, 16384);
+        final SignalMonitor monitor = this.signalMonitor;
+        if (monitor != null) {
+          scope.start("monitor", monitor::analyzerRunnable);
+        }
       } else {
+        scope.close();
         throw new IllegalStateException("Detected already existed thread");
       }
     } else {
@@ -246,6 +800,7 @@ public class AmplitudeSoundSignalRenderer {
       synchronized (line) {
         line.start();
         line.drain();
+        this.lineStartNanos = System.nanoTime();
       }
     }
   }
@@ -266,24 +821,21 @@ public class AmplitudeSoundSignalRenderer {
   public void dispose() {
     if (this.disposed.compareAndSet(false, true)) {
       this.renderQueue.clear();
+      final TaskScope scope = this.taskScope.get();
+      if (scope != null) {
+        scope.cancel();
+      }
       final SourceDataLine line = this.sourceDataLine.getAndSet(null);
       if (line != null) {
-        final Thread thread = this.thread.getAndSet(null);
-        if (thread != null) {
-          thread.interrupt();
-        }
         synchronized (line) {
           this.safeStopLine(line);
           this.safeFlushLine(line);
           this.safeCloseLine(line);
         }
-        if (thread != null) {
-          try {
-            thread.join(3000L);
-          } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-          }
-        }
+      }
+      if (scope != null) {
+        // closed line releases blocked writer, so all tasks are awaited together
+        scope.close();
       }
     }
   }
@@ -313,29 +865,53 @@ public class AmplitudeSoundSignalRenderer {
   }
 
   public enum SignalShape {
-    SIN((i, f, a, r) -> {
-      final double time = (double) i / r;
-      return Math.round((Math.sin(PI * f * time) * Short.MAX_VALUE) * a);
-    }),
-    SQUARE((i, f, a, r) -> {
-      final double time = (double) i / r;
-      final double sineValue = Math.sin(PI * f * time);
-      return Math.round((sineValue >= 0.0d ? Short.MAX_VALUE : Short.MIN_VALUE) * a);
-    }),
-    TRIANGLE((i, f, a, r) -> {
-      final double time = (double) i / r;
-      final double sine = Math.sin(Math.PI * f * time);
-      return Math.round((2 / Math.PI) * Math.asin(sine) * Short.MAX_VALUE * a);
-    });
-
-    private final VolumeCalculator calculator;
-
-    SignalShape(VolumeCalculator calculator) {
-      this.calculator = calculator;
+    SIN((f, r) -> WaveTable.sine()),
+    SQUARE((f, r) -> WaveTable.square()),
+    TRIANGLE((f, r) -> WaveTable.triangle()),
+    SQUARE_BAND_LIMITED(WaveTable::bandLimitedSquare),
+    TRIANGLE_BAND_LIMITED(WaveTable::bandLimitedTriangle);
+
+    private final WaveTableProvider waveTableProvider;
+
+    SignalShape(final WaveTableProvider waveTableProvider) {
+      this.waveTableProvider = waveTableProvider;
+    }
+
+    /**
+     * Get wave table for carrier frequency and sample rate.
+     *
+     * @param freq       carrier frequency in Hz
+     * @param sampleRate sample rate in Hz
+     * @return wave table, must not be null
+     */
+    public WaveTable findWaveTable(final double freq, final int sampleRate) {
+      return this.waveTableProvider.apply(freq, sampleRate);
+    }
+
+    /**
+     * Make new oscillator for the shape, its phase is zero.
+     *
+     * @param freq       carrier frequency in Hz
+     * @param sampleRate sample rate in Hz
+     * @return new oscillator, must not be null
+     */
+    public Oscillator makeOscillator(final double freq, final int sampleRate) {
+      return new Oscillator(this.findWaveTable(freq, sampleRate), freq, sampleRate);
     }
 
+    /**
+     * Calculate value for sample index through wave table.
+     *
+     * @param sampleIndex index of sample byte, 16 bit sample expected
+     * @param freq        carrier frequency in Hz
+     * @param amplitude   amplitude multiplier
+     * @param sampleRate  sample rate in Hz
+     * @return calculated 16 bit signed sample value
+     */
     public long calculate(int sampleIndex, double freq, double amplitude, final int sampleRate) {
-      return this.calculator.apply(sampleIndex, freq, amplitude, sampleRate);
+      final double cycles = (double) sampleIndex * freq / (2.0d * sampleRate);
+      return Math.round(this.findWaveTable(freq, sampleRate).valueAt(cycles - Math.floor(cycles))
+          * amplitude);
     }
 
   }
@@ -347,8 +923,13 @@ public class AmplitudeSoundSignalRenderer {
   }
 
   @FunctionalInterface
-  private interface VolumeCalculator {
-    long apply(int sampleIndex, double freq, double amplitude, int sampeRate);
+  public interface PlaybackMetricsListener {
+    void onPlaybackMetrics(AmplitudeSoundSignalRenderer source, PlaybackMetrics metrics);
+  }
+
+  @FunctionalInterface
+  private interface WaveTableProvider {
+    WaveTable apply(double freq, int sampleRate);
   }
 
   @FunctionalInterface
@@ -356,15 +937,110 @@ public class AmplitudeSoundSignalRenderer {
     SourceDataLine apply(AudioFormat audioFormat) throws Exception;
   }
 
-  private static final class RenderedRecord {
+  private final class MinuteRenderTask extends RecursiveAction {
+    private final int from;
+    private final int to;
+    private final List<? extends MinuteBasedTimeSignalBits> records;
+    private final long[] secondOffsets;
+    private final int freqHz;
+    private final double amplitudeDeviation;
+    private final SignalShape signalShape;
+    private final FileChannel channel;
+
+    private MinuteRenderTask(
+        final int from,
+        final int to,
+        final List<? extends MinuteBasedTimeSignalBits> records,
+        final long[] secondOffsets,
+        final int freqHz,
+        final double amplitudeDeviation,
+        final SignalShape signalShape,
+        final FileChannel channel) {
+      this.from = from;
+      this.to = to;
+      this.records = records;
+      this.secondOffsets = secondOffsets;
+      this.freqHz = freqHz;
+      this.amplitudeDeviation = amplitudeDeviation;
+      this.signalShape = signalShape;
+      this.channel = channel;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= 1) {
+        if (this.to > this.from) {
+          this.renderMinute(this.from);
+        }
+      } else {
+        final int middle = (this.from + this.to) >>> 1;
+        invokeAll(
+            new MinuteRenderTask(this.from, middle, this.records, this.secondOffsets,
+                this.freqHz, this.amplitudeDeviation, this.signalShape, this.channel),
+            new MinuteRenderTask(middle, this.to, this.records, this.secondOffsets,
+                this.freqHz, this.amplitudeDeviation, this.signalShape, this.channel));
+      }
+    }
+
+    private void renderMinute(final int index) {
+      final long secondOffset = this.secondOffsets[index];
+      final MinuteBasedTimeSignalBits record = this.records.get(index);
+      try {
+        final MappedByteBuffer region = this.channel.map(FileChannel.MapMode.READ_WRITE,
+            WavFileWriter.HEADER_SIZE + secondOffset * sampleRate * SAMPLE_BYTES,
+            (long) (60 - record.getSecond()) * sampleRate * SAMPLE_BYTES);
+        minuteBasedTimeSignalWavRenderer.makeMinuteWavData(
+            record,
+            this.freqHz,
+            sampleRate,
+            SAMPLE_BYTES,
+            this.signalShape,
+            this.amplitudeDeviation,
+            SecondTemplateCache.phaseAfterSeconds(0.0d, this.freqHz, secondOffset),
+            region);
+        // mapped data is flushed by rendering thread, so flushing is parallel too
+        region.force();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  }
+
+  private static final class PendingRecord {
     private final MinuteBasedTimeSignalBits bitStringProvider;
-    private final byte[] soundData;
+    private final int freqHz;
+    private final double amplitudeDeviation;
+    private final SignalShape signalShape;
+    private final Instant secondStart;
+    private final long generation;
 
-    private RenderedRecord(final MinuteBasedTimeSignalBits bitStringProvider,
-                           final byte[] soundData
+    private PendingRecord(final MinuteBasedTimeSignalBits bitStringProvider,
+                          final int freqHz,
+                          final double amplitudeDeviation,
+                          final SignalShape signalShape,
+                          final Instant secondStart,
+                          final long generation
     ) {
       this.bitStringProvider = bitStringProvider;
-      this.soundData = soundData;
+      this.freqHz = freqHz;
+      this.amplitudeDeviation = amplitudeDeviation;
+      this.signalShape = signalShape;
+      this.secondStart = secondStart;
+      this.generation = generation;
+    }
+  }
+
+  private static final class LiveSignal {
+    private final int freqHz;
+    private final double amplitudeDeviation;
+    private final SignalShape signalShape;
+
+    private LiveSignal(final int freqHz,
+                       final double amplitudeDeviation,
+                       final SignalShape signalShape) {
+      this.freqHz = freqHz;
+      this.amplitudeDeviation = amplitudeDeviation;
+      this.signalShape = signalShape;
     }
   }
 }
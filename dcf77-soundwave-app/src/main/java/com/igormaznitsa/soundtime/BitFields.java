@@ -0,0 +1,211 @@
+package com.igormaznitsa.soundtime;
+
+/**
+ * Branch-free operations over bit fields of 64 bit words. Reversal is made by
+ * {@link Long#reverse(long)}, parity by {@link Long#bitCount(long)} and field masks are taken from
+ * precomputed table, JIT compiles them into few CPU instructions, so cost of a field doesn't
+ * depend on its width.
+ *
+ * @author Igor Maznitsa
+ */
+public final class BitFields {
+
+  private static final long[] MASKS = new long[65];
+
+  static {
+    for (int i = 0; i < 64; i++) {
+      MASKS[i] = (1L << i) - 1L;
+    }
+    MASKS[64] = -1L;
+  }
+
+  private BitFields() {
+  }
+
+  /**
+   * Get mask of lowest bits.
+   *
+   * @param width number of bits, 0..64
+   * @return mask where the lowest bits are set
+   */
+  public static long mask(final int width) {
+    return MASKS[width];
+  }
+
+  /**
+   * Get mask of bit range.
+   *
+   * @param from index of the first bit, inclusive
+   * @param to   index of the last bit, exclusive, must not be less than from
+   * @return mask where bits of the range are set
+   */
+  public static long rangeMask(final int from, final int to) {
+    return MASKS[to - from] << from;
+  }
+
+  /**
+   * Get width of mask, it is index of its highest set bit plus one.
+   *
+   * @param mask mask
+   * @return number of bits 0..64
+   */
+  public static int widthOf(final long mask) {
+    return 64 - Long.numberOfLeadingZeros(mask);
+  }
+
+  /**
+   * Reverse order of lowest bits, higher bits are dropped.
+   *
+   * @param value value
+   * @param width number of lowest bits, 0..64
+   * @return value with reversed lowest bits
+   */
+  public static long reverse(final long value, final int width) {
+    // shift by 64 is shift by 0 in Java, the mask clears result for zero width
+    return (Long.reverse(value) >>> (64 - width)) & MASKS[width];
+  }
+
+  /**
+   * Check bit.
+   *
+   * @param data  data word
+   * @param index index of bit
+   * @return true if the bit is set
+   */
+  public static boolean isSet(final long data, final int index) {
+    return ((data >>> index) & 1L) != 0L;
+  }
+
+  /**
+   * Extract field, the lowest bit of field is the lowest bit of result.
+   *
+   * @param data  data word
+   * @param shift index of the lowest field bit
+   * @param width width of field
+   * @return field value
+   */
+  public static long extract(final long data, final int shift, final int width) {
+    return (data >>> shift) & MASKS[width];
+  }
+
+  /**
+   * Extract field written in MSB first order, the lowest bit of field is the highest bit of
+   * result.
+   *
+   * @param data  data word
+   * @param shift index of the lowest field bit
+   * @param width width of field
+   * @return field value
+   */
+  public static long extractReversed(final long data, final int shift, final int width) {
+    return reverse(data >>> shift, width);
+  }
+
+  /**
+   * Replace field by value, extra bits of the value are ignored.
+   *
+   * @param data  data word
+   * @param value field value
+   * @param shift index of the lowest field bit
+   * @param width width of field
+   * @return new data word
+   */
+  public static long insert(final long data, final long value, final int shift,
+                            final int width) {
+    final long mask = MASKS[width] << shift;
+    return (data & ~mask) | ((value << shift) & mask);
+  }
+
+  /**
+   * Replace field by value in MSB first order, the highest bit of value is written into the
+   * lowest field bit.
+   *
+   * @param data  data word
+   * @param value field value
+   * @param shift index of the lowest field bit
+   * @param width width of field
+   * @return new data word
+   */
+  public static long insertReversed(final long data, final long value, final int shift,
+                                    final int width) {
+    return insert(data, reverse(value, width), shift, width);
+  }
+
+  /**
+   * Interleave lowest 32 bits of two words, bit i of even word goes to bit 2i of result and bit i
+   * of odd word goes to bit 2i+1, so each pair of bits keeps value of bits with the same index.
+   *
+   * @param even word provides the lower bit of each pair
+   * @param odd  word provides the higher bit of each pair
+   * @return interleaved bit pairs
+   */
+  public static long interleave(final long even, final long odd) {
+    return spread(even) | (spread(odd) << 1);
+  }
+
+  private static long spread(final long value) {
+    long x = value & 0xFFFF_FFFFL;
+    x = (x | (x << 16)) & 0x0000_FFFF_0000_FFFFL;
+    x = (x | (x << 8)) & 0x00FF_00FF_00FF_00FFL;
+    x = (x | (x << 4)) & 0x0F0F_0F0F_0F0F_0F0FL;
+    x = (x | (x << 2)) & 0x3333_3333_3333_3333L;
+    return (x | (x << 1)) & 0x5555_5555_5555_5555L;
+  }
+
+  /**
+   * Collect even bits of word, bit 2i goes to bit i of result. It is inverse operation for lower
+   * bits of pairs made by {@link #interleave(long, long)}.
+   *
+   * @param value value
+   * @return 32 bit value in the lowest bits
+   */
+  public static long evenBits(final long value) {
+    return compact(value);
+  }
+
+  /**
+   * Collect odd bits of word, bit 2i+1 goes to bit i of result. It is inverse operation for higher
+   * bits of pairs made by {@link #interleave(long, long)}.
+   *
+   * @param value value
+   * @return 32 bit value in the lowest bits
+   */
+  public static long oddBits(final long value) {
+    return compact(value >>> 1);
+  }
+
+  private static long compact(final long value) {
+    long x = value & 0x5555_5555_5555_5555L;
+    x = (x | (x >>> 1)) & 0x3333_3333_3333_3333L;
+    x = (x | (x >>> 2)) & 0x0F0F_0F0F_0F0F_0F0FL;
+    x = (x | (x >>> 4)) & 0x00FF_00FF_00FF_00FFL;
+    x = (x | (x >>> 8)) & 0x0000_FFFF_0000_FFFFL;
+    return (x | (x >>> 16)) & 0xFFFF_FFFFL;
+  }
+
+  /**
+   * Reverse order of lowest bit pairs, bits inside each pair keep their order.
+   *
+   * @param value value
+   * @param pairs number of lowest pairs, 0..32
+   * @return value with reversed lowest pairs
+   */
+  public static long reversePairs(final long value, final int pairs) {
+    final long reversed = Long.reverse(value);
+    final long swapped = ((reversed >>> 1) & 0x5555_5555_5555_5555L)
+        | ((reversed & 0x5555_5555_5555_5555L) << 1);
+    return (swapped >>> (64 - (pairs << 1))) & MASKS[pairs << 1];
+  }
+
+  /**
+   * Calculate parity of bit range.
+   *
+   * @param data data word
+   * @param from index of the first bit, inclusive
+   * @param to   index of the last bit, exclusive
+   * @return 1 if number of set bits in the range is odd, 0 otherwise
+   */
+  public static int parity(final long data, final int from, final int to) {
+    return Long.bitCount(data & rangeMask(from, to)) & 1;
+  }
+}
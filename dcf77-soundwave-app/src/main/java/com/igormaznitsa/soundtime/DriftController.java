@@ -0,0 +1,153 @@
+package com.igormaznitsa.soundtime;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Closed loop controller of drift between played audio and reference clock. Error is the
+ * difference between the moment when the next written sample will be heard and the moment when
+ * it must be heard according to the reference clock, it is smoothed to suppress jitter of frame
+ * position and clock, then small sample adjustments are requested to pull it back to zero. It
+ * must be called only from synthesis thread, which produces PCM data for the audio writer thread.
+ *
+ * @author Igor Maznitsa
+ */
+final class DriftController {
+
+  /**
+   * Smoothing factor of error per update, updates are made for each written chunk.
+   */
+  private static final double SMOOTHING = 0.005d;
+  /**
+   * Proportional gain, part of smoothed error corrected per second.
+   */
+  private static final double GAIN_PROPORTIONAL = 0.1d;
+  /**
+   * Integral gain, it learns constant rate difference between device and reference clocks.
+   */
+  private static final double GAIN_INTEGRAL = 0.005d;
+
+  private final int sampleRate;
+  private final int maxAdjustmentSamples;
+  private boolean started;
+  private Instant referencePlayAt;
+  private long referenceWrittenFrames;
+  private long netAdjustmentFrames;
+  private long lastAdjustmentWrittenFrames;
+  private double smoothedErrorNanos;
+  private double rateSamples;
+  private double remainderSamples;
+
+  /**
+   * Constructor.
+   *
+   * @param sampleRate           sample rate in Hz
+   * @param maxAdjustmentSamples max number of samples inserted or dropped per adjustment
+   */
+  DriftController(final int sampleRate, final int maxAdjustmentSamples) {
+    this.sampleRate = sampleRate;
+    this.maxAdjustmentSamples = maxAdjustmentSamples;
+  }
+
+  /**
+   * Check that reference point is set.
+   *
+   * @return true if the controller is started
+   */
+  boolean isStarted() {
+    return this.started;
+  }
+
+  /**
+   * Set reference point, the sample written after the given number of frames must be heard at the
+   * given moment, all following samples are heard at the sample rate of the reference clock.
+   *
+   * @param playAt        moment when the next written sample is heard, must not be null
+   * @param writtenFrames number of frames written into the line
+   */
+  void reset(final Instant playAt, final long writtenFrames) {
+    this.started = true;
+    this.referencePlayAt = playAt;
+    this.referenceWrittenFrames = writtenFrames;
+    this.lastAdjustmentWrittenFrames = writtenFrames;
+    this.netAdjustmentFrames = 0L;
+    this.smoothedErrorNanos = 0.0d;
+    this.rateSamples = 0.0d;
+    this.remainderSamples = 0.0d;
+  }
+
+  /**
+   * Forget reference point, the controller does nothing till next reset.
+   */
+  void stop() {
+    this.started = false;
+  }
+
+  /**
+   * Update error by new measurement, ignored if the controller is not started.
+   *
+   * @param playAt        measured moment when the next written sample is heard, must not be null
+   * @param writtenFrames number of frames written into the line
+   */
+  void update(final Instant playAt, final long writtenFrames) {
+    if (!this.started) {
+      return;
+    }
+    final long contentFrames =
+        writtenFrames - this.referenceWrittenFrames - this.netAdjustmentFrames;
+    final Instant expected =
+        this.referencePlayAt.plusNanos(contentFrames * 1_000_000_000L / this.sampleRate);
+    final Duration error = Duration.between(expected, playAt);
+    final double errorNanos = error.getSeconds() * 1.0E9d + error.getNano();
+    this.smoothedErrorNanos += SMOOTHING * (errorNanos - this.smoothedErrorNanos);
+  }
+
+  /**
+   * Notify that adjustment has been applied to written data.
+   *
+   * @param samples number of inserted samples, negative for dropped ones
+   */
+  void onAdjustmentApplied(final int samples) {
+    // error is not shifted here, the effect is visible through the smoothed measurements
+    this.netAdjustmentFrames += samples;
+  }
+
+  /**
+   * Get smoothed error.
+   *
+   * @return error in nanoseconds, positive if audio is heard later than required
+   */
+  long getErrorNanos() {
+    return Math.round(this.smoothedErrorNanos);
+  }
+
+  /**
+   * Calculate next adjustment, it is provided not often than once per second of written audio.
+   * Proportional and integral parts are accumulated in fractions of sample, so that even small
+   * rate difference is corrected in average.
+   *
+   * @param writtenFrames number of frames written into the line
+   * @return number of samples to insert, negative to drop, zero if no adjustment needed
+   */
+  int nextAdjustment(final long writtenFrames) {
+    if (!this.started || writtenFrames - this.lastAdjustmentWrittenFrames < this.sampleRate) {
+      return 0;
+    }
+    final double seconds =
+        (writtenFrames - this.lastAdjustmentWrittenFrames) / (double) this.sampleRate;
+    this.lastAdjustmentWrittenFrames = writtenFrames;
+
+    // late audio needs dropped samples, early audio needs inserted ones
+    final double errorSamples = -this.smoothedErrorNanos * this.sampleRate / 1.0E9d;
+    this.rateSamples = this.limit(this.rateSamples + GAIN_INTEGRAL * errorSamples * seconds);
+    this.remainderSamples = this.limit(this.remainderSamples
+        + (GAIN_PROPORTIONAL * errorSamples + this.rateSamples) * seconds);
+    final int samples = (int) this.remainderSamples;
+    this.remainderSamples -= samples;
+    return samples;
+  }
+
+  private double limit(final double samples) {
+    return Math.max(-this.maxAdjustmentSamples, Math.min(this.maxAdjustmentSamples, samples));
+  }
+}
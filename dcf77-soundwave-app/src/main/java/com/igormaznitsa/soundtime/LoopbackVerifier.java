@@ -0,0 +1,274 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Software loopback check of rendered signal. Minutes are rendered into PCM by the renderer, the
+ * PCM is decoded by {@link TimeSignalDecoder} and decoded seconds and records are compared with
+ * rendered ones. Timing of edges is compared with exact sample positions of rendered pulses.
+ *
+ * @author Igor Maznitsa
+ */
+public final class LoopbackVerifier {
+
+  private static final int SAMPLE_BYTES = 2;
+
+  private LoopbackVerifier() {
+  }
+
+  /**
+   * Render and decode records.
+   *
+   * @param renderer           renderer of protocol, must not be null
+   * @param records            records of consecutive minutes, must not be null or empty
+   * @param freq               carrier frequency in Hz
+   * @param sampleRate         sample rate in Hz
+   * @param signalShape        carrier signal shape, must not be null
+   * @param amplitudeDeviation AM amplitude deviation
+   * @return report, must not be null
+   */
+  public static Report verify(
+      final AbstractMinuteBasedTimeSignalRenderer renderer,
+      final List<MinuteBasedTimeSignalBits> records,
+      final double freq,
+      final int sampleRate,
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      final double amplitudeDeviation) {
+    requireNonNull(renderer);
+    requireNonNull(signalShape);
+    if (records.isEmpty()) {
+      throw new IllegalArgumentException("Records must not be empty");
+    }
+    final TimeCodeDescriptor descriptor = renderer.getDescriptor();
+
+    // symbols of stream seconds and index of record for stream second of minute start
+    int totalSeconds = 0;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      totalSeconds += 60 - record.getSecond();
+    }
+    final int[] expected = new int[totalSeconds];
+    final Map<Long, MinuteBasedTimeSignalBits> minuteStarts = new HashMap<>();
+    int position = 0;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      minuteStarts.put((long) (position - record.getSecond()), record);
+      for (int i = record.getSecond(); i < 60; i++) {
+        expected[position++] = descriptor.findSymbol(record, i);
+      }
+    }
+
+    final Report report = new Report(records.size(), sampleRate);
+    final TimeSignalDecoder decoder = new TimeSignalDecoder(descriptor, freq, sampleRate,
+        new TimeSignalDecoder.Listener() {
+          @Override
+          public void onSecond(final TimeSignalDecoder.DecodedSecond second) {
+            report.onSecond(descriptor, expected, second);
+          }
+
+          @Override
+          public void onMinute(final double startSample, final int[] symbols,
+                               final MinuteBasedTimeSignalBits record) {
+            report.onMinute(descriptor, minuteStarts, startSample, symbols, record);
+          }
+        });
+
+    final long started = System.nanoTime();
+    // one second of idle carrier before signal gives edge at start of the first second
+    final int idleGain = descriptor.getPolarity() == TimeCodeDescriptor.Polarity.LOW_FIRST
+        ? Oscillator.GAIN_ONE : Oscillator.toGain(1.0d - amplitudeDeviation);
+    final byte[] leadIn = new SignalSegments().append(sampleRate, idleGain)
+        .play(signalShape, freq, sampleRate, SAMPLE_BYTES, 0.0d);
+    decoder.process(leadIn, 0, leadIn.length);
+
+    final byte[] buffer = new byte[60 * sampleRate * SAMPLE_BYTES];
+    int renderedSeconds = 1;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      final int length = renderer.makeMinuteWavData(record, freq, sampleRate, SAMPLE_BYTES,
+          signalShape, amplitudeDeviation,
+          SecondTemplateCache.phaseAfterSeconds(0.0d, freq, renderedSeconds), buffer, 0);
+      decoder.process(buffer, 0, length);
+      renderedSeconds += 60 - record.getSecond();
+    }
+    decoder.flush();
+
+    report.missedSeconds = totalSeconds - report.receivedSeconds;
+    report.elapsedNanos = System.nanoTime() - started;
+    report.carrierLevel = decoder.getCarrierLevel();
+    report.modulationDepth = decoder.getModulationDepth();
+    return report;
+  }
+
+  /**
+   * Result of loopback check.
+   */
+  public static final class Report {
+    private final int minutes;
+    private final int sampleRate;
+    private final TimingStatistics startJitter = new TimingStatistics();
+    private final TimingStatistics pulseEndJitter = new TimingStatistics();
+    private int receivedSeconds;
+    private int comparedSeconds;
+    private int missedSeconds;
+    private int symbolErrors;
+    private int decodedMinutes;
+    private int matchedMinutes;
+    private int invalidRecords;
+    private long elapsedNanos;
+    private double carrierLevel;
+    private double modulationDepth;
+
+    private Report(final int minutes, final int sampleRate) {
+      this.minutes = minutes;
+      this.sampleRate = sampleRate;
+    }
+
+    private static boolean isComparable(final TimeCodeDescriptor descriptor, final int symbol) {
+      // symbols made by shapers can't be recognized by pulse width
+      return descriptor.getPulseWidth(symbol) >= 0;
+    }
+
+    private void onSecond(final TimeCodeDescriptor descriptor, final int[] expected,
+                          final TimeSignalDecoder.DecodedSecond second) {
+      // the first stream second is the idle lead-in
+      final long index = Math.round(second.getStartSample() / this.sampleRate) - 1L;
+      if (index < 0L || index >= expected.length) {
+        return;
+      }
+      this.receivedSeconds++;
+      final int expectedSymbol = expected[(int) index];
+      if (!isComparable(descriptor, expectedSymbol)) {
+        return;
+      }
+      this.comparedSeconds++;
+      if (second.getSymbol() != expectedSymbol) {
+        this.symbolErrors++;
+        return;
+      }
+      final double secondStart = (index + 1L) * (double) this.sampleRate;
+      final double microsPerSample = 1.0e6d / this.sampleRate;
+      if (second.isStartDetected()) {
+        this.startJitter.add((second.getStartSample() - secondStart) * microsPerSample);
+      }
+      if (!Double.isNaN(second.getPulseSamples())) {
+        final double pulseEnd = secondStart + TimeCodeDescriptor.toPulseSamples(
+            descriptor.getPulseWidth(expectedSymbol), this.sampleRate);
+        this.pulseEndJitter.add(
+            (second.getStartSample() + second.getPulseSamples() - pulseEnd) * microsPerSample);
+      }
+    }
+
+    private void onMinute(final TimeCodeDescriptor descriptor,
+                          final Map<Long, MinuteBasedTimeSignalBits> minuteStarts,
+                          final double startSample,
+                          final int[] symbols,
+                          final MinuteBasedTimeSignalBits decoded) {
+      final MinuteBasedTimeSignalBits record =
+          minuteStarts.get(Math.round(startSample / this.sampleRate) - 1L);
+      if (record == null) {
+        return;
+      }
+      this.decodedMinutes++;
+      boolean matched = true;
+      for (int i = record.getSecond(); i < 60 && matched; i++) {
+        final int expected = descriptor.findSymbol(record, i);
+        matched = !isComparable(descriptor, expected) || expected == symbols[i];
+      }
+      if (matched) {
+        this.matchedMinutes++;
+      }
+      if (record.getSecond() == 0 && !(decoded instanceof AbstractMinuteBasedTimeSignalRecord
+          && ((AbstractMinuteBasedTimeSignalRecord) decoded).isValid())) {
+        this.invalidRecords++;
+      }
+    }
+
+    /**
+     * Check that all seconds were received and decoded without errors.
+     *
+     * @return true if signal is decoded without errors
+     */
+    public boolean isPassed() {
+      return this.missedSeconds == 0 && this.symbolErrors == 0 && this.invalidRecords == 0
+          && this.matchedMinutes == this.decodedMinutes;
+    }
+
+    public int getMinutes() {
+      return this.minutes;
+    }
+
+    public int getComparedSeconds() {
+      return this.comparedSeconds;
+    }
+
+    public int getMissedSeconds() {
+      return this.missedSeconds;
+    }
+
+    public int getSymbolErrors() {
+      return this.symbolErrors;
+    }
+
+    public int getDecodedMinutes() {
+      return this.decodedMinutes;
+    }
+
+    public int getMatchedMinutes() {
+      return this.matchedMinutes;
+    }
+
+    public int getInvalidRecords() {
+      return this.invalidRecords;
+    }
+
+    /**
+     * Get deviations of second start edges from rendered positions.
+     *
+     * @return statistics, must not be null
+     */
+    public TimingStatistics getStartJitter() {
+      return this.startJitter;
+    }
+
+    /**
+     * Get deviations of pulse end edges from rendered positions.
+     *
+     * @return statistics, must not be null
+     */
+    public TimingStatistics getPulseEndJitter() {
+      return this.pulseEndJitter;
+    }
+
+    public double getCarrierLevel() {
+      return this.carrierLevel;
+    }
+
+    public double getModulationDepth() {
+      return this.modulationDepth;
+    }
+
+    /**
+     * Get decoded minutes per second of wall time, rendering included.
+     *
+     * @return speed of check
+     */
+    public double getMinutesPerSecond() {
+      return this.elapsedNanos <= 0L ? 0.0d : this.minutes * 1.0e9d / this.elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ENGLISH,
+          "minutes=%d, decoded=%d, matched=%d, invalid=%d, seconds=%d, missed=%d, errors=%d,"
+              + " carrier=%.3f, depth=%.3f, start jitter (%s), pulse end jitter (%s),"
+              + " speed=%.1f min/s",
+          this.minutes, this.decodedMinutes, this.matchedMinutes, this.invalidRecords,
+          this.comparedSeconds, this.missedSeconds, this.symbolErrors, this.carrierLevel,
+          this.modulationDepth, this.startJitter, this.pulseEndJitter,
+          this.getMinutesPerSecond());
+    }
+  }
+}
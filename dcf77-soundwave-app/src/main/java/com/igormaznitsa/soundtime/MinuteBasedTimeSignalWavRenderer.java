@@ -1,18 +1,252 @@
 package com.igormaznitsa.soundtime;
 
 import com.igormaznitsa.gui.TimeDateIndicationProvider;
+import java.nio.ByteBuffer;
 import java.time.ZonedDateTime;
 import java.util.List;
 
 public interface MinuteBasedTimeSignalWavRenderer extends TimeDateIndicationProvider {
 
-  byte[] makeMinuteWavData(
+  /**
+   * Make PCM data for the rest of minute since the record second. The minute is assembled from
+   * one second templates, carrier phase is kept continuous between seconds.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param freq                    carrier frequency in Hz
+   * @param sampleRate              sample rate in Hz
+   * @param sampleBytes             bytes per sample
+   * @param signalShape             carrier signal shape, must not be null
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @return PCM data, must not be null
+   */
+  default byte[] makeMinuteWavData(
       MinuteBasedTimeSignalBits minuteBitStringProvider,
       double freq,
       int sampleRate,
       int sampleBytes,
       AmplitudeSoundSignalRenderer.SignalShape signalShape,
-      double amplitudeDeviation);
+      double amplitudeDeviation) {
+    final byte[] wavBuffer =
+        new byte[(60 - minuteBitStringProvider.getSecond()) * sampleRate * sampleBytes];
+    this.makeMinuteWavData(minuteBitStringProvider, freq, sampleRate, sampleBytes, signalShape,
+        amplitudeDeviation, wavBuffer, 0);
+    return wavBuffer;
+  }
+
+  /**
+   * Write PCM data for the rest of minute since the record second into provided buffer. It allows
+   * to use recycled buffers instead of allocation for each minute.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param freq                    carrier frequency in Hz
+   * @param sampleRate              sample rate in Hz
+   * @param sampleBytes             bytes per sample
+   * @param signalShape             carrier signal shape, must not be null
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @param target                  target buffer, must have enough space
+   * @param offset                  offset in the target buffer
+   * @return number of written bytes
+   */
+  default int makeMinuteWavData(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      double freq,
+      int sampleRate,
+      int sampleBytes,
+      AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      double amplitudeDeviation,
+      byte[] target,
+      int offset) {
+    return this.makeMinuteWavData(minuteBitStringProvider, freq, sampleRate, sampleBytes,
+        signalShape, amplitudeDeviation, 0.0d, target, offset);
+  }
+
+  /**
+   * Write PCM data for the rest of minute since the record second into provided buffer, carrier
+   * starts with provided phase. It allows to render minutes independently from each other but
+   * keep carrier continuous between them.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param freq                    carrier frequency in Hz
+   * @param sampleRate              sample rate in Hz
+   * @param sampleBytes             bytes per sample
+   * @param signalShape             carrier signal shape, must not be null
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @param startPhase              carrier phase at the first sample, in cycles
+   * @param target                  target buffer, must have enough space
+   * @param offset                  offset in the target buffer
+   * @return number of written bytes
+   */
+  default int makeMinuteWavData(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      double freq,
+      int sampleRate,
+      int sampleBytes,
+      AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      double amplitudeDeviation,
+      double startPhase,
+      byte[] target,
+      int offset) {
+    final int second = minuteBitStringProvider.getSecond();
+    final int bytesPerSecond = sampleRate * sampleBytes;
+    final int totalBytes = (60 - second) * bytesPerSecond;
+    if (offset < 0 || target.length - offset < totalBytes) {
+      throw new IllegalArgumentException(
+          "Not enough space in buffer, required " + totalBytes + " byte(s)");
+    }
+
+    int position = offset;
+    for (int i = second; i < 60; i++) {
+      final byte[] secondData = this.makeSecondWavData(
+          minuteBitStringProvider,
+          i,
+          freq,
+          sampleRate,
+          sampleBytes,
+          signalShape,
+          amplitudeDeviation,
+          SecondTemplateCache.phaseAfterSeconds(startPhase, freq, i - second));
+      System.arraycopy(secondData, 0, target, position, bytesPerSecond);
+      position += bytesPerSecond;
+    }
+    return totalBytes;
+  }
+
+  /**
+   * Write PCM data for the rest of minute since the record second into provided byte buffer,
+   * carrier starts with provided phase. Second templates are put directly into the buffer, so it
+   * can be memory mapped region of file without intermediate heap copy.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param freq                    carrier frequency in Hz
+   * @param sampleRate              sample rate in Hz
+   * @param sampleBytes             bytes per sample
+   * @param signalShape             carrier signal shape, must not be null
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @param startPhase              carrier phase at the first sample, in cycles
+   * @param target                  target buffer, data is written from its position
+   * @return number of written bytes
+   */
+  default int makeMinuteWavData(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      double freq,
+      int sampleRate,
+      int sampleBytes,
+      AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      double amplitudeDeviation,
+      double startPhase,
+      ByteBuffer target) {
+    final int second = minuteBitStringProvider.getSecond();
+    final int bytesPerSecond = sampleRate * sampleBytes;
+    final int totalBytes = (60 - second) * bytesPerSecond;
+    if (target.remaining() < totalBytes) {
+      throw new IllegalArgumentException(
+          "Not enough space in buffer, required " + totalBytes + " byte(s)");
+    }
+
+    for (int i = second; i < 60; i++) {
+      target.put(this.makeSecondWavData(
+          minuteBitStringProvider,
+          i,
+          freq,
+          sampleRate,
+          sampleBytes,
+          signalShape,
+          amplitudeDeviation,
+          SecondTemplateCache.phaseAfterSeconds(startPhase, freq, i - second)), 0, bytesPerSecond);
+    }
+    return totalBytes;
+  }
+
+  /**
+   * Append amplitude segments of one second of minute record. Gain of segments is relative to
+   * full carrier amplitude, sum of samples is exactly one second.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param second                  index of second inside minute, 0..59
+   * @param sampleRate              sample rate in Hz
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @param segments                target segment list, must not be null
+   */
+  void makeSecondSegments(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      int second,
+      int sampleRate,
+      double amplitudeDeviation,
+      SignalSegments segments);
+
+  /**
+   * Make amplitude segments for the rest of minute since the record second.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param sampleRate              sample rate in Hz
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @return segments of the minute, must not be null
+   */
+  default SignalSegments makeMinuteSegments(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      int sampleRate,
+      double amplitudeDeviation) {
+    final SignalSegments segments = new SignalSegments();
+    for (int i = minuteBitStringProvider.getSecond(); i < 60; i++) {
+      this.makeSecondSegments(minuteBitStringProvider, i, sampleRate, amplitudeDeviation,
+          segments);
+    }
+    return segments;
+  }
+
+  /**
+   * Make PCM data for one second of minute record.
+   * <b>Returned array can be shared cached template and must not be changed.</b>
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param second                  index of second inside minute, 0..59
+   * @param freq                    carrier frequency in Hz
+   * @param sampleRate              sample rate in Hz
+   * @param sampleBytes             bytes per sample
+   * @param signalShape             carrier signal shape, must not be null
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @param startPhase              carrier phase at second start, in cycles
+   * @return PCM data for one second, must not be null
+   */
+  byte[] makeSecondWavData(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      int second,
+      double freq,
+      int sampleRate,
+      int sampleBytes,
+      AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      double amplitudeDeviation,
+      double startPhase);
+
+  /**
+   * Make PCM data for one second of minute record directly, without second template cache. It is
+   * used for single seconds which carrier is not repeated, so their templates would only push out
+   * useful ones from the cache.
+   *
+   * @param minuteBitStringProvider minute record, must not be null
+   * @param second                  index of second inside minute, 0..59
+   * @param freq                    carrier frequency in Hz
+   * @param sampleRate              sample rate in Hz
+   * @param sampleBytes             bytes per sample
+   * @param signalShape             carrier signal shape, must not be null
+   * @param amplitudeDeviation      AM amplitude deviation
+   * @param startPhase              carrier phase at second start, in cycles
+   * @return PCM data for one second, must not be null
+   */
+  default byte[] renderSecondWavData(
+      MinuteBasedTimeSignalBits minuteBitStringProvider,
+      int second,
+      double freq,
+      int sampleRate,
+      int sampleBytes,
+      AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      double amplitudeDeviation,
+      double startPhase) {
+    final SignalSegments segments = new SignalSegments();
+    this.makeSecondSegments(minuteBitStringProvider, second, sampleRate, amplitudeDeviation,
+        segments);
+    return segments.play(signalShape, freq, sampleRate, sampleBytes, startPhase);
+  }
 
   double getAmplitudeDeviation();
 
@@ -0,0 +1,210 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of minute records. Records are immutable and depend only on protocol, DST
+ * detection mode and time, so batch export or repeated playback of the same hours takes already
+ * made records instead of new calendar calculation and encoding of bit strings.
+ *
+ * @author Igor Maznitsa
+ */
+public final class MinuteRecordCache {
+
+  /**
+   * Default shared cache instance, it keeps records of one day for a protocol.
+   */
+  public static final MinuteRecordCache INSTANCE = new MinuteRecordCache(1440);
+
+  private final Map<Key, MinuteBasedTimeSignalBits> cache;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructor.
+   *
+   * @param maxEntries max number of kept records, must be positive
+   */
+  public MinuteRecordCache(final int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+    }
+    this.cache = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(
+          final Map.Entry<Key, MinuteBasedTimeSignalBits> eldest) {
+        return this.size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Find record in the cache or make and place it.
+   *
+   * @param renderer     renderer makes record if not found, must not be null
+   * @param time         time of record, must not be null
+   * @param dstDetection DST detection mode, must not be null
+   * @return found or made record, must not be null
+   */
+  public MinuteBasedTimeSignalBits find(
+      final MinuteBasedTimeSignalWavRenderer renderer,
+      final ZonedDateTime time,
+      final DstDetection dstDetection) {
+    return this.findMinutes(renderer, time, 1, dstDetection).get(0);
+  }
+
+  /**
+   * Find records of consecutive minutes. The first record has time and second of the start
+   * time, next records start at beginning of following minutes. The cache is locked only twice
+   * for whole batch, records which are not found are made between.
+   *
+   * @param renderer     renderer makes records if not found, must not be null
+   * @param startTime    time of the first record, must not be null
+   * @param minutes      number of records, must be positive
+   * @param dstDetection DST detection mode, must not be null
+   * @return list of records in time order, must not be null
+   */
+  public List<MinuteBasedTimeSignalBits> findMinutes(
+      final MinuteBasedTimeSignalWavRenderer renderer,
+      final ZonedDateTime startTime,
+      final int minutes,
+      final DstDetection dstDetection) {
+    requireNonNull(renderer);
+    requireNonNull(dstDetection);
+    if (minutes <= 0) {
+      throw new IllegalArgumentException("Number of minutes must be positive: " + minutes);
+    }
+
+    final String protocolId = renderer.getProtocolId();
+    final Key[] keys = new Key[minutes];
+    final ZonedDateTime[] times = new ZonedDateTime[minutes];
+    ZonedDateTime time = startTime;
+    for (int i = 0; i < minutes; i++) {
+      times[i] = time;
+      keys[i] = new Key(protocolId, dstDetection, time);
+      time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+
+    final MinuteBasedTimeSignalBits[] records = new MinuteBasedTimeSignalBits[minutes];
+    int found = 0;
+    synchronized (this.cache) {
+      for (int i = 0; i < minutes; i++) {
+        records[i] = this.cache.get(keys[i]);
+        if (records[i] != null) {
+          found++;
+        }
+      }
+      this.hits += found;
+      this.misses += minutes - found;
+    }
+
+    if (found < minutes) {
+      for (int i = 0; i < minutes; i++) {
+        if (records[i] == null) {
+          records[i] = requireNonNull(renderer.makeTimeSignalBits(times[i], dstDetection));
+        }
+      }
+      synchronized (this.cache) {
+        for (int i = 0; i < minutes; i++) {
+          final MinuteBasedTimeSignalBits concurrent =
+              this.cache.putIfAbsent(keys[i], records[i]);
+          if (concurrent != null) {
+            records[i] = concurrent;
+          }
+        }
+      }
+    }
+
+    return new ArrayList<>(Arrays.asList(records));
+  }
+
+  /**
+   * Get number of requests served from the cache.
+   *
+   * @return number of cache hits
+   */
+  public long getHits() {
+    synchronized (this.cache) {
+      return this.hits;
+    }
+  }
+
+  /**
+   * Get number of requests which needed new record.
+   *
+   * @return number of cache misses
+   */
+  public long getMisses() {
+    synchronized (this.cache) {
+      return this.misses;
+    }
+  }
+
+  /**
+   * Get number of cached records.
+   *
+   * @return number of records
+   */
+  public int size() {
+    synchronized (this.cache) {
+      return this.cache.size();
+    }
+  }
+
+  /**
+   * Remove all cached records.
+   */
+  public void clear() {
+    synchronized (this.cache) {
+      this.cache.clear();
+    }
+  }
+
+  /**
+   * Key of record, it contains time zone because fields of record are local time of the zone.
+   */
+  private static final class Key {
+    private final String protocolId;
+    private final DstDetection dstDetection;
+    private final ZoneId zoneId;
+    private final long epochSecond;
+
+    private Key(final String protocolId, final DstDetection dstDetection,
+                final ZonedDateTime time) {
+      this.protocolId = requireNonNull(protocolId);
+      this.dstDetection = dstDetection;
+      this.zoneId = time.getZone();
+      this.epochSecond = time.toEpochSecond();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || this.getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return this.epochSecond == that.epochSecond
+          && this.dstDetection == that.dstDetection
+          && this.zoneId.equals(that.zoneId)
+          && this.protocolId.equals(that.protocolId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.protocolId, this.dstDetection, this.zoneId, this.epochSecond);
+    }
+  }
+}
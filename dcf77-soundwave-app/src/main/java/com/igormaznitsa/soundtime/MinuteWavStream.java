@@ -0,0 +1,357 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pull based PCM source for the rest of a minute record. Data is provided in chunks of any size
+ * just in time, only one second template is referenced at any moment, so memory usage does not
+ * depend on sample rate of the whole minute.
+ *
+ * @author Igor Maznitsa
+ */
+public final class MinuteWavStream {
+
+  private final MinuteBasedTimeSignalWavRenderer renderer;
+  private final MinuteBasedTimeSignalBits record;
+  private final int sampleRate;
+  private final int sampleBytes;
+  private final int firstSecond;
+  private final int firstSecondOffset;
+  private final int bytesPerSecond;
+  private double freq;
+  private AmplitudeSoundSignalRenderer.SignalShape signalShape;
+  private double amplitudeDeviation;
+  private int baseSecond;
+  private double baseSecondPhase;
+  private int endSecond = 60;
+  private SignalParameters pendingParameters;
+
+  private int currentSecond;
+  private byte[] currentSecondData;
+  private int currentSecondOffset;
+  private int currentSecondEnd;
+  private int pendingAdjustment;
+  private int appliedAdjustment;
+  private byte[] insertedData;
+  private int insertedOffset;
+  private int insertedEnd;
+
+  /**
+   * Constructor.
+   *
+   * @param renderer           minute renderer provides second data, must not be null
+   * @param record             minute record, must not be null
+   * @param freq               carrier frequency in Hz
+   * @param sampleRate         sample rate in Hz
+   * @param sampleBytes        bytes per sample
+   * @param signalShape        carrier signal shape, must not be null
+   * @param amplitudeDeviation AM amplitude deviation
+   * @param startPhase         carrier phase at the stream start, in cycles
+   */
+  public MinuteWavStream(
+      final MinuteBasedTimeSignalWavRenderer renderer,
+      final MinuteBasedTimeSignalBits record,
+      final double freq,
+      final int sampleRate,
+      final int sampleBytes,
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      final double amplitudeDeviation,
+      final double startPhase) {
+    this(renderer, record, freq, sampleRate, sampleBytes, signalShape, amplitudeDeviation,
+        startPhase, 0L);
+  }
+
+  /**
+   * Constructor allows to move start of the stream relative to start of the record second.
+   * Positive offset trims samples of the record second, negative offset adds samples of preceding
+   * seconds of the same minute, the result is limited by the minute bounds.
+   *
+   * @param renderer           minute renderer provides second data, must not be null
+   * @param record             minute record, must not be null
+   * @param freq               carrier frequency in Hz
+   * @param sampleRate         sample rate in Hz
+   * @param sampleBytes        bytes per sample
+   * @param signalShape        carrier signal shape, must not be null
+   * @param amplitudeDeviation AM amplitude deviation
+   * @param startPhase         carrier phase at the stream start, in cycles
+   * @param startOffsetSamples offset of the first sample relative to the record second start
+   */
+  public MinuteWavStream(
+      final MinuteBasedTimeSignalWavRenderer renderer,
+      final MinuteBasedTimeSignalBits record,
+      final double freq,
+      final int sampleRate,
+      final int sampleBytes,
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      final double amplitudeDeviation,
+      final double startPhase,
+      final long startOffsetSamples) {
+    this.renderer = requireNonNull(renderer);
+    this.record = requireNonNull(record);
+    this.freq = freq;
+    this.sampleRate = sampleRate;
+    this.sampleBytes = sampleBytes;
+    this.signalShape = requireNonNull(signalShape);
+    this.amplitudeDeviation = amplitudeDeviation;
+    this.bytesPerSecond = sampleRate * sampleBytes;
+
+    final long startSample = Math.max(0L, Math.min(60L * sampleRate,
+        (long) record.getSecond() * sampleRate + startOffsetSamples));
+    this.firstSecond = (int) (startSample / sampleRate);
+    final int samplesInFirstSecond = (int) (startSample % sampleRate);
+    this.firstSecondOffset = samplesInFirstSecond * sampleBytes;
+    final double phase = startPhase - samplesInFirstSecond * freq / sampleRate;
+    this.baseSecond = this.firstSecond;
+    this.baseSecondPhase = phase - Math.floor(phase);
+
+    this.currentSecond = this.firstSecond;
+    this.currentSecondOffset = this.firstSecondOffset;
+    this.currentSecondEnd = this.bytesPerSecond;
+  }
+
+  /**
+   * Get the minute record of the stream.
+   *
+   * @return the record, must not be null
+   */
+  public MinuteBasedTimeSignalBits getRecord() {
+    return this.record;
+  }
+
+  /**
+   * Get number of bytes provided by the whole stream.
+   *
+   * @return size of the stream data in bytes
+   */
+  public long getTotalBytes() {
+    return (long) (this.endSecond - this.firstSecond) * this.bytesPerSecond
+        - (this.endSecond > this.firstSecond ? this.firstSecondOffset : 0)
+        + (long) this.appliedAdjustment * this.sampleBytes;
+  }
+
+  /**
+   * Carrier phase just after the last stream sample, can be used as start phase for the next
+   * stream to keep carrier continuous. Sample adjustments don't change it, but changed parameters
+   * do, so it should be requested when the stream is completed.
+   *
+   * @return phase in cycles, 0.0 .. 1.0
+   */
+  public double getEndPhase() {
+    return this.phaseOfSecond(this.endSecond);
+  }
+
+  /**
+   * Change carrier parameters, they are applied on nearest second boundary and carrier phase is
+   * kept continuous, so the change produces no click.
+   *
+   * @param freq               carrier frequency in Hz
+   * @param signalShape        carrier signal shape, must not be null
+   * @param amplitudeDeviation AM amplitude deviation
+   */
+  public void changeParameters(final double freq,
+                               final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+                               final double amplitudeDeviation) {
+    this.pendingParameters =
+        new SignalParameters(freq, requireNonNull(signalShape), amplitudeDeviation);
+  }
+
+  /**
+   * Complete the stream on nearest second boundary, the rest of the minute is not provided.
+   */
+  public void completeAtSecondEnd() {
+    final boolean insideSecond = this.currentSecondData != null || this.currentSecondOffset > 0;
+    this.endSecond = Math.min(this.endSecond,
+        insideSecond ? this.currentSecond + 1 : this.currentSecond);
+  }
+
+  /**
+   * Request insertion or drop of some samples, it is applied on nearest second boundary without
+   * break of carrier phase. Dropped samples are removed from the end of a second, inserted
+   * samples extend the start of a second, so only duration of a pulse is changed a bit. Carrier
+   * of the adjusted second is detuned less than half of cycle per second to come back to the
+   * phase of not adjusted stream, so following seconds are still taken from cached templates.
+   *
+   * @param samples number of samples to insert, negative to drop
+   * @return true if the request is accepted, false if there is not applied request
+   */
+  public boolean requestAdjustment(final int samples) {
+    if (this.pendingAdjustment != 0 || samples == 0) {
+      return false;
+    }
+    if (Math.abs(samples) > this.sampleRate / 10) {
+      throw new IllegalArgumentException("Too big adjustment: " + samples);
+    }
+    this.pendingAdjustment = samples;
+    return true;
+  }
+
+  /**
+   * Check that there is requested adjustment which is not applied yet.
+   *
+   * @return true if there is pending adjustment
+   */
+  public boolean hasPendingAdjustment() {
+    return this.pendingAdjustment != 0;
+  }
+
+  /**
+   * Get sum of applied adjustments.
+   *
+   * @return number of inserted samples minus number of dropped samples
+   */
+  public int getAppliedAdjustment() {
+    return this.appliedAdjustment;
+  }
+
+  private double phaseOfSecond(final int second) {
+    return SecondTemplateCache.phaseAfterSeconds(this.baseSecondPhase, this.freq,
+        second - this.baseSecond);
+  }
+
+  private byte[] makeSecondData(final double phase) {
+    return this.renderer.makeSecondWavData(
+        this.record,
+        this.currentSecond,
+        this.freq,
+        this.sampleRate,
+        this.sampleBytes,
+        this.signalShape,
+        this.amplitudeDeviation,
+        phase);
+  }
+
+  /**
+   * Make data of the current second which carrier goes from the start phase to the end phase
+   * during provided number of samples. Frequency is changed by less than half of cycle per the
+   * samples, the data is not placed into the template cache because it is not repeated.
+   *
+   * @param startPhase carrier phase at second start, in cycles
+   * @param samples    number of samples played from the second
+   * @param endPhase   carrier phase required after the played samples, in cycles
+   * @return PCM data for one second, must not be null
+   */
+  private byte[] makeDetunedSecondData(final double startPhase, final int samples,
+                                       final double endPhase) {
+    final double cycles = (double) samples * this.freq / this.sampleRate;
+    final double error = endPhase - startPhase - cycles;
+    final double detunedCycles = cycles + error - Math.rint(error);
+    return this.renderer.renderSecondWavData(
+        this.record,
+        this.currentSecond,
+        detunedCycles * this.sampleRate / samples,
+        this.sampleRate,
+        this.sampleBytes,
+        this.signalShape,
+        this.amplitudeDeviation,
+        startPhase - Math.floor(startPhase));
+  }
+
+  private void applyAdjustment(final int samples) {
+    this.appliedAdjustment += samples;
+    this.pendingAdjustment = 0;
+  }
+
+  private void applyParameters(final SignalParameters parameters) {
+    // carrier continues from the phase reached by the previous parameters
+    this.baseSecondPhase = this.phaseOfSecond(this.currentSecond);
+    this.baseSecond = this.currentSecond;
+    this.freq = parameters.freq;
+    this.signalShape = parameters.signalShape;
+    this.amplitudeDeviation = parameters.amplitudeDeviation;
+    this.pendingParameters = null;
+  }
+
+  /**
+   * Check that all data has been read.
+   *
+   * @return true if there is no more data
+   */
+  public boolean isCompleted() {
+    return this.currentSecond >= this.endSecond;
+  }
+
+  /**
+   * Read next chunk of PCM data.
+   *
+   * @param buffer target buffer, must not be null
+   * @param offset offset in the target buffer
+   * @param length max number of bytes to read
+   * @return number of read bytes or -1 if the stream is completed
+   */
+  public int read(final byte[] buffer, final int offset, final int length) {
+    if (this.isCompleted()) {
+      return -1;
+    }
+    int written = 0;
+    while (written < length && this.currentSecond < this.endSecond) {
+      if (this.insertedData != null) {
+        final int portion =
+            Math.min(length - written, this.insertedEnd - this.insertedOffset);
+        System.arraycopy(this.insertedData, this.insertedOffset, buffer, offset + written,
+            portion);
+        written += portion;
+        this.insertedOffset += portion;
+        if (this.insertedOffset >= this.insertedEnd) {
+          this.insertedData = null;
+        }
+        continue;
+      }
+
+      if (this.currentSecondData == null) {
+        if (this.pendingParameters != null && this.currentSecondOffset == 0) {
+          this.applyParameters(this.pendingParameters);
+        }
+        final double phase = this.phaseOfSecond(this.currentSecond);
+        this.currentSecondEnd = this.bytesPerSecond;
+        final int adjustment = this.pendingAdjustment;
+        if (adjustment > 0 && this.currentSecondOffset == 0) {
+          // inserted samples are the second start, the rest of second continues carrier phase
+          this.insertedData = this.makeSecondData(phase);
+          this.insertedOffset = 0;
+          this.insertedEnd = adjustment * this.sampleBytes;
+          this.currentSecondData = this.makeDetunedSecondData(
+              phase + (double) adjustment * this.freq / this.sampleRate, this.sampleRate,
+              this.phaseOfSecond(this.currentSecond + 1));
+          this.applyAdjustment(adjustment);
+          continue;
+        }
+        if (adjustment < 0 && this.currentSecondOffset == 0) {
+          // dropped samples are cut from the second end, the next second continues carrier phase
+          this.currentSecondEnd = this.bytesPerSecond + adjustment * this.sampleBytes;
+          this.currentSecondData = this.makeDetunedSecondData(phase,
+              this.sampleRate + adjustment, this.phaseOfSecond(this.currentSecond + 1));
+          this.applyAdjustment(adjustment);
+        } else {
+          this.currentSecondData = this.makeSecondData(phase);
+        }
+      }
+
+      final int portion =
+          Math.min(length - written, this.currentSecondEnd - this.currentSecondOffset);
+      System.arraycopy(this.currentSecondData, this.currentSecondOffset, buffer,
+          offset + written, portion);
+      written += portion;
+      this.currentSecondOffset += portion;
+      if (this.currentSecondOffset >= this.currentSecondEnd) {
+        this.currentSecondData = null;
+        this.currentSecondOffset = 0;
+        this.currentSecond++;
+      }
+    }
+    return written;
+  }
+
+  private static final class SignalParameters {
+    private final double freq;
+    private final AmplitudeSoundSignalRenderer.SignalShape signalShape;
+    private final double amplitudeDeviation;
+
+    private SignalParameters(final double freq,
+                             final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+                             final double amplitudeDeviation) {
+      this.freq = freq;
+      this.signalShape = signalShape;
+      this.amplitudeDeviation = amplitudeDeviation;
+    }
+  }
+}
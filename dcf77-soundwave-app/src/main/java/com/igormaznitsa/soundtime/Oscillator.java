@@ -0,0 +1,171 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Phase accumulator based oscillator which reads samples from a precomputed wave table, so that
+ * there is no any transcendental function call per sample. Synthesis is made in fixed point:
+ * phase is 32 bit unsigned word which wraps around once per cycle, its upper bits select a 16 bit
+ * table sample, the following bits interpolate to the next sample and the result is multiplied by
+ * integer gain. The phase word is upper half of 32.32 accumulator, the lower half keeps fraction
+ * of increment which would make error of some sample units during one second otherwise. So there
+ * is no floating point math in the inner loop and the same configuration always provides
+ * bit-identical output.
+ *
+ * @author Igor Maznitsa
+ */
+public final class Oscillator {
+
+  /**
+   * Gain of full amplitude, gain is amplitude multiplier in 16.16 fixed point.
+   */
+  public static final int GAIN_ONE = 1 << 16;
+
+  private static final double PHASE_SCALE = 4294967296.0d;
+  private static final double ACCUMULATOR_SCALE = PHASE_SCALE * PHASE_SCALE;
+
+  private final SynthesisKernel kernel;
+  private final int[] samples;
+  private final int[] deltas;
+  private final long phaseIncrement;
+  private long phase;
+
+  /**
+   * Constructor.
+   *
+   * @param waveTable  wave table to be used as one cycle source, must not be null
+   * @param freq       frequency in Hz
+   * @param sampleRate sample rate in Hz
+   */
+  public Oscillator(final WaveTable waveTable, final double freq, final int sampleRate) {
+    this(waveTable, freq, sampleRate, SynthesisKernels.getActive());
+  }
+
+  /**
+   * Constructor with explicit synthesis kernel.
+   *
+   * @param waveTable  wave table to be used as one cycle source, must not be null
+   * @param freq       frequency in Hz
+   * @param sampleRate sample rate in Hz
+   * @param kernel     kernel renders segments of samples, must not be null
+   */
+  public Oscillator(final WaveTable waveTable, final double freq, final int sampleRate,
+                    final SynthesisKernel kernel) {
+    if (sampleRate <= 0) {
+      throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+    }
+    requireNonNull(waveTable);
+    this.kernel = requireNonNull(kernel);
+    this.samples = waveTable.getSamples();
+    this.deltas = waveTable.getDeltas();
+    this.phaseIncrement = toFixedPhase(freq / sampleRate);
+  }
+
+  private static long toFixedPhase(final double phase) {
+    final double normalized = phase - Math.floor(phase);
+    // split to halves because double can't be converted into unsigned 64 bit value directly
+    final double upper = Math.floor(normalized * PHASE_SCALE);
+    final double lower = Math.floor((normalized * PHASE_SCALE - upper) * PHASE_SCALE);
+    return ((long) upper << 32) | (long) lower;
+  }
+
+  private static double toCycles(final long fixedPhase) {
+    return (fixedPhase >>> 32) / PHASE_SCALE + (fixedPhase & 0xFFFF_FFFFL) / ACCUMULATOR_SCALE;
+  }
+
+  /**
+   * Convert amplitude multiplier into fixed point gain.
+   *
+   * @param amplitude amplitude multiplier, 0.0 .. 1.0
+   * @return gain, 0 .. {@link #GAIN_ONE}
+   */
+  public static int toGain(final double amplitude) {
+    return (int) Math.max(0L, Math.min(GAIN_ONE, Math.round(amplitude * GAIN_ONE)));
+  }
+
+  /**
+   * Get phase increment per sample.
+   *
+   * @return phase increment in cycles, 0.0 .. 1.0
+   */
+  public double getPhaseIncrement() {
+    return toCycles(this.phaseIncrement);
+  }
+
+  /**
+   * Get current phase.
+   *
+   * @return current phase in cycles, 0.0 .. 1.0
+   */
+  public double getPhase() {
+    return toCycles(this.phase);
+  }
+
+  /**
+   * Set current phase.
+   *
+   * @param phase phase in cycles, will be normalized into 0.0 .. 1.0
+   */
+  public void setPhase(final double phase) {
+    this.phase = toFixedPhase(phase);
+  }
+
+  /**
+   * Generate next sample and move phase.
+   *
+   * @param amplitude amplitude multiplier, 0.0 .. 1.0
+   * @return 16 bit signed sample value
+   */
+  public long next(final double amplitude) {
+    return this.next(toGain(amplitude));
+  }
+
+  /**
+   * Generate next sample and move phase.
+   *
+   * @param gain fixed point gain, 0 .. {@link #GAIN_ONE}
+   * @return 16 bit signed sample value
+   */
+  public int next(final int gain) {
+    final long phase = this.phase;
+    this.phase = phase + this.phaseIncrement;
+    final int index = (int) (phase >>> SynthesisKernel.INDEX_SHIFT);
+    final int value = (this.samples[index] << SynthesisKernel.FRACTION_BITS)
+        + this.deltas[index]
+        * ((int) (phase >>> SynthesisKernel.FRACTION_SHIFT) & SynthesisKernel.FRACTION_MASK);
+    return (int) (((long) value * gain + (1L << 30)) >> 31);
+  }
+
+  /**
+   * Render number of samples with the same amplitude as 16 bit little endian PCM.
+   *
+   * @param target    target buffer, must not be null
+   * @param offset    offset in the target buffer
+   * @param samples   number of samples to render
+   * @param amplitude amplitude multiplier, 0.0 .. 1.0
+   * @return offset in the target buffer after the last written byte
+   */
+  public int render(final byte[] target, final int offset, final int samples,
+                    final double amplitude) {
+    return this.render(target, offset, samples, toGain(amplitude));
+  }
+
+  /**
+   * Render number of samples with the same gain as 16 bit little endian PCM through the
+   * synthesis kernel.
+   *
+   * @param target  target buffer, must not be null
+   * @param offset  offset in the target buffer
+   * @param samples number of samples to render
+   * @param gain    fixed point gain, 0 .. {@link #GAIN_ONE}
+   * @return offset in the target buffer after the last written byte
+   */
+  public int render(final byte[] target, final int offset, final int samples, final int gain) {
+    if (samples <= 0) {
+      return offset;
+    }
+    this.phase = this.kernel.render(this.samples, this.deltas, this.phase, this.phaseIncrement,
+        gain, target, offset, samples);
+    return offset + samples * 2;
+  }
+}
@@ -0,0 +1,194 @@
+package com.igormaznitsa.soundtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free ring buffer of PCM frames for single producer and single consumer threads. Data is
+ * copied in whole frames, indices are padded to avoid false sharing between threads and each side
+ * keeps cached copy of the opposite index so that volatile read is made only when the cached value
+ * is not enough. Methods never block, waiting is up to the caller.
+ *
+ * @author Igor Maznitsa
+ */
+public final class PcmRingBuffer {
+
+  private final byte[] buffer;
+  private final int capacity;
+  private final int frameBytes;
+  private final PaddedIndex writeIndex = new PaddedIndex();
+  private final PaddedIndex readIndex = new PaddedIndex();
+  // accessed only by producer
+  private long producerCachedReadIndex;
+  // accessed only by consumer
+  private long consumerCachedWriteIndex;
+
+  /**
+   * Constructor.
+   *
+   * @param capacityFrames capacity in frames, must be positive
+   * @param frameBytes     number of bytes per frame, must be positive
+   */
+  public PcmRingBuffer(final int capacityFrames, final int frameBytes) {
+    if (capacityFrames <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacityFrames);
+    }
+    if (frameBytes <= 0) {
+      throw new IllegalArgumentException("Frame size must be positive: " + frameBytes);
+    }
+    this.frameBytes = frameBytes;
+    this.capacity = Math.multiplyExact(capacityFrames, frameBytes);
+    this.buffer = new byte[this.capacity];
+  }
+
+  /**
+   * Make ring buffer with capacity defined in milliseconds.
+   *
+   * @param milliseconds duration of buffered audio, must be positive
+   * @param sampleRate   sample rate in Hz
+   * @param frameBytes   number of bytes per frame
+   * @return created ring buffer, must not be null
+   */
+  public static PcmRingBuffer ofMilliseconds(final int milliseconds, final int sampleRate,
+                                             final int frameBytes) {
+    if (milliseconds <= 0) {
+      throw new IllegalArgumentException("Duration must be positive: " + milliseconds);
+    }
+    return new PcmRingBuffer(
+        (int) Math.max(1L, (long) sampleRate * milliseconds / 1000L), frameBytes);
+  }
+
+  /**
+   * Get capacity.
+   *
+   * @return capacity in bytes
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Get number of bytes per frame.
+   *
+   * @return frame size in bytes
+   */
+  public int getFrameBytes() {
+    return this.frameBytes;
+  }
+
+  /**
+   * Get number of bytes written since creation, can be called from any thread.
+   *
+   * @return total written bytes
+   */
+  public long getWrittenBytes() {
+    return this.writeIndex.getAcquire();
+  }
+
+  /**
+   * Get number of bytes read since creation, can be called from any thread.
+   *
+   * @return total read bytes
+   */
+  public long getReadBytes() {
+    return this.readIndex.getAcquire();
+  }
+
+  /**
+   * Get number of buffered bytes, can be called from any thread.
+   *
+   * @return number of bytes which can be read
+   */
+  public int size() {
+    final long read = this.readIndex.getAcquire();
+    return (int) (this.writeIndex.getAcquire() - read);
+  }
+
+  /**
+   * Write whole frames from array, called only by producer thread.
+   *
+   * @param data   source array, must not be null
+   * @param offset offset in the source array
+   * @param length number of bytes to write
+   * @return number of written bytes, multiple of frame size, can be zero if buffer is full
+   */
+  public int write(final byte[] data, final int offset, final int length) {
+    final long write = this.writeIndex.getPlain();
+    int free = this.capacity - (int) (write - this.producerCachedReadIndex);
+    if (free < length) {
+      this.producerCachedReadIndex = this.readIndex.getAcquire();
+      free = this.capacity - (int) (write - this.producerCachedReadIndex);
+    }
+    final int portion = this.alignToFrame(Math.min(free, length));
+    if (portion > 0) {
+      final int position = (int) (write % this.capacity);
+      final int firstPart = Math.min(portion, this.capacity - position);
+      System.arraycopy(data, offset, this.buffer, position, firstPart);
+      System.arraycopy(data, offset + firstPart, this.buffer, 0, portion - firstPart);
+      this.writeIndex.setRelease(write + portion);
+    }
+    return portion;
+  }
+
+  /**
+   * Read whole frames into array, called only by consumer thread.
+   *
+   * @param data   target array, must not be null
+   * @param offset offset in the target array
+   * @param length max number of bytes to read
+   * @return number of read bytes, multiple of frame size, can be zero if buffer is empty
+   */
+  public int read(final byte[] data, final int offset, final int length) {
+    final long read = this.readIndex.getPlain();
+    int available = (int) (this.consumerCachedWriteIndex - read);
+    if (available < length) {
+      this.consumerCachedWriteIndex = this.writeIndex.getAcquire();
+      available = (int) (this.consumerCachedWriteIndex - read);
+    }
+    final int portion = this.alignToFrame(Math.min(available, length));
+    if (portion > 0) {
+      final int position = (int) (read % this.capacity);
+      final int firstPart = Math.min(portion, this.capacity - position);
+      System.arraycopy(this.buffer, position, data, offset, firstPart);
+      System.arraycopy(this.buffer, 0, data, offset + firstPart, portion - firstPart);
+      this.readIndex.setRelease(read + portion);
+    }
+    return portion;
+  }
+
+  private int alignToFrame(final int bytes) {
+    return bytes - bytes % this.frameBytes;
+  }
+
+  /**
+   * Index placed between unused fields so that it doesn't share cache line with other data.
+   */
+  @SuppressWarnings("unused")
+  private static final class PaddedIndex {
+    private static final VarHandle VALUE;
+
+    static {
+      try {
+        VALUE = MethodHandles.lookup().findVarHandle(PaddedIndex.class, "value", long.class);
+      } catch (ReflectiveOperationException ex) {
+        throw new ExceptionInInitializerError(ex);
+      }
+    }
+
+    private long p01, p02, p03, p04, p05, p06, p07;
+    private volatile long value;
+    private long p11, p12, p13, p14, p15, p16, p17;
+
+    long getPlain() {
+      return (long) VALUE.get(this);
+    }
+
+    long getAcquire() {
+      return (long) VALUE.getAcquire(this);
+    }
+
+    void setRelease(final long newValue) {
+      VALUE.setRelease(this, newValue);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.igormaznitsa.soundtime;
+
+/**
+ * Snapshot of audio playback metrics for a report period. Counters marked as total are counted
+ * since start of playback, other values are for the last report period.
+ *
+ * @author Igor Maznitsa
+ */
+public final class PlaybackMetrics {
+
+  private final long timestampMillis;
+  private final int queueSize;
+  private final int lineBufferBytes;
+  private final int lineAvailableBytes;
+  private final long writeCalls;
+  private final long averageWriteMicros;
+  private final long maxWriteMicros;
+  private final long underruns;
+  private final long bytesPerSecond;
+  private final long totalBytes;
+  private final long framePosition;
+  private final long driftMicros;
+  private final long alignOffsetSamples;
+
+  PlaybackMetrics(
+      final long timestampMillis,
+      final int queueSize,
+      final int lineBufferBytes,
+      final int lineAvailableBytes,
+      final long writeCalls,
+      final long averageWriteMicros,
+      final long maxWriteMicros,
+      final long underruns,
+      final long bytesPerSecond,
+      final long totalBytes,
+      final long framePosition,
+      final long driftMicros,
+      final long alignOffsetSamples) {
+    this.timestampMillis = timestampMillis;
+    this.queueSize = queueSize;
+    this.lineBufferBytes = lineBufferBytes;
+    this.lineAvailableBytes = lineAvailableBytes;
+    this.writeCalls = writeCalls;
+    this.averageWriteMicros = averageWriteMicros;
+    this.maxWriteMicros = maxWriteMicros;
+    this.underruns = underruns;
+    this.bytesPerSecond = bytesPerSecond;
+    this.totalBytes = totalBytes;
+    this.framePosition = framePosition;
+    this.driftMicros = driftMicros;
+    this.alignOffsetSamples = alignOffsetSamples;
+  }
+
+  /**
+   * Get wall clock time of the snapshot.
+   *
+   * @return time in milliseconds since epoch
+   */
+  public long getTimestampMillis() {
+    return this.timestampMillis;
+  }
+
+  /**
+   * Get number of records waiting in the render queue.
+   *
+   * @return number of records
+   */
+  public int getQueueSize() {
+    return this.queueSize;
+  }
+
+  /**
+   * Get size of audio line buffer.
+   *
+   * @return size in bytes
+   */
+  public int getLineBufferBytes() {
+    return this.lineBufferBytes;
+  }
+
+  /**
+   * Get free space in audio line buffer, if it is equal to buffer size then the line is starved.
+   *
+   * @return free space in bytes
+   */
+  public int getLineAvailableBytes() {
+    return this.lineAvailableBytes;
+  }
+
+  /**
+   * Get number of write calls.
+   *
+   * @return number of write calls
+   */
+  public long getWriteCalls() {
+    return this.writeCalls;
+  }
+
+  /**
+   * Get average duration of write call.
+   *
+   * @return duration in microseconds
+   */
+  public long getAverageWriteMicros() {
+    return this.averageWriteMicros;
+  }
+
+  /**
+   * Get max duration of write call.
+   *
+   * @return duration in microseconds
+   */
+  public long getMaxWriteMicros() {
+    return this.maxWriteMicros;
+  }
+
+  /**
+   * Get total number of detected underruns, when the line buffer was found empty before write.
+   *
+   * @return total number of underruns
+   */
+  public long getUnderruns() {
+    return this.underruns;
+  }
+
+  /**
+   * Get write rate.
+   *
+   * @return written bytes per second
+   */
+  public long getBytesPerSecond() {
+    return this.bytesPerSecond;
+  }
+
+  /**
+   * Get total number of bytes written into the line.
+   *
+   * @return total number of bytes
+   */
+  public long getTotalBytes() {
+    return this.totalBytes;
+  }
+
+  /**
+   * Get frame position reported by the line.
+   *
+   * @return number of played frames
+   */
+  public long getFramePosition() {
+    return this.framePosition;
+  }
+
+  /**
+   * Get drift between played audio and wall clock since start of the line. Negative value means
+   * that played audio is behind wall clock, for instance because of underruns.
+   *
+   * @return drift in microseconds
+   */
+  public long getDriftMicros() {
+    return this.driftMicros;
+  }
+
+  /**
+   * Get start offset of the last record aligned to its second boundary. Positive value means that
+   * samples of the record second were trimmed because it had already begun, negative one means
+   * that preceding samples of the minute were played before it.
+   *
+   * @return offset in samples, zero if there was no any alignment
+   */
+  public long getAlignOffsetSamples() {
+    return this.alignOffsetSamples;
+  }
+
+  @Override
+  public String toString() {
+    return "queue=" + this.queueSize
+        + ", line=" + (this.lineBufferBytes - this.lineAvailableBytes) + '/' + this.lineBufferBytes
+        + ", writes=" + this.writeCalls
+        + ", writeAvg=" + this.averageWriteMicros + "us"
+        + ", writeMax=" + this.maxWriteMicros + "us"
+        + ", underruns=" + this.underruns
+        + ", rate=" + this.bytesPerSecond + "B/s"
+        + ", frames=" + this.framePosition
+        + ", drift=" + this.driftMicros + "us"
+        + ", align=" + this.alignOffsetSamples;
+  }
+}
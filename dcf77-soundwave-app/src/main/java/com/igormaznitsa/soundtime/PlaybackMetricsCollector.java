@@ -0,0 +1,147 @@
+package com.igormaznitsa.soundtime;
+
+/**
+ * Collector of playback metrics, it must be called only from audio writer thread.
+ *
+ * @author Igor Maznitsa
+ */
+final class PlaybackMetricsCollector {
+
+  private final int sampleRate;
+  private final long periodNanos;
+  private long lineStartNanos = -1L;
+  private long periodStartNanos;
+  private long periodWriteCalls;
+  private long periodWriteNanos;
+  private long periodMaxWriteNanos;
+  private long periodBytes;
+  private long totalBytes;
+  private long underruns;
+
+  /**
+   * Constructor.
+   *
+   * @param sampleRate   sample rate in Hz
+   * @param periodMillis report period in milliseconds, must be positive
+   */
+  PlaybackMetricsCollector(final int sampleRate, final long periodMillis) {
+    if (periodMillis <= 0L) {
+      throw new IllegalArgumentException("Period must be positive: " + periodMillis);
+    }
+    this.sampleRate = sampleRate;
+    this.periodNanos = periodMillis * 1_000_000L;
+  }
+
+  /**
+   * Synchronize start time of audio line, frame position is counted since the moment. If the
+   * time is changed then all counters are reset.
+   *
+   * @param startNanos value of nano timer when the line was started, negative if not started
+   */
+  void syncLineStart(final long startNanos) {
+    if (startNanos != this.lineStartNanos) {
+      this.lineStartNanos = startNanos;
+      this.periodStartNanos = startNanos;
+      this.periodWriteCalls = 0L;
+      this.periodWriteNanos = 0L;
+      this.periodMaxWriteNanos = 0L;
+      this.periodBytes = 0L;
+      this.totalBytes = 0L;
+      this.underruns = 0L;
+    }
+  }
+
+  /**
+   * Check line state before write, if there was written data but the line buffer is empty then
+   * the line has been starved.
+   *
+   * @param lineBufferBytes    size of line buffer
+   * @param lineAvailableBytes free space in line buffer
+   * @return true if underrun detected
+   */
+  boolean checkUnderrun(final int lineBufferBytes, final int lineAvailableBytes) {
+    if (this.totalBytes > 0L && lineAvailableBytes >= lineBufferBytes) {
+      this.underruns++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Register completed write call.
+   *
+   * @param durationNanos duration of the call
+   * @param bytes         number of written bytes
+   */
+  void onWrite(final long durationNanos, final int bytes) {
+    this.periodWriteCalls++;
+    this.periodWriteNanos += durationNanos;
+    this.periodMaxWriteNanos = Math.max(this.periodMaxWriteNanos, durationNanos);
+    this.periodBytes += bytes;
+    this.totalBytes += bytes;
+  }
+
+  /**
+   * Get number of bytes written since the line start.
+   *
+   * @return number of bytes
+   */
+  long getTotalBytes() {
+    return this.totalBytes;
+  }
+
+  /**
+   * Check that report period is over.
+   *
+   * @param nowNanos current value of nano timer
+   * @return true if the line is started and the report is due
+   */
+  boolean isReportDue(final long nowNanos) {
+    return this.lineStartNanos >= 0L && nowNanos - this.periodStartNanos >= this.periodNanos;
+  }
+
+  /**
+   * Make snapshot of metrics and start new report period.
+   *
+   * @param nowNanos           current value of nano timer
+   * @param queueSize          number of records in queue
+   * @param lineBufferBytes    size of line buffer
+   * @param lineAvailableBytes free space in line buffer
+   * @param framePosition      frame position of the line
+   * @param alignOffsetSamples start offset of the last aligned record in samples
+   * @return snapshot, must not be null
+   */
+  PlaybackMetrics makeReport(
+      final long nowNanos,
+      final int queueSize,
+      final int lineBufferBytes,
+      final int lineAvailableBytes,
+      final long framePosition,
+      final long alignOffsetSamples) {
+    final long periodDuration = Math.max(1L, nowNanos - this.periodStartNanos);
+    final long playedNanos = framePosition * 1_000_000_000L / this.sampleRate;
+    final long elapsedNanos = this.lineStartNanos < 0L ? 0L : nowNanos - this.lineStartNanos;
+
+    final PlaybackMetrics result = new PlaybackMetrics(
+        System.currentTimeMillis(),
+        queueSize,
+        lineBufferBytes,
+        lineAvailableBytes,
+        this.periodWriteCalls,
+        this.periodWriteCalls == 0L ? 0L : this.periodWriteNanos / this.periodWriteCalls / 1000L,
+        this.periodMaxWriteNanos / 1000L,
+        this.underruns,
+        this.periodBytes * 1_000_000_000L / periodDuration,
+        this.totalBytes,
+        framePosition,
+        (playedNanos - elapsedNanos) / 1000L,
+        alignOffsetSamples);
+
+    this.periodStartNanos = nowNanos;
+    this.periodWriteCalls = 0L;
+    this.periodWriteNanos = 0L;
+    this.periodMaxWriteNanos = 0L;
+    this.periodBytes = 0L;
+    return result;
+  }
+}
@@ -0,0 +1,208 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Producer of endless playback, it keeps small look-ahead window of minute records in the renderer
+ * queue and makes every next record just in time when the renderer starts to play a record. So
+ * memory and CPU usage don't depend on duration of playback.
+ *
+ * @author Igor Maznitsa
+ */
+public final class RollingRecordProducer {
+
+  /**
+   * Default number of records waiting in the renderer queue.
+   */
+  public static final int DEFAULT_LOOK_AHEAD_MINUTES = 2;
+
+  private final AmplitudeSoundSignalRenderer renderer;
+  private final MinuteBasedTimeSignalWavRenderer minuteRenderer;
+  private final DstDetection dstDetection;
+  private final int freqHz;
+  private final double amplitudeDeviation;
+  private final AmplitudeSoundSignalRenderer.SignalShape signalShape;
+  private final int lookAheadMinutes;
+  private final Semaphore freeSlots;
+  private final Object productionLock = new Object();
+  private final AtomicReference<Restart> restart = new AtomicReference<>();
+  private final AtomicReference<TaskScope.Task> task = new AtomicReference<>();
+  private final AmplitudeSoundSignalRenderer.AmplitudeSoundSignalRendererListener listener;
+  private volatile long producedRecords;
+
+  /**
+   * Constructor.
+   *
+   * @param renderer           renderer plays records, must not be null
+   * @param minuteRenderer     renderer makes minute records, must not be null
+   * @param dstDetection       DST detection mode, must not be null
+   * @param freqHz             carrier frequency in Hz
+   * @param amplitudeDeviation AM amplitude deviation
+   * @param signalShape        carrier signal shape, must not be null
+   * @param lookAheadMinutes   number of records waiting in the renderer queue, must be positive
+   */
+  public RollingRecordProducer(
+      final AmplitudeSoundSignalRenderer renderer,
+      final MinuteBasedTimeSignalWavRenderer minuteRenderer,
+      final DstDetection dstDetection,
+      final int freqHz,
+      final double amplitudeDeviation,
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      final int lookAheadMinutes) {
+    if (lookAheadMinutes <= 0) {
+      throw new IllegalArgumentException("Look-ahead must be positive: " + lookAheadMinutes);
+    }
+    this.renderer = requireNonNull(renderer);
+    this.minuteRenderer = requireNonNull(minuteRenderer);
+    this.dstDetection = requireNonNull(dstDetection);
+    this.freqHz = freqHz;
+    this.amplitudeDeviation = amplitudeDeviation;
+    this.signalShape = requireNonNull(signalShape);
+    this.lookAheadMinutes = lookAheadMinutes;
+    this.freeSlots = new Semaphore(lookAheadMinutes);
+    this.listener = (source, record) -> {
+      if (source == this.renderer) {
+        this.freeSlots.release();
+      }
+    };
+  }
+
+  /**
+   * Get number of records placed into the renderer queue.
+   *
+   * @return number of produced records
+   */
+  public long getProducedRecords() {
+    return this.producedRecords;
+  }
+
+  /**
+   * Check that the producer task is alive.
+   *
+   * @return true if records are produced
+   */
+  public boolean isActive() {
+    final TaskScope.Task producer = this.task.get();
+    return producer != null && producer.isAlive();
+  }
+
+  /**
+   * Start production of records. The producer task is started in the task scope of the renderer,
+   * so it is cancelled together with playback threads during renderer dispose.
+   *
+   * @param startTime   time of the first record, must not be null
+   * @param secondStart clock moment when the second of the first record begins, can be null
+   * @throws IllegalStateException if already started or audio line of the renderer is not
+   *                               initialized
+   */
+  public void start(final ZonedDateTime startTime, final Instant secondStart) {
+    requireNonNull(startTime);
+    final TaskScope scope = this.renderer.getTaskScope();
+    if (scope == null) {
+      throw new IllegalStateException("Renderer audio line is not initialized");
+    }
+    synchronized (this.task) {
+      if (this.task.get() != null) {
+        throw new IllegalStateException("Already started");
+      }
+      this.renderer.addAmplitudeSoundSignalRendererListener(this.listener);
+      try {
+        this.task.set(scope.start("rolling-record-producer-" + System.identityHashCode(this),
+            () -> this.produce(startTime, secondStart)));
+      } catch (RuntimeException ex) {
+        this.renderer.removeAmplitudeSoundSignalRendererListener(this.listener);
+        throw ex;
+      }
+    }
+  }
+
+  /**
+   * Stop production of records, already queued records are not removed.
+   */
+  public void stop() {
+    this.renderer.removeAmplitudeSoundSignalRendererListener(this.listener);
+    final TaskScope.Task producer = this.task.get();
+    if (producer != null) {
+      producer.cancel(true);
+    }
+  }
+
+  /**
+   * Continue production from another time without stop of playback. Queued records are removed,
+   * the played record is completed on its nearest second boundary and the first record of the new
+   * time is aligned to its second start, so that played seconds are not broken.
+   *
+   * @param time        time of the next record, must not be null
+   * @param secondStart clock moment when the second of the record begins, must not be null
+   */
+  public void restart(final ZonedDateTime time, final Instant secondStart) {
+    final Restart newRestart = new Restart(requireNonNull(time), requireNonNull(secondStart));
+    synchronized (this.productionLock) {
+      this.restart.set(newRestart);
+      this.renderer.skipQueuedRecords();
+      this.freeSlots.drainPermits();
+      this.freeSlots.release(this.lookAheadMinutes);
+    }
+  }
+
+  /**
+   * Wait until the producer task is completed, it happens after stop or renderer dispose.
+   *
+   * @throws InterruptedException if interrupted during wait
+   */
+  public void join() throws InterruptedException {
+    final TaskScope.Task producer = this.task.get();
+    if (producer != null) {
+      producer.join();
+    }
+  }
+
+  private void produce(final ZonedDateTime startTime, final Instant secondStart) {
+    ZonedDateTime time = startTime;
+    Instant alignment = secondStart;
+    try {
+      while (!Thread.currentThread().isInterrupted() && !this.renderer.isDisposed()) {
+        this.freeSlots.acquire();
+        synchronized (this.productionLock) {
+          final Restart requested = this.restart.getAndSet(null);
+          if (requested != null) {
+            time = requested.time;
+            alignment = requested.secondStart;
+          }
+          final MinuteBasedTimeSignalBits record =
+              MinuteRecordCache.INSTANCE.find(this.minuteRenderer, time, this.dstDetection);
+          if (!this.renderer.offer(record, this.freqHz, this.amplitudeDeviation,
+              this.signalShape, alignment)) {
+            if (!this.renderer.isDisposed()) {
+              System.err.println("Can't queue record, renderer queue is full: " + record);
+            }
+            break;
+          }
+          this.producedRecords++;
+          alignment = null;
+          time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.renderer.removeAmplitudeSoundSignalRendererListener(this.listener);
+    }
+  }
+
+  private static final class Restart {
+    private final ZonedDateTime time;
+    private final Instant secondStart;
+
+    private Restart(final ZonedDateTime time, final Instant secondStart) {
+      this.time = time;
+      this.secondStart = secondStart;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.igormaznitsa.soundtime;
+
+/**
+ * Default synthesis kernel working on any JVM. The loop has no branches and keeps all state in
+ * locals, so that JIT can unroll it.
+ *
+ * @author Igor Maznitsa
+ */
+final class ScalarSynthesisKernel implements SynthesisKernel {
+
+  static final ScalarSynthesisKernel INSTANCE = new ScalarSynthesisKernel();
+
+  private static final long RESULT_ROUNDING = 1L << 30;
+
+  private ScalarSynthesisKernel() {
+  }
+
+  @Override
+  public String getName() {
+    return "scalar";
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return true;
+  }
+
+  @Override
+  public long render(final int[] samples, final int[] deltas, final long phase,
+                     final long phaseIncrement, final int gain, final byte[] target,
+                     final int offset, final int count) {
+    long current = phase;
+    int index = offset;
+    for (int i = 0; i < count; i++) {
+      final int position = (int) (current >>> INDEX_SHIFT);
+      final int value = (samples[position] << FRACTION_BITS)
+          + deltas[position] * ((int) (current >>> FRACTION_SHIFT) & FRACTION_MASK);
+      final int volume = (int) (((long) value * gain + RESULT_ROUNDING) >> 31);
+      target[index] = (byte) volume;
+      target[index + 1] = (byte) (volume >>> 8);
+      index += 2;
+      current += phaseIncrement;
+    }
+    return current;
+  }
+}
@@ -0,0 +1,61 @@
+package com.igormaznitsa.soundtime;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Calculator of stream start offset which places seconds of a minute record on their true second
+ * boundaries, the offset is calculated from the moment when the first sample will be heard.
+ *
+ * @author Igor Maznitsa
+ */
+public final class SecondBoundaryAligner {
+
+  private static final long NANOS_IN_SECOND = 1_000_000_000L;
+
+  private SecondBoundaryAligner() {
+  }
+
+  /**
+   * Calculate offset of the first played sample relative to start of the record second. Positive
+   * value means that the record second has already begun and its samples must be trimmed,
+   * negative value means that the record second is in future and preceding samples of the minute
+   * must be played before it.
+   *
+   * @param secondStart moment when the record second begins, must not be null
+   * @param playAt      moment when the first sample will be heard, must not be null
+   * @param sampleRate  sample rate in Hz
+   * @return offset in samples
+   */
+  public static long calculateStartOffsetSamples(
+      final Instant secondStart,
+      final Instant playAt,
+      final int sampleRate) {
+    final Duration difference = Duration.between(secondStart, playAt);
+    final long offsetNanos =
+        difference.getSeconds() * NANOS_IN_SECOND + difference.getNano();
+    return Math.round((double) offsetNanos * sampleRate / NANOS_IN_SECOND);
+  }
+
+  /**
+   * Calculate moment when the first sample written into audio line will be heard.
+   *
+   * @param now                 current time, must not be null
+   * @param writtenFrames       number of frames written into the line since its start
+   * @param framePosition       frame position reported by the line
+   * @param sampleRate          sample rate in Hz
+   * @param outputLatencyMicros extra latency of output device which is not visible through frame
+   *                            position
+   * @return moment when next written sample will be heard
+   */
+  public static Instant calculatePlayMoment(
+      final Instant now,
+      final long writtenFrames,
+      final long framePosition,
+      final int sampleRate,
+      final long outputLatencyMicros) {
+    final long bufferedFrames = Math.max(0L, writtenFrames - framePosition);
+    return now.plusNanos(bufferedFrames * NANOS_IN_SECOND / sampleRate
+        + outputLatencyMicros * 1000L);
+  }
+}
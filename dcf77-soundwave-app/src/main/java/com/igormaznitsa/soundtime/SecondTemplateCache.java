@@ -0,0 +1,198 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of pre-rendered one second PCM templates. A time signal second has only few
+ * possible shapes, so a minute can be assembled from cached templates instead of synthesis of
+ * each sample.
+ * <b>Returned arrays are shared and must not be changed.</b>
+ *
+ * @author Igor Maznitsa
+ */
+public final class SecondTemplateCache {
+
+  /**
+   * Default shared cache instance.
+   */
+  public static final SecondTemplateCache INSTANCE = new SecondTemplateCache(64);
+
+  private static final double PHASE_QUANTUM = 4294967296.0d;
+
+  private final Map<Key, byte[]> cache;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructor.
+   *
+   * @param maxEntries max number of kept templates, must be positive
+   */
+  public SecondTemplateCache(final int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+    }
+    this.cache = new LinkedHashMap<>(maxEntries, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, byte[]> eldest) {
+        return this.size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Calculate carrier phase at start of second which is placed some seconds after start.
+   *
+   * @param startPhase start phase in cycles
+   * @param freq       carrier frequency in Hz
+   * @param seconds    number of seconds since start
+   * @return phase in cycles, 0.0 .. 1.0
+   */
+  public static double phaseAfterSeconds(final double startPhase, final double freq,
+                                         final long seconds) {
+    final double freqFraction = freq - Math.floor(freq);
+    final double cycles = startPhase + freqFraction * seconds;
+    final double result = cycles - Math.floor(cycles);
+    return result >= 1.0d ? 0.0d : result;
+  }
+
+  /**
+   * Find template in the cache or render and place it.
+   *
+   * @param key      key of template, must not be null
+   * @param renderer renderer to make template if not found, must not be null
+   * @return found or rendered template, must not be changed
+   */
+  public byte[] find(final Key key, final Supplier<byte[]> renderer) {
+    synchronized (this.cache) {
+      final byte[] found = this.cache.get(key);
+      if (found != null) {
+        this.hits++;
+        return found;
+      }
+      this.misses++;
+    }
+    final byte[] rendered = requireNonNull(renderer.get());
+    synchronized (this.cache) {
+      final byte[] concurrent = this.cache.putIfAbsent(key, rendered);
+      return concurrent == null ? rendered : concurrent;
+    }
+  }
+
+  /**
+   * Get number of cached templates.
+   *
+   * @return number of templates
+   */
+  public int size() {
+    synchronized (this.cache) {
+      return this.cache.size();
+    }
+  }
+
+  /**
+   * Get number of requests served by cached templates.
+   *
+   * @return number of cache hits
+   */
+  public long getHits() {
+    synchronized (this.cache) {
+      return this.hits;
+    }
+  }
+
+  /**
+   * Get number of requests which needed template rendering.
+   *
+   * @return number of cache misses
+   */
+  public long getMisses() {
+    synchronized (this.cache) {
+      return this.misses;
+    }
+  }
+
+  /**
+   * Remove all cached templates.
+   */
+  public void clear() {
+    synchronized (this.cache) {
+      this.cache.clear();
+    }
+  }
+
+  /**
+   * Key of one second template.
+   */
+  public static final class Key {
+    private final String protocolId;
+    private final int symbol;
+    private final double freq;
+    private final int sampleRate;
+    private final int sampleBytes;
+    private final AmplitudeSoundSignalRenderer.SignalShape signalShape;
+    private final double amplitudeDeviation;
+    private final long quantizedPhase;
+
+    /**
+     * Constructor.
+     *
+     * @param protocolId         protocol identifier, must not be null
+     * @param symbol             protocol specific symbol of second
+     * @param freq               carrier frequency in Hz
+     * @param sampleRate         sample rate in Hz
+     * @param sampleBytes        bytes per sample
+     * @param signalShape        carrier signal shape, must not be null
+     * @param amplitudeDeviation AM amplitude deviation
+     * @param phase              carrier phase at second start, in cycles
+     */
+    public Key(
+        final String protocolId,
+        final int symbol,
+        final double freq,
+        final int sampleRate,
+        final int sampleBytes,
+        final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+        final double amplitudeDeviation,
+        final double phase) {
+      this.protocolId = requireNonNull(protocolId);
+      this.symbol = symbol;
+      this.freq = freq;
+      this.sampleRate = sampleRate;
+      this.sampleBytes = sampleBytes;
+      this.signalShape = requireNonNull(signalShape);
+      this.amplitudeDeviation = amplitudeDeviation;
+      this.quantizedPhase = Math.round(phase * PHASE_QUANTUM);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || this.getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return this.symbol == that.symbol
+          && Double.compare(this.freq, that.freq) == 0
+          && this.sampleRate == that.sampleRate
+          && this.sampleBytes == that.sampleBytes
+          && Double.compare(this.amplitudeDeviation, that.amplitudeDeviation) == 0
+          && this.quantizedPhase == that.quantizedPhase
+          && this.signalShape == that.signalShape
+          && this.protocolId.equals(that.protocolId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.protocolId, this.symbol, this.freq, this.sampleRate,
+          this.sampleBytes, this.signalShape, this.amplitudeDeviation, this.quantizedPhase);
+    }
+  }
+}
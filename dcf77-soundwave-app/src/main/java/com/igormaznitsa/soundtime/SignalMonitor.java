@@ -0,0 +1,340 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Monitor of played signal. Audio writer thread taps each chunk written into audio line, the
+ * chunk is copied into lock-free ring buffer and decoded by {@link TimeSignalDecoder} in analyzer
+ * thread. If the analyzer is behind and the ring is full then tapped data is dropped, so the audio
+ * thread is never blocked, the decoder is restarted on the gap. After a drop all tapped data is
+ * dropped until the analyzer reaches the gap, so there is only one pending gap at a time. Results
+ * are published as {@link Status} snapshots and through decoder listener called from the analyzer
+ * thread.
+ *
+ * @author Igor Maznitsa
+ * @see AmplitudeSoundSignalRenderer#setSignalMonitor(SignalMonitor)
+ */
+public final class SignalMonitor {
+
+  private static final int SAMPLE_BYTES = 2;
+  private static final int READ_MILLISECONDS = 20;
+  private static final long IDLE_PARK_NANOSECONDS = 5_000_000L;
+
+  private final TimeCodeDescriptor descriptor;
+  private final int sampleRate;
+  private final TimeSignalDecoder.Listener listener;
+  private final PcmRingBuffer ring;
+  private final AtomicLong droppedBytes = new AtomicLong();
+  private final AtomicReference<Status> status = new AtomicReference<>();
+  // ring position of the last gap made by dropped data, written only by tapping thread
+  private volatile long gapPosition = -1L;
+  // the last gap reached by analyzer, written only by analyzer thread
+  private volatile long handledGap = -1L;
+  private volatile double carrierFreq;
+
+  /**
+   * Constructor.
+   *
+   * @param descriptor         descriptor of monitored time signal, must not be null
+   * @param sampleRate         sample rate of monitored PCM in Hz
+   * @param bufferMilliseconds duration of data buffered for analyzer, must be positive
+   * @param listener           listener of decoded seconds and minutes, called from analyzer
+   *                           thread, must not be null
+   */
+  public SignalMonitor(
+      final TimeCodeDescriptor descriptor,
+      final int sampleRate,
+      final int bufferMilliseconds,
+      final TimeSignalDecoder.Listener listener) {
+    this.descriptor = requireNonNull(descriptor);
+    this.listener = requireNonNull(listener);
+    if (sampleRate <= 0) {
+      throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+    }
+    this.sampleRate = sampleRate;
+    this.ring = PcmRingBuffer.ofMilliseconds(bufferMilliseconds, sampleRate, SAMPLE_BYTES);
+    this.status.set(new Status(0.0d, Double.NaN, 0.0d, false, 0L, 0L, 0L, 0L, 0L,
+        new TimingStatistics(), new TimingStatistics(), null));
+  }
+
+  public TimeCodeDescriptor getDescriptor() {
+    return this.descriptor;
+  }
+
+  public int getSampleRate() {
+    return this.sampleRate;
+  }
+
+  /**
+   * Set carrier frequency of monitored signal, it can be called from any thread. Change of
+   * frequency restarts decoder and its statistics.
+   *
+   * @param freq carrier frequency in Hz, zero or negative to stop decoding
+   */
+  public void setCarrierFrequency(final double freq) {
+    this.carrierFreq = freq;
+  }
+
+  /**
+   * Copy played data for analysis, called only by the single audio writer thread. The method
+   * never blocks, if there is no space then rest of data is dropped. Whole data is dropped while
+   * the analyzer has not reached the previous gap.
+   *
+   * @param data   played PCM data, must not be null
+   * @param offset offset in data
+   * @param length number of bytes
+   * @return true if all data is accepted, false if some data dropped
+   */
+  public boolean tap(final byte[] data, final int offset, final int length) {
+    final long gap = this.gapPosition;
+    if (gap != this.handledGap) {
+      // new gap would overwrite the pending one, so the decoder would miss it
+      this.droppedBytes.addAndGet(length);
+      return false;
+    }
+    final int written = this.ring.write(data, offset, length);
+    if (written < length) {
+      this.gapPosition = this.ring.getWrittenBytes();
+      this.droppedBytes.addAndGet(length - written);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Get number of dropped bytes since creation, can be called from any thread.
+   *
+   * @return number of dropped bytes
+   */
+  public long getDroppedBytes() {
+    return this.droppedBytes.get();
+  }
+
+  /**
+   * Get last published status, it is updated by analyzer thread after each portion of data.
+   *
+   * @return status, must not be null
+   */
+  public Status getStatus() {
+    return this.status.get();
+  }
+
+  /**
+   * Body of analyzer thread, works until the thread is interrupted.
+   */
+  void analyzerRunnable() {
+    final byte[] buffer = new byte[Math.max(SAMPLE_BYTES,
+        this.sampleRate * READ_MILLISECONDS / 1000 * SAMPLE_BYTES)];
+    final LastSecondListener lastSecond = new LastSecondListener(this.listener);
+    TimeSignalDecoder decoder = null;
+    double decoderFreq = 0.0d;
+    long analyzedBytes = 0L;
+
+    while (!Thread.currentThread().isInterrupted()) {
+      final double freq = this.carrierFreq;
+      if (freq != decoderFreq) {
+        decoderFreq = freq;
+        decoder = freq > 0.0d
+            ? new TimeSignalDecoder(this.descriptor, freq, this.sampleRate, lastSecond) : null;
+      }
+
+      final long readPosition = this.ring.getReadBytes();
+      // gap must be read after written position, so data after the gap is never taken unnoticed
+      final long available = this.ring.getWrittenBytes() - readPosition;
+      final long gap = this.gapPosition;
+      long limit = Math.min(available, buffer.length);
+      if (gap > readPosition) {
+        limit = Math.min(limit, gap - readPosition);
+      }
+      final int read = this.ring.read(buffer, 0, (int) limit);
+      if (read > 0) {
+        analyzedBytes += read;
+        if (decoder != null) {
+          decoder.process(buffer, 0, read);
+        }
+      }
+      if (readPosition + read == gap && gap != this.handledGap) {
+        // data before the gap is analyzed, decoder restarts and tapping is resumed
+        if (decoder != null) {
+          decoder.reset();
+        }
+        this.handledGap = gap;
+      } else if (read == 0) {
+        LockSupport.parkNanos(IDLE_PARK_NANOSECONDS);
+        continue;
+      }
+      this.status.set(this.makeStatus(decoder, freq, analyzedBytes, lastSecond.last));
+    }
+  }
+
+  private Status makeStatus(final TimeSignalDecoder decoder, final double freq,
+                            final long analyzedBytes,
+                            final TimeSignalDecoder.DecodedSecond lastSecond) {
+    final TimingStatistics startJitter = new TimingStatistics();
+    final TimingStatistics widthJitter = new TimingStatistics();
+    if (decoder == null) {
+      return new Status(freq, Double.NaN, 0.0d, false, 0L, 0L, 0L, analyzedBytes,
+          this.droppedBytes.get(), startJitter, widthJitter, null);
+    }
+    startJitter.add(decoder.getStartJitter());
+    widthJitter.add(decoder.getWidthJitter());
+    return new Status(freq, decoder.getCarrierLevel(), decoder.getModulationDepth(),
+        decoder.isSynchronized(), decoder.getDecodedSeconds(), decoder.getUnknownSeconds(),
+        decoder.getDecodedMinutes(), analyzedBytes, this.droppedBytes.get(), startJitter,
+        widthJitter, lastSecond);
+  }
+
+  private static final class LastSecondListener implements TimeSignalDecoder.Listener {
+    private final TimeSignalDecoder.Listener delegate;
+    private TimeSignalDecoder.DecodedSecond last;
+
+    private LastSecondListener(final TimeSignalDecoder.Listener delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void onSecond(final TimeSignalDecoder.DecodedSecond second) {
+      this.last = second;
+      this.delegate.onSecond(second);
+    }
+
+    @Override
+    public void onMinute(final double startSample, final int[] symbols,
+                         final MinuteBasedTimeSignalBits record) {
+      this.delegate.onMinute(startSample, symbols, record);
+    }
+  }
+
+  /**
+   * Snapshot of monitored signal state.
+   */
+  public static final class Status {
+    private final double carrierFreq;
+    private final double carrierLevel;
+    private final double modulationDepth;
+    private final boolean synchronizedSignal;
+    private final long decodedSeconds;
+    private final long unknownSeconds;
+    private final long decodedMinutes;
+    private final long analyzedBytes;
+    private final long droppedBytes;
+    private final TimingStatistics startJitter;
+    private final TimingStatistics widthJitter;
+    private final TimeSignalDecoder.DecodedSecond lastSecond;
+
+    private Status(
+        final double carrierFreq,
+        final double carrierLevel,
+        final double modulationDepth,
+        final boolean synchronizedSignal,
+        final long decodedSeconds,
+        final long unknownSeconds,
+        final long decodedMinutes,
+        final long analyzedBytes,
+        final long droppedBytes,
+        final TimingStatistics startJitter,
+        final TimingStatistics widthJitter,
+        final TimeSignalDecoder.DecodedSecond lastSecond) {
+      this.carrierFreq = carrierFreq;
+      this.carrierLevel = carrierLevel;
+      this.modulationDepth = modulationDepth;
+      this.synchronizedSignal = synchronizedSignal;
+      this.decodedSeconds = decodedSeconds;
+      this.unknownSeconds = unknownSeconds;
+      this.decodedMinutes = decodedMinutes;
+      this.analyzedBytes = analyzedBytes;
+      this.droppedBytes = droppedBytes;
+      this.startJitter = startJitter;
+      this.widthJitter = widthJitter;
+      this.lastSecond = lastSecond;
+    }
+
+    public double getCarrierFreq() {
+      return this.carrierFreq;
+    }
+
+    /**
+     * Get level of full carrier relative to full scale.
+     *
+     * @return level, NaN if not measured yet
+     */
+    public double getCarrierLevel() {
+      return this.carrierLevel;
+    }
+
+    public double getModulationDepth() {
+      return this.modulationDepth;
+    }
+
+    /**
+     * Check that the decoder follows seconds of the signal.
+     *
+     * @return true if seconds are framed
+     */
+    public boolean isSynchronized() {
+      return this.synchronizedSignal;
+    }
+
+    public long getDecodedSeconds() {
+      return this.decodedSeconds;
+    }
+
+    public long getUnknownSeconds() {
+      return this.unknownSeconds;
+    }
+
+    public long getDecodedMinutes() {
+      return this.decodedMinutes;
+    }
+
+    public long getAnalyzedBytes() {
+      return this.analyzedBytes;
+    }
+
+    public long getDroppedBytes() {
+      return this.droppedBytes;
+    }
+
+    /**
+     * Get deviations of second start edges from grid of seconds.
+     *
+     * @return copy of decoder statistics, must not be null
+     */
+    public TimingStatistics getStartJitter() {
+      return this.startJitter;
+    }
+
+    /**
+     * Get deviations of pulse widths from declared ones.
+     *
+     * @return copy of decoder statistics, must not be null
+     */
+    public TimingStatistics getWidthJitter() {
+      return this.widthJitter;
+    }
+
+    /**
+     * Get the last decoded second, it contains edges and symbol.
+     *
+     * @return the last second or null if there is no one
+     */
+    public TimeSignalDecoder.DecodedSecond getLastSecond() {
+      return this.lastSecond;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ENGLISH,
+          "carrier=%.1f Hz, level=%.3f, depth=%.3f, synchronized=%b, seconds=%d, unknown=%d,"
+              + " minutes=%d, analyzed=%d, dropped=%d, start jitter (%s), width jitter (%s)",
+          this.carrierFreq, this.carrierLevel, this.modulationDepth, this.synchronizedSignal,
+          this.decodedSeconds, this.unknownSeconds, this.decodedMinutes, this.analyzedBytes,
+          this.droppedBytes, this.startJitter, this.widthJitter);
+    }
+  }
+}
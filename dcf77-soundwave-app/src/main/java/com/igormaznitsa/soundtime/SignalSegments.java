@@ -0,0 +1,188 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * Run-length representation of amplitude modulated signal, it is sequence of segments where each
+ * segment is number of samples played with the same gain. A protocol renderer just emits segments
+ * for seconds of minute and the segment player fills each run by the synthesis kernel, so there is
+ * no any amplitude decision per sample and cost of a sample doesn't depend on protocol complexity.
+ * Adjacent segments with the same gain are merged, so a minute takes at most few hundreds of
+ * segments.
+ *
+ * @author Igor Maznitsa
+ */
+public final class SignalSegments {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] samples;
+  private int[] gains;
+  private int size;
+  private long totalSamples;
+
+  /**
+   * Constructor of empty segment list.
+   */
+  public SignalSegments() {
+    this.samples = new int[INITIAL_CAPACITY];
+    this.gains = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Add segment to the end. Segment without samples is ignored, segment with the same gain as the
+   * last one extends it.
+   *
+   * @param samples number of samples in the segment
+   * @param gain    fixed point gain, 0 .. {@link Oscillator#GAIN_ONE}
+   * @return this instance
+   * @throws IllegalArgumentException if gain is out of range
+   */
+  public SignalSegments append(final int samples, final int gain) {
+    if (gain < 0 || gain > Oscillator.GAIN_ONE) {
+      throw new IllegalArgumentException("Unexpected gain: " + gain);
+    }
+    if (samples <= 0) {
+      return this;
+    }
+    this.totalSamples += samples;
+    if (this.size > 0 && this.gains[this.size - 1] == gain
+        && (long) this.samples[this.size - 1] + samples <= Integer.MAX_VALUE) {
+      this.samples[this.size - 1] += samples;
+      return this;
+    }
+    if (this.size == this.samples.length) {
+      this.samples = Arrays.copyOf(this.samples, this.size << 1);
+      this.gains = Arrays.copyOf(this.gains, this.size << 1);
+    }
+    this.samples[this.size] = samples;
+    this.gains[this.size] = gain;
+    this.size++;
+    return this;
+  }
+
+  /**
+   * Add all segments of another list to the end.
+   *
+   * @param other source segments, must not be null
+   * @return this instance
+   */
+  public SignalSegments append(final SignalSegments other) {
+    final int otherSize = other.size;
+    for (int i = 0; i < otherSize; i++) {
+      this.append(other.samples[i], other.gains[i]);
+    }
+    return this;
+  }
+
+  /**
+   * Remove all segments.
+   */
+  public void clear() {
+    this.size = 0;
+    this.totalSamples = 0L;
+  }
+
+  /**
+   * Get number of segments.
+   *
+   * @return number of segments
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Get number of samples in segment.
+   *
+   * @param index index of segment
+   * @return number of samples
+   */
+  public int getSamples(final int index) {
+    return this.samples[this.checkIndex(index)];
+  }
+
+  /**
+   * Get gain of segment.
+   *
+   * @param index index of segment
+   * @return fixed point gain
+   */
+  public int getGain(final int index) {
+    return this.gains[this.checkIndex(index)];
+  }
+
+  /**
+   * Get number of samples in all segments.
+   *
+   * @return total number of samples
+   */
+  public long getTotalSamples() {
+    return this.totalSamples;
+  }
+
+  private int checkIndex(final int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Segment index " + index + ", size " + this.size);
+    }
+    return index;
+  }
+
+  /**
+   * Play all segments by oscillator as 16 bit little endian PCM.
+   *
+   * @param oscillator oscillator generates carrier, its phase is moved, must not be null
+   * @param target     target buffer, must have enough space for all samples
+   * @param offset     offset in the target buffer
+   * @return offset in the target buffer after the last written byte
+   */
+  public int play(final Oscillator oscillator, final byte[] target, final int offset) {
+    requireNonNull(oscillator);
+    if (offset < 0 || target.length - offset < this.totalSamples * 2L) {
+      throw new IllegalArgumentException(
+          "Not enough space in buffer, required " + this.totalSamples * 2L + " byte(s)");
+    }
+    int position = offset;
+    for (int i = 0; i < this.size; i++) {
+      position = oscillator.render(target, position, this.samples[i], this.gains[i]);
+    }
+    return position;
+  }
+
+  /**
+   * Play all segments into new PCM buffer.
+   *
+   * @param signalShape carrier signal shape, must not be null
+   * @param freq        carrier frequency in Hz
+   * @param sampleRate  sample rate in Hz
+   * @param sampleBytes bytes per sample
+   * @param startPhase  carrier phase at the first sample, in cycles
+   * @return PCM data, must not be null
+   */
+  public byte[] play(
+      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
+      final double freq,
+      final int sampleRate,
+      final int sampleBytes,
+      final double startPhase) {
+    final byte[] wavBuffer = new byte[Math.toIntExact(this.totalSamples * sampleBytes)];
+    final Oscillator oscillator = signalShape.makeOscillator(freq, sampleRate);
+    oscillator.setPhase(startPhase);
+    this.play(oscillator, wavBuffer, 0);
+    return wavBuffer;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder buffer = new StringBuilder("SignalSegments[");
+    for (int i = 0; i < this.size; i++) {
+      if (i > 0) {
+        buffer.append(',');
+      }
+      buffer.append(this.samples[i]).append('@').append(this.gains[i]);
+    }
+    return buffer.append(']').toString();
+  }
+}
@@ -0,0 +1,67 @@
+package com.igormaznitsa.soundtime;
+
+/**
+ * Inner loop of fixed point carrier synthesis, it renders samples of one segment with constant
+ * gain. Alternative implementations can be provided through {@link java.util.ServiceLoader}, all
+ * of them must produce bit-identical output:
+ * <ul>
+ *   <li>phase is 32.32 unsigned accumulator, it is incremented after each sample</li>
+ *   <li>table index is {@code phase >>> INDEX_SHIFT}</li>
+ *   <li>interpolation fraction is {@code (phase >>> FRACTION_SHIFT) & FRACTION_MASK}</li>
+ *   <li>value is {@code (sample << FRACTION_BITS) + delta * fraction}</li>
+ *   <li>result is {@code (value * gain + (1L << 30)) >> 31} calculated in 64 bits</li>
+ *   <li>result is written as 16 bit little endian sample</li>
+ * </ul>
+ *
+ * @author Igor Maznitsa
+ * @see SynthesisKernels
+ */
+public interface SynthesisKernel {
+
+  /**
+   * Number of interpolation fraction bits.
+   */
+  int FRACTION_BITS = 15;
+  /**
+   * Mask of interpolation fraction.
+   */
+  int FRACTION_MASK = (1 << FRACTION_BITS) - 1;
+  /**
+   * Shift of phase to get table index.
+   */
+  int INDEX_SHIFT = 64 - Integer.numberOfTrailingZeros(WaveTable.TABLE_SIZE);
+  /**
+   * Shift of phase to get interpolation fraction.
+   */
+  int FRACTION_SHIFT = INDEX_SHIFT - FRACTION_BITS;
+
+  /**
+   * Get name of the kernel for logs.
+   *
+   * @return name, must not be null
+   */
+  String getName();
+
+  /**
+   * Check that the kernel can work in the current JVM, only available kernel is selected.
+   *
+   * @return true if available
+   */
+  boolean isAvailable();
+
+  /**
+   * Render samples as 16 bit little endian PCM.
+   *
+   * @param samples        table samples, {@link WaveTable#TABLE_SIZE} items, must not be null
+   * @param deltas         table deltas, {@link WaveTable#TABLE_SIZE} items, must not be null
+   * @param phase          phase of the first sample
+   * @param phaseIncrement phase increment per sample
+   * @param gain           fixed point gain, 0 .. {@link Oscillator#GAIN_ONE}
+   * @param target         target buffer, must not be null
+   * @param offset         offset in the target buffer
+   * @param count          number of samples to render
+   * @return phase after the last rendered sample
+   */
+  long render(int[] samples, int[] deltas, long phase, long phaseIncrement, int gain,
+              byte[] target, int offset, int count);
+}
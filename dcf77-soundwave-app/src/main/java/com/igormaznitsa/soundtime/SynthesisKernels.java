@@ -0,0 +1,69 @@
+package com.igormaznitsa.soundtime;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Selector of synthesis kernel. Kernels provided through {@link ServiceLoader} are checked in
+ * order and the first available one is used, the scalar kernel is used if there is no any. System
+ * property {@value #PROPERTY_KERNEL} set to {@code scalar} turns off provided kernels. Selection
+ * is silent, name of the selected kernel can be got through {@link #getActive()}.
+ *
+ * @author Igor Maznitsa
+ */
+public final class SynthesisKernels {
+
+  /**
+   * System property to select kernel by name.
+   */
+  public static final String PROPERTY_KERNEL = "dcf77soundwave.synthesis.kernel";
+
+  private static final SynthesisKernel ACTIVE = select(System.getProperty(PROPERTY_KERNEL));
+
+  private SynthesisKernels() {
+  }
+
+  /**
+   * Get selected kernel.
+   *
+   * @return the kernel, must not be null
+   */
+  public static SynthesisKernel getActive() {
+    return ACTIVE;
+  }
+
+  /**
+   * Get scalar kernel which works on any JVM.
+   *
+   * @return the scalar kernel, must not be null
+   */
+  public static SynthesisKernel getScalar() {
+    return ScalarSynthesisKernel.INSTANCE;
+  }
+
+  static SynthesisKernel select(final String requestedName) {
+    if (ScalarSynthesisKernel.INSTANCE.getName().equals(requestedName)) {
+      return ScalarSynthesisKernel.INSTANCE;
+    }
+    final Iterator<SynthesisKernel> iterator =
+        ServiceLoader.load(SynthesisKernel.class, SynthesisKernels.class.getClassLoader())
+            .iterator();
+    while (true) {
+      try {
+        if (!iterator.hasNext()) {
+          break;
+        }
+        final SynthesisKernel kernel = iterator.next();
+        if ((requestedName == null || requestedName.equals(kernel.getName()))
+            && kernel.isAvailable()) {
+          return kernel;
+        }
+      } catch (ServiceConfigurationError | LinkageError ex) {
+        // provider needs module which is not present in the JVM
+        System.err.println("Can't load synthesis kernel: " + ex.getMessage());
+      }
+    }
+    return ScalarSynthesisKernel.INSTANCE;
+  }
+}
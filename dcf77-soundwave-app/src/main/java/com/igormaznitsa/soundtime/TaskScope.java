@@ -0,0 +1,425 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Structured owner of background tasks. Every task is started in a scope and cancelled together
+ * with it, scopes can be nested so that cancel of a parent scope cancels all children. Tasks are
+ * started on virtual threads if they are provided by the JVM (JDK 21+) and on daemon platform
+ * threads otherwise, tasks which make blocking native calls can request a platform thread
+ * explicitly because such call pins a virtual thread to its carrier.
+ *
+ * @author Igor Maznitsa
+ */
+public final class TaskScope implements AutoCloseable {
+
+  /**
+   * Default time to wait termination of tasks during close.
+   */
+  public static final long DEFAULT_CLOSE_TIMEOUT_MILLISECONDS = 3000L;
+
+  private static final Method THREAD_OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_UNSTARTED;
+
+  static {
+    Method ofVirtual = null;
+    Method name = null;
+    Method unstarted = null;
+    try {
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      name = builder.getMethod("name", String.class);
+      unstarted = builder.getMethod("unstarted", Runnable.class);
+      // preview API of JDK 19 and 20 throws exception if preview is not enabled
+      unstarted.invoke(name.invoke(ofVirtual.invoke(null), "probe"), (Runnable) () -> {
+      });
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      ofVirtual = null;
+    }
+    THREAD_OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = name;
+    BUILDER_UNSTARTED = unstarted;
+  }
+
+  private final String name;
+  private final TaskScope parent;
+  private final boolean virtualThreads;
+  private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+  private final Set<TaskScope> children = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+
+  /**
+   * Constructor of root scope.
+   *
+   * @param name name of the scope, used as prefix of thread names, must not be null
+   */
+  public TaskScope(final String name) {
+    this(name, null, isVirtualThreadsSupported());
+  }
+
+  TaskScope(final String name, final TaskScope parent, final boolean virtualThreads) {
+    this.name = requireNonNull(name);
+    this.parent = parent;
+    this.virtualThreads = virtualThreads && isVirtualThreadsSupported();
+  }
+
+  /**
+   * Check that the JVM provides virtual threads.
+   *
+   * @return true if virtual threads can be created
+   */
+  public static boolean isVirtualThreadsSupported() {
+    return THREAD_OF_VIRTUAL != null;
+  }
+
+  private static Thread makeVirtualThread(final String name, final Runnable runnable) {
+    try {
+      return (Thread) BUILDER_UNSTARTED.invoke(
+          BUILDER_NAME.invoke(THREAD_OF_VIRTUAL.invoke(null), name), runnable);
+    } catch (IllegalAccessException ex) {
+      throw new IllegalStateException("Can't make virtual thread", ex);
+    } catch (InvocationTargetException ex) {
+      throw new IllegalStateException("Can't make virtual thread", ex.getCause());
+    }
+  }
+
+  /**
+   * Get name of the scope.
+   *
+   * @return the name, must not be null
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Check that the scope uses virtual threads for tasks which don't require platform thread.
+   *
+   * @return true if virtual threads are used
+   */
+  public boolean isVirtualThreads() {
+    return this.virtualThreads;
+  }
+
+  /**
+   * Check that the scope is cancelled, no new tasks can be started in cancelled scope.
+   *
+   * @return true if cancelled
+   */
+  public boolean isCancelled() {
+    return this.cancelled.get();
+  }
+
+  /**
+   * Get number of alive tasks in the scope and all its children.
+   *
+   * @return number of alive tasks
+   */
+  public int getActiveTaskCount() {
+    int result = 0;
+    for (final Task task : this.tasks) {
+      if (task.isAlive()) {
+        result++;
+      }
+    }
+    for (final TaskScope child : this.children) {
+      result += child.getActiveTaskCount();
+    }
+    return result;
+  }
+
+  /**
+   * Make child scope, it is cancelled together with this scope.
+   *
+   * @param name name of the child scope, must not be null
+   * @return created child scope, must not be null
+   * @throws IllegalStateException if the scope is cancelled
+   */
+  public TaskScope newChild(final String name) {
+    this.assertNotCancelled();
+    final TaskScope child = new TaskScope(this.name + '-' + name, this, this.virtualThreads);
+    this.children.add(child);
+    if (this.cancelled.get()) {
+      child.cancel();
+    }
+    return child;
+  }
+
+  /**
+   * Start task on virtual thread if it is supported or on daemon platform thread.
+   *
+   * @param name     name of the task, must not be null
+   * @param runnable task body, must not be null
+   * @return started task, must not be null
+   * @throws IllegalStateException if the scope is cancelled
+   */
+  public Task start(final String name, final Runnable runnable) {
+    requireNonNull(runnable);
+    return this.start(name, task -> runnable);
+  }
+
+  private Task start(final String name, final Function<Task, Runnable> body) {
+    if (this.virtualThreads) {
+      return this.start(name, body, true, r -> makeVirtualThread(this.threadName(name), r));
+    }
+    return this.start(name, body, false, r -> this.makePlatformThread(name, r, 0L));
+  }
+
+  /**
+   * Start task on daemon platform thread, it should be used for tasks which block in native code.
+   *
+   * @param name      name of the task, must not be null
+   * @param runnable  task body, must not be null
+   * @param stackSize desired stack size in bytes, zero for default
+   * @return started task, must not be null
+   * @throws IllegalStateException if the scope is cancelled
+   */
+  public Task startPlatform(final String name, final Runnable runnable, final long stackSize) {
+    requireNonNull(runnable);
+    return this.start(name, task -> runnable, false,
+        r -> this.makePlatformThread(name, r, stackSize));
+  }
+
+  private Thread makePlatformThread(final String name, final Runnable runnable,
+                                    final long stackSize) {
+    final Thread thread = new Thread(null, runnable, this.threadName(name), stackSize);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Start task which repeats action with fixed delay between executions till the task is
+   * cancelled. Exception thrown by the action is logged and doesn't stop repetition.
+   *
+   * @param name                name of the task, must not be null
+   * @param action              repeated action, must not be null
+   * @param initialDelayMillis  delay before the first execution
+   * @param delayMillis         delay between executions, must be positive
+   * @return started task, must not be null
+   * @throws IllegalStateException if the scope is cancelled
+   */
+  public Task scheduleWithFixedDelay(final String name, final Runnable action,
+                                     final long initialDelayMillis, final long delayMillis) {
+    requireNonNull(action);
+    if (delayMillis <= 0L) {
+      throw new IllegalArgumentException("Delay must be positive: " + delayMillis);
+    }
+    return this.start(name, task -> () -> {
+      try {
+        TimeUnit.MILLISECONDS.sleep(initialDelayMillis);
+        while (!task.isCancelled() && !Thread.currentThread().isInterrupted()) {
+          try {
+            action.run();
+          } catch (RuntimeException ex) {
+            System.err.println("Error in task " + task.getName() + ": " + ex.getMessage());
+          }
+          TimeUnit.MILLISECONDS.sleep(delayMillis);
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    });
+  }
+
+  private Task start(final String name, final Function<Task, Runnable> body,
+                     final boolean virtual, final Function<Runnable, Thread> threadFactory) {
+    requireNonNull(name);
+    this.assertNotCancelled();
+    final Task task = new Task(name, virtual);
+    final Runnable runnable = body.apply(task);
+    task.thread = threadFactory.apply(() -> {
+      try {
+        runnable.run();
+      } catch (RuntimeException | Error ex) {
+        System.err.println("Task " + name + " failed: " + ex);
+        throw ex;
+      } finally {
+        this.tasks.remove(task);
+      }
+    });
+    this.tasks.add(task);
+    if (this.cancelled.get()) {
+      this.tasks.remove(task);
+      throw new IllegalStateException("Scope is cancelled: " + this.name);
+    }
+    task.thread.start();
+    return task;
+  }
+
+  private String threadName(final String taskName) {
+    return this.name + '-' + taskName;
+  }
+
+  private void assertNotCancelled() {
+    if (this.cancelled.get()) {
+      throw new IllegalStateException("Scope is cancelled: " + this.name);
+    }
+  }
+
+  /**
+   * Cancel all tasks and child scopes, running tasks are interrupted. The method doesn't wait
+   * termination of tasks.
+   */
+  public void cancel() {
+    if (this.cancelled.compareAndSet(false, true)) {
+      this.children.forEach(TaskScope::cancel);
+      this.tasks.forEach(x -> x.cancel(true));
+    }
+  }
+
+  /**
+   * Wait termination of all tasks of the scope and its children.
+   *
+   * @param timeoutMillis max time to wait in milliseconds
+   * @return true if all tasks are terminated, false if timeout
+   * @throws InterruptedException if interrupted during wait
+   */
+  public boolean awaitTermination(final long timeoutMillis) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    for (final Task task : new ArrayList<>(this.tasks)) {
+      if (task.isCurrentThread()) {
+        // scope is closed from its own task
+        continue;
+      }
+      final long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (left <= 0L || !task.join(left)) {
+        return false;
+      }
+    }
+    for (final TaskScope child : new ArrayList<>(this.children)) {
+      final long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (left <= 0L || !child.awaitTermination(left)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Cancel the scope, wait termination of its tasks and detach it from parent scope.
+   */
+  @Override
+  public void close() {
+    this.cancel();
+    try {
+      if (!this.awaitTermination(DEFAULT_CLOSE_TIMEOUT_MILLISECONDS)) {
+        System.err.println("Scope " + this.name + " closed with " + this.getActiveTaskCount()
+            + " alive task(s)");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (this.parent != null) {
+        this.parent.children.remove(this);
+      }
+    }
+  }
+
+  /**
+   * Handle of started task.
+   */
+  public static final class Task {
+    private final String name;
+    private final boolean virtual;
+    private volatile boolean cancelled;
+    private Thread thread;
+
+    private Task(final String name, final boolean virtual) {
+      this.name = name;
+      this.virtual = virtual;
+    }
+
+    /**
+     * Get name of the task.
+     *
+     * @return the name, must not be null
+     */
+    public String getName() {
+      return this.name;
+    }
+
+    /**
+     * Check that the task is executed on virtual thread.
+     *
+     * @return true if virtual thread
+     */
+    public boolean isVirtual() {
+      return this.virtual;
+    }
+
+    /**
+     * Check that the task is cancelled.
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+      return this.cancelled;
+    }
+
+    /**
+     * Check that the task thread is alive.
+     *
+     * @return true if the task is executed
+     */
+    public boolean isAlive() {
+      return this.thread.isAlive();
+    }
+
+    /**
+     * Check that the task is executed by the current thread.
+     *
+     * @return true if called from the task
+     */
+    public boolean isCurrentThread() {
+      return Thread.currentThread() == this.thread;
+    }
+
+    /**
+     * Cancel the task.
+     *
+     * @param mayInterruptIfRunning true if the task thread should be interrupted
+     */
+    public void cancel(final boolean mayInterruptIfRunning) {
+      this.cancelled = true;
+      if (mayInterruptIfRunning) {
+        this.thread.interrupt();
+      }
+    }
+
+    /**
+     * Wait termination of the task.
+     *
+     * @throws InterruptedException if interrupted during wait
+     */
+    public void join() throws InterruptedException {
+      if (!this.isCurrentThread()) {
+        this.thread.join();
+      }
+    }
+
+    /**
+     * Wait termination of the task limited by timeout.
+     *
+     * @param timeoutMillis max time to wait in milliseconds
+     * @return true if the task is terminated
+     * @throws InterruptedException if interrupted during wait
+     */
+    public boolean join(final long timeoutMillis) throws InterruptedException {
+      if (this.isCurrentThread()) {
+        return false;
+      }
+      this.thread.join(Math.max(1L, timeoutMillis));
+      return !this.thread.isAlive();
+    }
+  }
+}
@@ -0,0 +1,445 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * Declarative description of amplitude modulated minute time code. A protocol declares how symbol
+ * of second is read from minute record, positions of marker seconds, pulse width of each symbol
+ * and polarity of the pulse. The descriptor is compiled into table of segments for each symbol
+ * once for sample rate and amplitude deviation, so all protocols are played by the same segment
+ * player and a new protocol needs only its description. The same description is used by
+ * {@link TimeSignalDecoder} to recognize symbols by pulse width and find start of minute.
+ *
+ * @author Igor Maznitsa
+ */
+public final class TimeCodeDescriptor {
+
+  /**
+   * Reader of second symbols from bit string of record, one bit per second.
+   */
+  public static final SymbolReader BIT_PER_SECOND =
+      (record, second) -> (int) ((record.getBitString(false) >>> second) & 1L);
+
+  private final String protocolId;
+  private final Polarity polarity;
+  private final SymbolReader symbolReader;
+  private final long markerMask;
+  private final int markerSymbol;
+  private final int[] pulseWidths;
+  private final SymbolShaper[] shapers;
+  private final int[] syncSymbols;
+  private final RecordDecoder recordDecoder;
+  private volatile CompiledTable compiledTable;
+
+  private TimeCodeDescriptor(final Builder builder) {
+    this.protocolId = builder.protocolId;
+    this.polarity = builder.polarity;
+    this.symbolReader = builder.symbolReader;
+    this.markerMask = builder.markerMask;
+    this.markerSymbol = builder.markerSymbol;
+    this.pulseWidths = builder.pulseWidths.clone();
+    this.shapers = builder.shapers.clone();
+    this.syncSymbols = builder.syncSymbols.clone();
+    this.recordDecoder = builder.recordDecoder;
+    for (int i = 0; i < 60; i++) {
+      if (this.isMarker(i)) {
+        this.syncSymbols[i] = this.markerSymbol;
+      }
+    }
+  }
+
+  /**
+   * Create builder of descriptor.
+   *
+   * @param protocolId identifier of protocol, must not be null
+   * @return new builder, must not be null
+   */
+  public static Builder builder(final String protocolId) {
+    return new Builder(protocolId);
+  }
+
+  /**
+   * Calculate number of samples of pulse. The sample at the pulse end is included into pulse, zero
+   * width means no pulse at all.
+   *
+   * @param widthMillis pulse width in milliseconds
+   * @param sampleRate  sample rate in Hz
+   * @return number of pulse samples
+   */
+  static int toPulseSamples(final int widthMillis, final int sampleRate) {
+    return widthMillis == 0 ? 0 : (int) ((long) sampleRate * widthMillis / 1000L) + 1;
+  }
+
+  /**
+   * Make bit string from symbols of seconds, it is inverse operation for {@link #BIT_PER_SECOND},
+   * bit of second is set only for symbol 1.
+   *
+   * @param symbols symbols of seconds 0..59, must not be null
+   * @return bit string where the lowest bit is the second 0
+   */
+  public static long toBitString(final int[] symbols) {
+    long result = 0L;
+    for (int i = Math.min(60, symbols.length) - 1; i >= 0; i--) {
+      result = (result << 1) | (symbols[i] == 1 ? 1L : 0L);
+    }
+    return result;
+  }
+
+  public String getProtocolId() {
+    return this.protocolId;
+  }
+
+  public Polarity getPolarity() {
+    return this.polarity;
+  }
+
+  /**
+   * Check that second is marker.
+   *
+   * @param second index of second inside minute, 0..59
+   * @return true if the second is marker
+   */
+  public boolean isMarker(final int second) {
+    return ((this.markerMask >>> second) & 1L) != 0L;
+  }
+
+  public int getMarkerSymbol() {
+    return this.markerSymbol;
+  }
+
+  /**
+   * Get number of declared symbols, symbols are indexes from zero.
+   *
+   * @return number of symbols
+   */
+  public int getSymbolCount() {
+    return this.shapers.length;
+  }
+
+  /**
+   * Get pulse width of symbol.
+   *
+   * @param symbol symbol
+   * @return pulse width in milliseconds or -1 if the symbol is not declared as pulse
+   */
+  public int getPulseWidth(final int symbol) {
+    return symbol < 0 || symbol >= this.pulseWidths.length ? -1 : this.pulseWidths[symbol];
+  }
+
+  /**
+   * Get symbol which is transmitted in second by any valid record, markers included.
+   *
+   * @param second index of second inside minute, 0..59
+   * @return symbol or -1 if the second can have different symbols
+   */
+  public int getSyncSymbol(final int second) {
+    return this.syncSymbols[second];
+  }
+
+  /**
+   * Make minute record from received symbols.
+   *
+   * @param symbols symbols of seconds 0..59, -1 for not recognized second, must not be null
+   * @return made record or null if protocol doesn't declare record decoder
+   */
+  public MinuteBasedTimeSignalBits decodeRecord(final int[] symbols) {
+    return this.recordDecoder == null ? null : this.recordDecoder.decodeRecord(symbols);
+  }
+
+  /**
+   * Find symbol transmitted in second of minute record.
+   *
+   * @param record minute record, must not be null
+   * @param second index of second inside minute, 0..59
+   * @return symbol of second
+   */
+  public int findSymbol(final MinuteBasedTimeSignalBits record, final int second) {
+    return this.isMarker(second) ? this.markerSymbol
+        : this.symbolReader.readSymbol(record, second);
+  }
+
+  /**
+   * Append segments of symbol to segment list, segments are taken from table compiled for the
+   * sample rate and the amplitude deviation.
+   *
+   * @param symbol             symbol of second
+   * @param sampleRate         sample rate in Hz
+   * @param amplitudeDeviation AM amplitude deviation
+   * @param segments           target segment list, must not be null
+   * @return the target segment list
+   */
+  public SignalSegments appendSymbolSegments(
+      final int symbol,
+      final int sampleRate,
+      final double amplitudeDeviation,
+      final SignalSegments segments) {
+    CompiledTable table = this.compiledTable;
+    if (table == null || table.sampleRate != sampleRate
+        || Double.compare(table.amplitudeDeviation, amplitudeDeviation) != 0) {
+      table = this.compile(sampleRate, amplitudeDeviation);
+      this.compiledTable = table;
+    }
+    if (symbol < 0 || symbol >= table.symbols.length || table.symbols[symbol] == null) {
+      throw new IllegalArgumentException(
+          "Unexpected symbol " + symbol + " for " + this.protocolId);
+    }
+    return segments.append(table.symbols[symbol]);
+  }
+
+  private CompiledTable compile(final int sampleRate, final double amplitudeDeviation) {
+    if (sampleRate <= 0) {
+      throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+    }
+    final int reducedGain = Oscillator.toGain(1.0d - amplitudeDeviation);
+    final SignalSegments[] symbols = new SignalSegments[this.shapers.length];
+    for (int i = 0; i < symbols.length; i++) {
+      final SignalSegments segments = new SignalSegments();
+      if (this.shapers[i] != null) {
+        this.shapers[i].makeSegments(sampleRate, amplitudeDeviation, segments);
+      } else if (this.pulseWidths[i] >= 0) {
+        final int pulseSamples = toPulseSamples(this.pulseWidths[i], sampleRate);
+        if (this.polarity == Polarity.LOW_FIRST) {
+          segments.append(pulseSamples, reducedGain)
+              .append(sampleRate - pulseSamples, Oscillator.GAIN_ONE);
+        } else {
+          segments.append(pulseSamples, Oscillator.GAIN_ONE)
+              .append(sampleRate - pulseSamples, reducedGain);
+        }
+      }
+      if (segments.size() > 0) {
+        if (segments.getTotalSamples() != sampleRate) {
+          throw new IllegalStateException(
+              "Symbol " + i + " of " + this.protocolId + " is not one second long");
+        }
+        symbols[i] = segments;
+      }
+    }
+    return new CompiledTable(sampleRate, amplitudeDeviation, symbols);
+  }
+
+  /**
+   * Polarity of second pulse.
+   */
+  public enum Polarity {
+    /**
+     * Second starts with reduced carrier, pulse width encodes symbol (DCF77, WWVB, BPC).
+     */
+    LOW_FIRST,
+    /**
+     * Second starts with full carrier, pulse width encodes symbol (JJY).
+     */
+    HIGH_FIRST
+  }
+
+  /**
+   * Reader of symbol for second which is not marker.
+   */
+  @FunctionalInterface
+  public interface SymbolReader {
+    /**
+     * Read symbol of second.
+     *
+     * @param record minute record, must not be null
+     * @param second index of second inside minute, 0..59
+     * @return symbol of second
+     */
+    int readSymbol(MinuteBasedTimeSignalBits record, int second);
+  }
+
+  /**
+   * Maker of minute record from received symbols, inverse operation for {@link SymbolReader}.
+   */
+  @FunctionalInterface
+  public interface RecordDecoder {
+    /**
+     * Make record.
+     *
+     * @param symbols symbols of seconds 0..59, -1 for not recognized second, must not be null
+     * @return made record, must not be null
+     */
+    MinuteBasedTimeSignalBits decodeRecord(int[] symbols);
+  }
+
+  /**
+   * Maker of one second segments for symbol which can't be described by single pulse.
+   */
+  @FunctionalInterface
+  public interface SymbolShaper {
+    /**
+     * Append segments of one second.
+     *
+     * @param sampleRate         sample rate in Hz
+     * @param amplitudeDeviation AM amplitude deviation
+     * @param segments           target segment list, must not be null
+     */
+    void makeSegments(int sampleRate, double amplitudeDeviation, SignalSegments segments);
+  }
+
+  private static final class CompiledTable {
+    private final int sampleRate;
+    private final double amplitudeDeviation;
+    private final SignalSegments[] symbols;
+
+    private CompiledTable(final int sampleRate, final double amplitudeDeviation,
+                          final SignalSegments[] symbols) {
+      this.sampleRate = sampleRate;
+      this.amplitudeDeviation = amplitudeDeviation;
+      this.symbols = symbols;
+    }
+  }
+
+  /**
+   * Builder of descriptor.
+   */
+  public static final class Builder {
+    private final String protocolId;
+    private Polarity polarity = Polarity.LOW_FIRST;
+    private SymbolReader symbolReader = BIT_PER_SECOND;
+    private long markerMask;
+    private int markerSymbol = -1;
+    private int[] pulseWidths = new int[0];
+    private SymbolShaper[] shapers = new SymbolShaper[0];
+    private final int[] syncSymbols = new int[60];
+    private RecordDecoder recordDecoder;
+
+    private Builder(final String protocolId) {
+      this.protocolId = requireNonNull(protocolId);
+      Arrays.fill(this.syncSymbols, -1);
+    }
+
+    /**
+     * Set polarity of pulses, default is {@link Polarity#LOW_FIRST}.
+     *
+     * @param polarity polarity, must not be null
+     * @return this builder
+     */
+    public Builder polarity(final Polarity polarity) {
+      this.polarity = requireNonNull(polarity);
+      return this;
+    }
+
+    /**
+     * Set reader of second symbols, default is {@link #BIT_PER_SECOND}.
+     *
+     * @param symbolReader reader of symbols, must not be null
+     * @return this builder
+     */
+    public Builder symbolReader(final SymbolReader symbolReader) {
+      this.symbolReader = requireNonNull(symbolReader);
+      return this;
+    }
+
+    /**
+     * Declare marker seconds, their symbol doesn't depend on the record.
+     *
+     * @param symbol  symbol of marker seconds
+     * @param seconds indexes of marker seconds, 0..59
+     * @return this builder
+     */
+    public Builder markers(final int symbol, final int... seconds) {
+      this.markerSymbol = symbol;
+      for (final int second : seconds) {
+        if (second < 0 || second >= 60) {
+          throw new IllegalArgumentException("Unexpected second: " + second);
+        }
+        this.markerMask |= 1L << second;
+      }
+      return this;
+    }
+
+    /**
+     * Declare seconds which have the same symbol in any valid record. They are not used by
+     * rendering but help decoder to find start of minute if markers are not enough.
+     *
+     * @param symbol  symbol of seconds, must not be negative
+     * @param seconds indexes of seconds, 0..59
+     * @return this builder
+     */
+    public Builder syncSymbol(final int symbol, final int... seconds) {
+      if (symbol < 0) {
+        throw new IllegalArgumentException("Symbol must not be negative: " + symbol);
+      }
+      for (final int second : seconds) {
+        if (second < 0 || second >= 60) {
+          throw new IllegalArgumentException("Unexpected second: " + second);
+        }
+        this.syncSymbols[second] = symbol;
+      }
+      return this;
+    }
+
+    /**
+     * Set maker of records from received symbols, it is used by decoder.
+     *
+     * @param recordDecoder maker of records, must not be null
+     * @return this builder
+     */
+    public Builder recordDecoder(final RecordDecoder recordDecoder) {
+      this.recordDecoder = requireNonNull(recordDecoder);
+      return this;
+    }
+
+    /**
+     * Declare symbol encoded by pulse width. Direction of the pulse is defined by polarity of
+     * descriptor.
+     *
+     * @param symbol      symbol, must not be negative
+     * @param widthMillis pulse width in milliseconds, 0 means no pulse
+     * @return this builder
+     */
+    public Builder pulse(final int symbol, final int widthMillis) {
+      if (widthMillis < 0 || widthMillis >= 1000) {
+        throw new IllegalArgumentException("Unexpected pulse width: " + widthMillis);
+      }
+      this.ensureSymbol(symbol);
+      this.pulseWidths[symbol] = widthMillis;
+      this.shapers[symbol] = null;
+      return this;
+    }
+
+    /**
+     * Declare symbol with custom segments.
+     *
+     * @param symbol symbol, must not be negative
+     * @param shaper maker of one second segments, must not be null
+     * @return this builder
+     */
+    public Builder shaper(final int symbol, final SymbolShaper shaper) {
+      requireNonNull(shaper);
+      this.ensureSymbol(symbol);
+      this.pulseWidths[symbol] = -1;
+      this.shapers[symbol] = shaper;
+      return this;
+    }
+
+    private void ensureSymbol(final int symbol) {
+      if (symbol < 0) {
+        throw new IllegalArgumentException("Symbol must not be negative: " + symbol);
+      }
+      if (symbol >= this.shapers.length) {
+        final int oldLength = this.shapers.length;
+        this.shapers = Arrays.copyOf(this.shapers, symbol + 1);
+        this.pulseWidths = Arrays.copyOf(this.pulseWidths, symbol + 1);
+        Arrays.fill(this.pulseWidths, oldLength, symbol + 1, -1);
+      }
+    }
+
+    /**
+     * Build descriptor.
+     *
+     * @return new descriptor, must not be null
+     * @throws IllegalStateException if markers are declared but their symbol is not
+     */
+    public TimeCodeDescriptor build() {
+      if (this.markerMask != 0L && (this.markerSymbol < 0
+          || this.markerSymbol >= this.shapers.length
+          || (this.shapers[this.markerSymbol] == null
+          && this.pulseWidths[this.markerSymbol] < 0))) {
+        throw new IllegalStateException("Marker symbol is not declared: " + this.markerSymbol);
+      }
+      return new TimeCodeDescriptor(this);
+    }
+  }
+}
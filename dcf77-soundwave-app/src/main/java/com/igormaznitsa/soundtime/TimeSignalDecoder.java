@@ -0,0 +1,714 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * Streaming decoder of amplitude modulated time signal described by {@link TimeCodeDescriptor}.
+ * It takes 16 bit signed little endian mono PCM, the same as rendered by
+ * {@link MinuteBasedTimeSignalWavRenderer}, and rebuilds symbols of seconds and minute records.
+ * <ul>
+ *   <li>AM envelope is demodulated by quadrature mixing with the carrier and a sliding window
+ *   which covers whole number of carrier periods, the window is summed from short blocks. Inside
+ *   block the carrier is taken from table and block sums are rotated to carrier phase of block
+ *   start, so per sample work is two independent multiply-add operations.</li>
+ *   <li>Levels of full and reduced carrier are taken only from settled parts of envelope and used
+ *   to detect edges. Edges are searched in envelope delayed by settle time, so moment of edge is
+ *   found as crossing of the middle between settled levels just before and just after the edge,
+ *   even if the edge is the first one or steps to unusual level. Precision is about one sample,
+ *   it is limited by ripple of double carrier frequency inside the edge slope.</li>
+ *   <li>Seconds are framed by start edges which must come in gate around expected time, symbol is
+ *   the nearest declared pulse width. Missing start edge means symbol with zero pulse width.</li>
+ *   <li>Start of minute is found by markers and sync symbols of descriptor.</li>
+ * </ul>
+ * The decoder is not thread safe.
+ *
+ * @author Igor Maznitsa
+ */
+public final class TimeSignalDecoder {
+
+  /**
+   * Number of blocks in the envelope window.
+   */
+  private static final int WINDOW_BLOCKS = 8;
+  /**
+   * Envelope is settled if it didn't change for the window, so edge is analyzed after two
+   * windows: one for the edge slope and one for the check of settled level.
+   */
+  private static final int DELAY_BLOCKS = 2 * WINDOW_BLOCKS + 1;
+  /**
+   * Ring of envelope covers delay and search of edge slope around analyzed block, power of two.
+   */
+  private static final int ENVELOPE_MASK = 63;
+  private static final double TARGET_WINDOW_SECONDS = 0.002d;
+  private static final double SETTLE_TOLERANCE = 0.02d;
+  private static final double MIN_MODULATION_DEPTH = 0.1d;
+  private static final double MIN_CARRIER_LEVEL = 1.0e-4d;
+  private static final double LEVEL_ALPHA = 1.0d / 256.0d;
+  private static final int GATE_MILLIS = 30;
+  private static final int WIDTH_TOLERANCE_MILLIS = 30;
+  /**
+   * Lock is kept during long sequence of seconds without start edge, for instance JJY call sign.
+   */
+  private static final int MAX_MISSED_STARTS = 10;
+  private static final long ALL_OFFSETS = (1L << 60) - 1L;
+
+  private final TimeCodeDescriptor descriptor;
+  private final int sampleRate;
+  private final Listener listener;
+  private final boolean startEdgeRising;
+  private final int zeroWidthSymbol;
+  private final int[] pulseSamples;
+  private final double gateSamples;
+  private final double widthToleranceSamples;
+
+  private final int blockSamples;
+  private final int windowSamples;
+  private final double envelopeScale;
+  private final double[] blockCarrierCos;
+  private final double[] blockCarrierSin;
+  private final double blockStepCos;
+  private final double blockStepSin;
+  private final double[] windowI = new double[WINDOW_BLOCKS];
+  private final double[] windowQ = new double[WINDOW_BLOCKS];
+  private final double[] envelope = new double[ENVELOPE_MASK + 1];
+  private final int[] history = new int[60];
+
+  private double carrierCos = 1.0d;
+  private double carrierSin;
+  private double blockI;
+  private double blockQ;
+  private int blockFill;
+  private long blocks;
+  private int pendingByte = -1;
+
+  private double highLevel = Double.NaN;
+  private double lowLevel = Double.NaN;
+  private boolean modulated;
+  private boolean stateKnown;
+  private boolean stateHigh;
+
+  private boolean locked;
+  private double anchor;
+  private long openIndex;
+  private double openStart;
+  private boolean openDetected;
+  private double openEnd;
+  private int openEdges;
+  private int missedStarts;
+
+  private long sequence;
+  private long historyStart;
+  private long offsets = ALL_OFFSETS;
+
+  private long decodedSeconds;
+  private long unknownSeconds;
+  private long decodedMinutes;
+  private final TimingStatistics startJitter = new TimingStatistics();
+  private final TimingStatistics widthJitter = new TimingStatistics();
+
+  /**
+   * Constructor.
+   *
+   * @param descriptor  descriptor of time signal, must not be null
+   * @param carrierFreq carrier frequency in Hz
+   * @param sampleRate  sample rate in Hz
+   * @param listener    listener of decoded seconds and minutes, must not be null
+   */
+  public TimeSignalDecoder(
+      final TimeCodeDescriptor descriptor,
+      final double carrierFreq,
+      final int sampleRate,
+      final Listener listener) {
+    this.descriptor = requireNonNull(descriptor);
+    this.listener = requireNonNull(listener);
+    if (sampleRate <= 0) {
+      throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+    }
+    if (carrierFreq <= 0.0d || carrierFreq * 2.0d > sampleRate) {
+      throw new IllegalArgumentException("Carrier must be 0.." + sampleRate / 2 + " Hz");
+    }
+    this.sampleRate = sampleRate;
+    this.startEdgeRising = descriptor.getPolarity() == TimeCodeDescriptor.Polarity.HIGH_FIRST;
+    this.gateSamples = (double) sampleRate * GATE_MILLIS / 1000.0d;
+    this.widthToleranceSamples = (double) sampleRate * WIDTH_TOLERANCE_MILLIS / 1000.0d;
+
+    this.pulseSamples = new int[descriptor.getSymbolCount()];
+    int zeroWidth = -1;
+    for (int i = 0; i < this.pulseSamples.length; i++) {
+      final int width = descriptor.getPulseWidth(i);
+      this.pulseSamples[i] = width < 0 ? -1 : TimeCodeDescriptor.toPulseSamples(width, sampleRate);
+      if (width == 0 && zeroWidth < 0) {
+        zeroWidth = i;
+      }
+    }
+    this.zeroWidthSymbol = zeroWidth;
+
+    this.blockSamples = findBlockSamples(carrierFreq, sampleRate);
+    this.windowSamples = this.blockSamples * WINDOW_BLOCKS;
+    this.envelopeScale = 2.0d / (this.windowSamples * 32768.0d);
+    final double step = 2.0d * Math.PI * carrierFreq / sampleRate;
+    this.blockCarrierCos = new double[this.blockSamples];
+    this.blockCarrierSin = new double[this.blockSamples];
+    for (int i = 0; i < this.blockSamples; i++) {
+      this.blockCarrierCos[i] = Math.cos(step * i);
+      this.blockCarrierSin[i] = Math.sin(step * i);
+    }
+    this.blockStepCos = Math.cos(step * this.blockSamples);
+    this.blockStepSin = Math.sin(step * this.blockSamples);
+    Arrays.fill(this.history, -1);
+  }
+
+  /**
+   * Find block length so that the window is near target duration and contains the nearest to
+   * whole number of carrier periods, it removes ripple of double carrier frequency.
+   */
+  private static int findBlockSamples(final double carrierFreq, final int sampleRate) {
+    final double periods = carrierFreq / sampleRate;
+    final int target = Math.max(1,
+        (int) Math.round(sampleRate * TARGET_WINDOW_SECONDS / WINDOW_BLOCKS));
+    int best = target;
+    double bestError = Double.MAX_VALUE;
+    for (int block = Math.max(1, target / 2); block <= target * 2; block++) {
+      final double windowPeriods = block * WINDOW_BLOCKS * periods;
+      final double error = Math.abs(windowPeriods - Math.rint(windowPeriods));
+      if (error < bestError - 1.0e-9d) {
+        bestError = error;
+        best = block;
+      }
+    }
+    return best;
+  }
+
+  public TimeCodeDescriptor getDescriptor() {
+    return this.descriptor;
+  }
+
+  public int getSampleRate() {
+    return this.sampleRate;
+  }
+
+  /**
+   * Process PCM data, a sample can be split between calls.
+   *
+   * @param data   PCM data, 16 bit signed little endian mono, must not be null
+   * @param offset offset in data
+   * @param length number of bytes
+   */
+  public void process(final byte[] data, final int offset, final int length) {
+    int index = offset;
+    final int end = offset + length;
+    if (this.pendingByte >= 0 && index < end) {
+      this.processSample((short) (this.pendingByte | (data[index++] << 8)));
+      this.pendingByte = -1;
+    }
+
+    final double[] carrierCos = this.blockCarrierCos;
+    final double[] carrierSin = this.blockCarrierSin;
+    double sumI = this.blockI;
+    double sumQ = this.blockQ;
+    int fill = this.blockFill;
+
+    while (index + 1 < end) {
+      final int blockEnd = Math.min(index + (carrierCos.length - fill) * 2, end - 1);
+      for (; index < blockEnd; index += 2, fill++) {
+        final double sample = (short) ((data[index] & 0xFF) | (data[index + 1] << 8));
+        sumI += sample * carrierCos[fill];
+        sumQ += sample * carrierSin[fill];
+      }
+      if (fill == carrierCos.length) {
+        this.completeBlock(sumI, sumQ);
+        sumI = 0.0d;
+        sumQ = 0.0d;
+        fill = 0;
+      }
+    }
+
+    this.blockI = sumI;
+    this.blockQ = sumQ;
+    this.blockFill = fill;
+
+    if (index < end) {
+      this.pendingByte = data[index] & 0xFF;
+    }
+  }
+
+  private void processSample(final short sample) {
+    this.blockI += sample * this.blockCarrierCos[this.blockFill];
+    this.blockQ += sample * this.blockCarrierSin[this.blockFill];
+    if (++this.blockFill == this.blockSamples) {
+      this.completeBlock(this.blockI, this.blockQ);
+      this.blockI = 0.0d;
+      this.blockQ = 0.0d;
+      this.blockFill = 0;
+    }
+  }
+
+  /**
+   * Finish decoding at end of stream. Edges in delayed envelope are processed and the last second
+   * is closed if the stream covers it, after that framing starts from scratch.
+   */
+  public void flush() {
+    final long computed = this.blocks - WINDOW_BLOCKS + 1;
+    for (int delay = DELAY_BLOCKS - 1; delay >= 0; delay--) {
+      if (computed - delay - 1 > 0) {
+        this.analyzeBlock(this.blocks - delay);
+      }
+    }
+    final double streamEnd = (double) this.blocks * this.blockSamples;
+    if (this.locked && streamEnd >= this.openStart + this.sampleRate - this.gateSamples) {
+      this.closeSecond();
+    }
+    this.unlock();
+  }
+
+  /**
+   * Start decoding from scratch because next data is not continuation of processed one, for
+   * instance after lost samples. Counters and timing statistics are kept.
+   */
+  public void reset() {
+    this.unlock();
+    this.carrierCos = 1.0d;
+    this.carrierSin = 0.0d;
+    this.blockI = 0.0d;
+    this.blockQ = 0.0d;
+    this.blockFill = 0;
+    this.blocks = 0L;
+    this.pendingByte = -1;
+    this.highLevel = Double.NaN;
+    this.lowLevel = Double.NaN;
+    this.modulated = false;
+    this.stateKnown = false;
+  }
+
+  private double envelopeAt(final long block) {
+    return this.envelope[(int) block & ENVELOPE_MASK];
+  }
+
+  private void completeBlock(final double sumI, final double sumQ) {
+    // rotate sums to carrier phase of block start
+    final double c = this.carrierCos;
+    final double s = this.carrierSin;
+    final int slot = (int) this.blocks & (WINDOW_BLOCKS - 1);
+    this.windowI[slot] = sumI * c - sumQ * s;
+    this.windowQ[slot] = sumQ * c + sumI * s;
+    this.blocks++;
+
+    final double nextCos = c * this.blockStepCos - s * this.blockStepSin;
+    final double nextSin = s * this.blockStepCos + c * this.blockStepSin;
+    // keep unit length of carrier phasor against rounding drift
+    final double norm = (3.0d - (nextCos * nextCos + nextSin * nextSin)) * 0.5d;
+    this.carrierCos = nextCos * norm;
+    this.carrierSin = nextSin * norm;
+
+    // number of blocks with full window
+    final long computed = this.blocks - WINDOW_BLOCKS + 1;
+    if (computed <= 0) {
+      return;
+    }
+    double i = 0.0d;
+    double q = 0.0d;
+    for (int k = 0; k < WINDOW_BLOCKS; k++) {
+      i += this.windowI[k];
+      q += this.windowQ[k];
+    }
+    final double level = Math.sqrt(i * i + q * q) * this.envelopeScale;
+    this.envelope[(int) this.blocks & ENVELOPE_MASK] = level;
+
+    if (computed > WINDOW_BLOCKS) {
+      final double previous = this.envelopeAt(this.blocks - WINDOW_BLOCKS);
+      if (Math.abs(level - previous) <= SETTLE_TOLERANCE * Math.max(level, previous)) {
+        this.updateLevels(level);
+      }
+    }
+    if (computed > DELAY_BLOCKS + 1) {
+      this.analyzeBlock(this.blocks - DELAY_BLOCKS);
+    }
+  }
+
+  private void updateLevels(final double level) {
+    if (Double.isNaN(this.highLevel)) {
+      this.highLevel = level;
+      this.lowLevel = level;
+    } else if (!this.modulated) {
+      this.highLevel = Math.max(this.highLevel, level);
+      this.lowLevel = Math.min(this.lowLevel, level);
+    } else if (level > (this.highLevel + this.lowLevel) * 0.5d) {
+      this.highLevel += (level - this.highLevel) * LEVEL_ALPHA;
+    } else {
+      this.lowLevel += (level - this.lowLevel) * LEVEL_ALPHA;
+    }
+    final boolean nowModulated = this.highLevel > MIN_CARRIER_LEVEL
+        && this.highLevel - this.lowLevel >= MIN_MODULATION_DEPTH * this.highLevel;
+    if (nowModulated != this.modulated) {
+      this.modulated = nowModulated;
+      this.stateKnown = false;
+    }
+  }
+
+  private void analyzeBlock(final long block) {
+    // sample index of the last sample in window of the block
+    final double blockEnd = (double) block * this.blockSamples - 1.0d;
+
+    if (this.locked) {
+      final double next = this.expectedStart(this.openIndex + 1);
+      // edges are found not later than window after their moment
+      if (blockEnd - this.windowSamples > next + this.gateSamples) {
+        this.closeSecond();
+        this.openSecond(this.openIndex + 1, this.expectedStart(this.openIndex + 1), false);
+        if (++this.missedStarts > MAX_MISSED_STARTS) {
+          this.unlock();
+        }
+      }
+    }
+
+    if (!this.modulated) {
+      return;
+    }
+    final double current = this.envelopeAt(block);
+    final double mid = (this.highLevel + this.lowLevel) * 0.5d;
+    if (!this.stateKnown) {
+      this.stateKnown = true;
+      this.stateHigh = current >= mid;
+      return;
+    }
+    final double hysteresis = (this.highLevel - this.lowLevel) * 0.125d;
+    if (this.stateHigh) {
+      if (current < mid - hysteresis) {
+        this.stateHigh = false;
+        this.onEdge(false, this.findEdgeTime(block));
+      }
+    } else if (current > mid + hysteresis) {
+      this.stateHigh = true;
+      this.onEdge(true, this.findEdgeTime(block));
+    }
+  }
+
+  /**
+   * Find sample where level changed. Window makes linear slope of envelope which crosses the
+   * middle between levels around the slope when half of window is filled by new level.
+   *
+   * @param block block where edge is detected, the slope is not longer than window before it
+   * @return sample index of edge with fraction
+   */
+  private double findEdgeTime(final long block) {
+    // the first block with full window is WINDOW_BLOCKS
+    final long first = Math.max(block - WINDOW_BLOCKS - 1, WINDOW_BLOCKS);
+    final long last = Math.min(block + WINDOW_BLOCKS + 1, this.blocks);
+    final double before = this.envelopeAt(first);
+    final double mid = (before + this.envelopeAt(last)) * 0.5d;
+    for (long i = first + 1; i <= last; i++) {
+      final double previous = this.envelopeAt(i - 1);
+      final double current = this.envelopeAt(i);
+      if (current != previous && (previous - mid) * (current - mid) <= 0.0d
+          && (current - mid) * (mid - before) >= 0.0d) {
+        final double crossingEnd = (double) i * this.blockSamples - 1.0d - this.blockSamples
+            + this.blockSamples * (mid - previous) / (current - previous);
+        return crossingEnd + 1.0d - this.windowSamples * 0.5d;
+      }
+    }
+    return (double) block * this.blockSamples - this.windowSamples * 0.5d;
+  }
+
+  private double expectedStart(final long index) {
+    return this.anchor + (double) index * this.sampleRate;
+  }
+
+  private void onEdge(final boolean rising, final double time) {
+    final boolean startEdge = rising == this.startEdgeRising;
+    if (!this.locked) {
+      if (startEdge) {
+        this.locked = true;
+        this.anchor = time;
+        this.historyStart = this.sequence;
+        this.openSecond(0L, time, true);
+      }
+      return;
+    }
+    if (startEdge && Math.abs(time - this.expectedStart(this.openIndex + 1)) <= this.gateSamples) {
+      this.closeSecond();
+      this.openSecond(this.openIndex + 1, time, true);
+    } else if (time > this.openStart) {
+      this.openEdges++;
+      if (!startEdge && this.openDetected && Double.isNaN(this.openEnd)) {
+        this.openEnd = time;
+      }
+    }
+  }
+
+  private void openSecond(final long index, final double start, final boolean detected) {
+    this.openIndex = index;
+    this.openStart = start;
+    this.openDetected = detected;
+    this.openEnd = Double.NaN;
+    this.openEdges = 0;
+    if (detected) {
+      this.missedStarts = 0;
+    }
+  }
+
+  private void unlock() {
+    this.locked = false;
+    this.offsets = ALL_OFFSETS;
+    this.historyStart = this.sequence;
+  }
+
+  private int classify(final double width) {
+    int found = -1;
+    double foundError = this.widthToleranceSamples;
+    for (int i = 0; i < this.pulseSamples.length; i++) {
+      if (this.pulseSamples[i] > 0) {
+        final double error = Math.abs(width - this.pulseSamples[i]);
+        if (error <= foundError) {
+          found = i;
+          foundError = error;
+        }
+      }
+    }
+    return found;
+  }
+
+  private void closeSecond() {
+    final int symbol;
+    double width = Double.NaN;
+    if (!this.openDetected) {
+      symbol = this.openEdges == 0 ? this.zeroWidthSymbol : -1;
+    } else if (this.openEdges != 1 || Double.isNaN(this.openEnd)) {
+      symbol = -1;
+    } else {
+      width = this.openEnd - this.openStart;
+      symbol = this.classify(width);
+    }
+
+    final double microsPerSample = 1.0e6d / this.sampleRate;
+    final double startDeviation = this.openDetected && symbol >= 0
+        ? (this.openStart - this.expectedStart(this.openIndex)) * microsPerSample : Double.NaN;
+    final double widthDeviation = symbol >= 0 && !Double.isNaN(width)
+        ? (width - this.pulseSamples[symbol]) * microsPerSample : Double.NaN;
+    this.startJitter.add(startDeviation);
+    this.widthJitter.add(widthDeviation);
+    this.decodedSeconds++;
+    if (symbol < 0) {
+      this.unknownSeconds++;
+    }
+
+    final long seq = this.sequence++;
+    this.history[(int) (seq % 60L)] = symbol;
+    if (symbol >= 0) {
+      long filtered = this.filterOffsets(this.offsets, seq, symbol);
+      if (filtered == 0L) {
+        // earlier seconds contradict the current one, sync again since it
+        filtered = this.filterOffsets(ALL_OFFSETS, seq, symbol);
+        this.historyStart = seq;
+      }
+      this.offsets = filtered;
+    }
+    final int second = Long.bitCount(this.offsets) == 1
+        ? (int) ((Long.numberOfTrailingZeros(this.offsets) + seq % 60L) % 60L) : -1;
+
+    this.listener.onSecond(new DecodedSecond(second, symbol, this.openStart, this.openDetected,
+        width, startDeviation, widthDeviation));
+
+    if (second == 0 && this.openDetected) {
+      // grid is aligned to start of minute to not accumulate clock drift
+      this.anchor = this.openStart;
+      this.openIndex = 0L;
+    } else if (second == 59) {
+      final int[] symbols = new int[60];
+      for (int i = 0; i < 60; i++) {
+        final long seqOfSecond = seq - 59 + i;
+        symbols[i] = seqOfSecond >= this.historyStart && seqOfSecond >= 0
+            ? this.history[(int) (seqOfSecond % 60L)] : -1;
+      }
+      this.decodedMinutes++;
+      this.listener.onMinute(this.openStart - 59.0d * this.sampleRate, symbols,
+          this.descriptor.decodeRecord(symbols));
+    }
+  }
+
+  /**
+   * Keep offsets of minute start which are consistent with symbol. Offset means that second of
+   * sequence number N has index (offset + N) mod 60 inside minute.
+   */
+  private long filterOffsets(final long candidates, final long seq, final int symbol) {
+    long result = candidates;
+    long rest = candidates;
+    final int base = (int) (seq % 60L);
+    final int markerSymbol = this.descriptor.getMarkerSymbol();
+    while (rest != 0L) {
+      final int offset = Long.numberOfTrailingZeros(rest);
+      rest &= rest - 1L;
+      final int syncSymbol = this.descriptor.getSyncSymbol((offset + base) % 60);
+      if (syncSymbol >= 0 ? symbol != syncSymbol : symbol == markerSymbol) {
+        result &= ~(1L << offset);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Check that start of minute is found.
+   *
+   * @return true if index of second inside minute is known
+   */
+  public boolean isSynchronized() {
+    return this.locked && Long.bitCount(this.offsets) == 1;
+  }
+
+  /**
+   * Get level of full carrier.
+   *
+   * @return level relative to full scale of PCM, NaN if not detected yet
+   */
+  public double getCarrierLevel() {
+    return this.highLevel;
+  }
+
+  /**
+   * Get measured modulation depth.
+   *
+   * @return depth 0..1, it is the amplitude deviation of signal, NaN if not detected yet
+   */
+  public double getModulationDepth() {
+    return this.highLevel > MIN_CARRIER_LEVEL ? 1.0d - this.lowLevel / this.highLevel
+        : Double.NaN;
+  }
+
+  public long getDecodedSeconds() {
+    return this.decodedSeconds;
+  }
+
+  public long getUnknownSeconds() {
+    return this.unknownSeconds;
+  }
+
+  public long getDecodedMinutes() {
+    return this.decodedMinutes;
+  }
+
+  /**
+   * Get deviations of second start edges from grid of seconds locked on signal.
+   *
+   * @return statistics, must not be null
+   */
+  public TimingStatistics getStartJitter() {
+    return this.startJitter;
+  }
+
+  /**
+   * Get deviations of pulse widths from nominal widths of recognized symbols.
+   *
+   * @return statistics, must not be null
+   */
+  public TimingStatistics getWidthJitter() {
+    return this.widthJitter;
+  }
+
+  /**
+   * Listener of decoder, it is called in the thread which feeds PCM data.
+   */
+  public interface Listener {
+    /**
+     * Called for each framed second.
+     *
+     * @param second decoded second, must not be null
+     */
+    default void onSecond(DecodedSecond second) {
+    }
+
+    /**
+     * Called when the second 59 of minute is decoded.
+     *
+     * @param startSample sample index of the minute start from beginning of stream
+     * @param symbols     symbols of seconds 0..59, -1 for not recognized or not received second
+     * @param record      record made from symbols, null if protocol can't make records
+     */
+    default void onMinute(double startSample, int[] symbols, MinuteBasedTimeSignalBits record) {
+    }
+  }
+
+  /**
+   * Decoded second.
+   */
+  public static final class DecodedSecond {
+    private final int second;
+    private final int symbol;
+    private final double startSample;
+    private final boolean startDetected;
+    private final double pulseSamples;
+    private final double startDeviationMicros;
+    private final double widthDeviationMicros;
+
+    private DecodedSecond(
+        final int second,
+        final int symbol,
+        final double startSample,
+        final boolean startDetected,
+        final double pulseSamples,
+        final double startDeviationMicros,
+        final double widthDeviationMicros) {
+      this.second = second;
+      this.symbol = symbol;
+      this.startSample = startSample;
+      this.startDetected = startDetected;
+      this.pulseSamples = pulseSamples;
+      this.startDeviationMicros = startDeviationMicros;
+      this.widthDeviationMicros = widthDeviationMicros;
+    }
+
+    /**
+     * Get index of second inside minute.
+     *
+     * @return index 0..59 or -1 if start of minute is not found yet
+     */
+    public int getSecond() {
+      return this.second;
+    }
+
+    /**
+     * Get recognized symbol.
+     *
+     * @return symbol or -1 if pulse doesn't match any declared symbol
+     */
+    public int getSymbol() {
+      return this.symbol;
+    }
+
+    /**
+     * Get start of second, it is detected edge or expected moment if there was no edge.
+     *
+     * @return sample index from beginning of stream, with fraction
+     */
+    public double getStartSample() {
+      return this.startSample;
+    }
+
+    public boolean isStartDetected() {
+      return this.startDetected;
+    }
+
+    /**
+     * Get measured pulse width.
+     *
+     * @return number of samples with fraction, NaN if not measured
+     */
+    public double getPulseSamples() {
+      return this.pulseSamples;
+    }
+
+    public double getStartDeviationMicros() {
+      return this.startDeviationMicros;
+    }
+
+    public double getWidthDeviationMicros() {
+      return this.widthDeviationMicros;
+    }
+
+    @Override
+    public String toString() {
+      return "DecodedSecond(second=" + this.second + ",symbol=" + this.symbol
+          + ",start=" + this.startSample + ",pulse=" + this.pulseSamples + ')';
+    }
+  }
+}
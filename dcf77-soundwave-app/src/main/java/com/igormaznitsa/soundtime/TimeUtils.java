@@ -15,4 +15,16 @@ public final class TimeUtils {
     return time.withZoneSameInstant(zoneId);
   }
 
+  /**
+   * Get time encoded by record played since the current moment. Time signal transmits during
+   * minute the time of the next minute, so the record is made for the upcoming minute and its
+   * current second is played.
+   *
+   * @param now current time, must not be null
+   * @return time of record to be played now
+   */
+  public static ZonedDateTime upcomingMinute(final ZonedDateTime now) {
+    return now.plusMinutes(1);
+  }
+
 }
@@ -0,0 +1,75 @@
+package com.igormaznitsa.soundtime;
+
+import java.util.Locale;
+
+/**
+ * Accumulator of timing deviations of signal edges in microseconds. It is not thread safe.
+ *
+ * @author Igor Maznitsa
+ */
+public final class TimingStatistics {
+
+  private long count;
+  private double sum;
+  private double sumOfSquares;
+  private double maxAbs;
+
+  /**
+   * Add deviation, NaN is ignored.
+   *
+   * @param micros deviation in microseconds
+   */
+  public void add(final double micros) {
+    if (Double.isNaN(micros)) {
+      return;
+    }
+    this.count++;
+    this.sum += micros;
+    this.sumOfSquares += micros * micros;
+    this.maxAbs = Math.max(this.maxAbs, Math.abs(micros));
+  }
+
+  /**
+   * Add all values of another statistics.
+   *
+   * @param other another statistics, must not be null
+   */
+  public void add(final TimingStatistics other) {
+    this.count += other.count;
+    this.sum += other.sum;
+    this.sumOfSquares += other.sumOfSquares;
+    this.maxAbs = Math.max(this.maxAbs, other.maxAbs);
+  }
+
+  public long getCount() {
+    return this.count;
+  }
+
+  public double getMeanMicros() {
+    return this.count == 0L ? 0.0d : this.sum / this.count;
+  }
+
+  public double getRmsMicros() {
+    return this.count == 0L ? 0.0d : Math.sqrt(this.sumOfSquares / this.count);
+  }
+
+  public double getMaxAbsMicros() {
+    return this.maxAbs;
+  }
+
+  /**
+   * Remove all values.
+   */
+  public void reset() {
+    this.count = 0L;
+    this.sum = 0.0d;
+    this.sumOfSquares = 0.0d;
+    this.maxAbs = 0.0d;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ENGLISH, "n=%d, mean=%.1f us, rms=%.1f us, max=%.1f us",
+        this.count, this.getMeanMicros(), this.getRmsMicros(), this.getMaxAbsMicros());
+  }
+}
@@ -0,0 +1,167 @@
+package com.igormaznitsa.soundtime;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming reader of PCM WAV data, it reads RIFF and RF64 files written by
+ * {@link WavFileWriter} as well as files of other tools. Chunks before the data chunk are
+ * skipped, data is read directly from the stream, so the stream can be standard input.
+ *
+ * @author Igor Maznitsa
+ */
+public final class WavFileReader implements Closeable {
+
+  private static final int FORMAT_PCM = 1;
+  private static final long UNKNOWN_SIZE = 0xFFFFFFFFL;
+
+  private final InputStream stream;
+  private int sampleRate;
+  private int channels;
+  private int bitsPerSample;
+  private long dataBytes = -1L;
+  private long remaining;
+
+  /**
+   * Constructor, reads header till the data chunk.
+   *
+   * @param stream source stream, must not be null, will be closed with the reader
+   * @throws IOException if the stream is not PCM WAV or any transport problem
+   */
+  public WavFileReader(final InputStream stream) throws IOException {
+    this.stream = requireNonNull(stream);
+    this.readHeader();
+  }
+
+  private static int toInt(final byte[] data, final int offset) {
+    return ByteBuffer.wrap(data, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+  }
+
+  private void readFully(final byte[] buffer, final int length) throws IOException {
+    int read = 0;
+    while (read < length) {
+      final int count = this.stream.read(buffer, read, length - read);
+      if (count < 0) {
+        throw new EOFException("Unexpected end of WAV header");
+      }
+      read += count;
+    }
+  }
+
+  private void skipFully(final long length) throws IOException {
+    final byte[] buffer = new byte[1024];
+    long rest = length;
+    while (rest > 0L) {
+      final int count = this.stream.read(buffer, 0, (int) Math.min(buffer.length, rest));
+      if (count < 0) {
+        throw new EOFException("Unexpected end of WAV header");
+      }
+      rest -= count;
+    }
+  }
+
+  private void readHeader() throws IOException {
+    final byte[] chunk = new byte[12];
+    this.readFully(chunk, 12);
+    final String riff = new String(chunk, 0, 4, StandardCharsets.US_ASCII);
+    if (!("RIFF".equals(riff) || "RF64".equals(riff))
+        || !"WAVE".equals(new String(chunk, 8, 4, StandardCharsets.US_ASCII))) {
+      throw new IOException("Not WAV data");
+    }
+
+    long rf64DataSize = -1L;
+    boolean formatFound = false;
+    while (true) {
+      this.readFully(chunk, 8);
+      final String id = new String(chunk, 0, 4, StandardCharsets.US_ASCII);
+      final long size = toInt(chunk, 4) & 0xFFFFFFFFL;
+      if ("fmt ".equals(id)) {
+        final byte[] format = new byte[(int) size];
+        this.readFully(format, format.length);
+        final ByteBuffer buffer = ByteBuffer.wrap(format).order(ByteOrder.LITTLE_ENDIAN);
+        final int formatTag = buffer.getShort() & 0xFFFF;
+        this.channels = buffer.getShort() & 0xFFFF;
+        this.sampleRate = buffer.getInt();
+        buffer.getInt();
+        buffer.getShort();
+        this.bitsPerSample = buffer.getShort() & 0xFFFF;
+        if (formatTag != FORMAT_PCM) {
+          throw new IOException("Only PCM WAV is supported, format: " + formatTag);
+        }
+        formatFound = true;
+      } else if ("ds64".equals(id)) {
+        final byte[] ds64 = new byte[(int) size];
+        this.readFully(ds64, ds64.length);
+        rf64DataSize = ByteBuffer.wrap(ds64).order(ByteOrder.LITTLE_ENDIAN).getLong(8);
+      } else if ("data".equals(id)) {
+        if (!formatFound) {
+          throw new IOException("Format chunk not found before data");
+        }
+        if (size == UNKNOWN_SIZE) {
+          this.dataBytes = rf64DataSize;
+        } else {
+          this.dataBytes = size;
+        }
+        this.remaining = this.dataBytes < 0L ? Long.MAX_VALUE : this.dataBytes;
+        return;
+      } else {
+        // chunks are word aligned
+        this.skipFully(size + (size & 1L));
+      }
+    }
+  }
+
+  public int getSampleRate() {
+    return this.sampleRate;
+  }
+
+  public int getChannels() {
+    return this.channels;
+  }
+
+  public int getBitsPerSample() {
+    return this.bitsPerSample;
+  }
+
+  /**
+   * Get size of PCM data declared in header.
+   *
+   * @return number of bytes or -1 if unknown
+   */
+  public long getDataBytes() {
+    return this.dataBytes;
+  }
+
+  /**
+   * Read PCM data.
+   *
+   * @param buffer target buffer, must not be null
+   * @param offset offset in the buffer
+   * @param length max number of bytes
+   * @return number of read bytes or -1 if end of data
+   * @throws IOException if any transport problem
+   */
+  public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+    if (this.remaining <= 0L) {
+      return -1;
+    }
+    final int read =
+        this.stream.read(buffer, offset, (int) Math.min(length, this.remaining));
+    if (read > 0) {
+      this.remaining -= read;
+    }
+    return read;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.stream.close();
+  }
+}
@@ -0,0 +1,77 @@
+package com.igormaznitsa.soundtime;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Header of PCM WAV file which is written before PCM data placed by other writers. If data is too
+ * big for RIFF then the file is turned into RF64 (EBU Tech 3306), the reserved JUNK chunk becomes
+ * ds64 chunk, so there is no limit for duration.
+ *
+ * @author Igor Maznitsa
+ */
+public final class WavFileWriter {
+
+  /**
+   * Size of header written before PCM data.
+   */
+  public static final int HEADER_SIZE = 80;
+
+  private static final long MAX_RIFF_SIZE = 0xFFFFFFFFL;
+  private static final int DS64_CHUNK_SIZE = 28;
+
+  private WavFileWriter() {
+  }
+
+  /**
+   * Make WAV header for known size of PCM data. RF64 header is made automatically if data size
+   * is too big for RIFF.
+   *
+   * @param sampleRate    sample rate in Hz
+   * @param channels      number of channels
+   * @param bitsPerSample bits per sample
+   * @param dataBytes     size of PCM data in bytes
+   * @return buffer with header, its size is {@link #HEADER_SIZE}
+   */
+  public static ByteBuffer makeHeader(
+      final int sampleRate,
+      final int channels,
+      final int bitsPerSample,
+      final long dataBytes) {
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    final long riffSize = HEADER_SIZE - 8 + dataBytes;
+    final boolean rf64 = riffSize > MAX_RIFF_SIZE;
+    final int blockAlign = channels * bitsPerSample / 8;
+
+    header.put((rf64 ? "RF64" : "RIFF").getBytes(StandardCharsets.US_ASCII));
+    header.putInt((int) (rf64 ? MAX_RIFF_SIZE : riffSize));
+    header.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+
+    header.put((rf64 ? "ds64" : "JUNK").getBytes(StandardCharsets.US_ASCII));
+    header.putInt(DS64_CHUNK_SIZE);
+    if (rf64) {
+      header.putLong(riffSize);
+      header.putLong(dataBytes);
+      header.putLong(dataBytes / blockAlign);
+      header.putInt(0);
+    } else {
+      header.put(new byte[DS64_CHUNK_SIZE]);
+    }
+
+    header.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+    header.putInt(16);
+    header.putShort((short) 1);
+    header.putShort((short) channels);
+    header.putInt(sampleRate);
+    header.putInt(sampleRate * blockAlign);
+    header.putShort((short) blockAlign);
+    header.putShort((short) bitsPerSample);
+
+    header.put("data".getBytes(StandardCharsets.US_ASCII));
+    header.putInt((int) (rf64 ? MAX_RIFF_SIZE : dataBytes));
+
+    header.flip();
+    return header;
+  }
+}
@@ -0,0 +1,193 @@
+package com.igormaznitsa.soundtime;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed single cycle of a waveform, values are pre-scaled to 16 bit signed sample units.
+ * The table contains one extra guard point to make linear interpolation branch-free.
+ *
+ * @author Igor Maznitsa
+ */
+public final class WaveTable {
+
+  /**
+   * Number of points per cycle, must be power of two.
+   */
+  public static final int TABLE_SIZE = 4096;
+  static final int TABLE_MASK = TABLE_SIZE - 1;
+
+  private static final Map<Long, WaveTable> BAND_LIMITED_CACHE = new ConcurrentHashMap<>();
+
+  private static final WaveTable SINE = new WaveTable(makeSine(), true);
+  private static final WaveTable SQUARE = new WaveTable(makeSquare(), false);
+  private static final WaveTable TRIANGLE = new WaveTable(makeTriangle(), true);
+
+  private final double[] points;
+  private final boolean interpolated;
+  private final int[] samples;
+  private final int[] deltas;
+
+  private WaveTable(final double[] points, final boolean interpolated) {
+    this.points = points;
+    this.interpolated = interpolated;
+    this.samples = new int[TABLE_SIZE];
+    this.deltas = new int[TABLE_SIZE];
+    for (int i = 0; i < TABLE_SIZE; i++) {
+      this.samples[i] = toSample(points[i]);
+    }
+    if (interpolated) {
+      for (int i = 0; i < TABLE_SIZE; i++) {
+        final int delta = toSample(points[i + 1]) - this.samples[i];
+        if (Math.abs(delta) >= 1 << 15) {
+          // fixed point interpolation keeps product in 32 bits only for smooth tables
+          throw new IllegalArgumentException("Too steep table for interpolation: " + delta);
+        }
+        this.deltas[i] = delta;
+      }
+    }
+  }
+
+  private static int toSample(final double value) {
+    return (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+  }
+
+  public static WaveTable sine() {
+    return SINE;
+  }
+
+  public static WaveTable square() {
+    return SQUARE;
+  }
+
+  public static WaveTable triangle() {
+    return TRIANGLE;
+  }
+
+  /**
+   * Get band-limited square wave table which contains only odd harmonics below Nyquist frequency.
+   *
+   * @param freq       carrier frequency in Hz
+   * @param sampleRate sample rate in Hz
+   * @return table for the frequency, must not be null
+   */
+  public static WaveTable bandLimitedSquare(final double freq, final int sampleRate) {
+    final int harmonics = findHarmonicsBelowNyquist(freq, sampleRate);
+    return BAND_LIMITED_CACHE.computeIfAbsent(((long) harmonics << 1),
+        k -> new WaveTable(makeBandLimited(harmonics, false), true));
+  }
+
+  /**
+   * Get band-limited triangle wave table which contains only odd harmonics below Nyquist
+   * frequency.
+   *
+   * @param freq       carrier frequency in Hz
+   * @param sampleRate sample rate in Hz
+   * @return table for the frequency, must not be null
+   */
+  public static WaveTable bandLimitedTriangle(final double freq, final int sampleRate) {
+    final int harmonics = findHarmonicsBelowNyquist(freq, sampleRate);
+    return BAND_LIMITED_CACHE.computeIfAbsent(((long) harmonics << 1) | 1L,
+        k -> new WaveTable(makeBandLimited(harmonics, true), true));
+  }
+
+  private static int findHarmonicsBelowNyquist(final double freq, final int sampleRate) {
+    if (freq <= 0.0d) {
+      throw new IllegalArgumentException("Frequency must be positive: " + freq);
+    }
+    final double nyquist = sampleRate / 2.0d;
+    int harmonic = 1;
+    while ((harmonic + 2) * freq < nyquist) {
+      harmonic += 2;
+    }
+    return harmonic;
+  }
+
+  private static double[] makeSine() {
+    final double[] result = new double[TABLE_SIZE + 1];
+    for (int i = 0; i <= TABLE_SIZE; i++) {
+      result[i] = Math.sin(2.0d * Math.PI * i / TABLE_SIZE) * Short.MAX_VALUE;
+    }
+    return result;
+  }
+
+  private static double[] makeSquare() {
+    final double[] result = new double[TABLE_SIZE + 1];
+    for (int i = 0; i <= TABLE_SIZE; i++) {
+      result[i] = (i & TABLE_MASK) < TABLE_SIZE / 2 ? Short.MAX_VALUE : Short.MIN_VALUE;
+    }
+    return result;
+  }
+
+  private static double[] makeTriangle() {
+    final double[] result = new double[TABLE_SIZE + 1];
+    for (int i = 0; i <= TABLE_SIZE; i++) {
+      final double sine = Math.sin(2.0d * Math.PI * i / TABLE_SIZE);
+      result[i] = (2.0d / Math.PI) * Math.asin(sine) * Short.MAX_VALUE;
+    }
+    return result;
+  }
+
+  private static double[] makeBandLimited(final int maxHarmonic, final boolean triangle) {
+    final double[] result = new double[TABLE_SIZE + 1];
+    double peak = 0.0d;
+    for (int i = 0; i <= TABLE_SIZE; i++) {
+      final double x = 2.0d * Math.PI * i / TABLE_SIZE;
+      double acc = 0.0d;
+      for (int k = 1; k <= maxHarmonic; k += 2) {
+        if (triangle) {
+          final double sign = ((k >> 1) & 1) == 0 ? 1.0d : -1.0d;
+          acc += sign * Math.sin(k * x) / ((double) k * k);
+        } else {
+          acc += Math.sin(k * x) / k;
+        }
+      }
+      result[i] = acc;
+      peak = Math.max(peak, Math.abs(acc));
+    }
+    // normalize to avoid clipping because of Gibbs overshoot
+    for (int i = 0; i <= TABLE_SIZE; i++) {
+      result[i] = result[i] / peak * Short.MAX_VALUE;
+    }
+    return result;
+  }
+
+  /**
+   * Get table points rounded to 16 bit signed samples, without guard point.
+   * <b>Returned array is shared and must not be changed.</b>
+   *
+   * @return array of {@link #TABLE_SIZE} samples
+   */
+  int[] getSamples() {
+    return this.samples;
+  }
+
+  /**
+   * Get differences between neighbour 16 bit samples for linear interpolation, they are zero for
+   * tables without interpolation.
+   * <b>Returned array is shared and must not be changed.</b>
+   *
+   * @return array of {@link #TABLE_SIZE} differences
+   */
+  int[] getDeltas() {
+    return this.deltas;
+  }
+
+  /**
+   * Get value for phase.
+   *
+   * @param phase phase in cycles, must be in 0.0 (inclusive) .. 1.0 (exclusive)
+   * @return value in 16 bit signed sample units
+   */
+  public double valueAt(final double phase) {
+    final double position = phase * TABLE_SIZE;
+    final int index = ((int) position) & TABLE_MASK;
+    if (this.interpolated) {
+      final double fraction = position - (int) position;
+      final double a = this.points[index];
+      return a + (this.points[index + 1] - a) * fraction;
+    } else {
+      return this.points[index];
+    }
+  }
+}
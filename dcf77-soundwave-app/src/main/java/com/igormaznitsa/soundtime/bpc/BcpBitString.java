@@ -1,10 +1,29 @@
 package com.igormaznitsa.soundtime.bpc;
 
+import com.igormaznitsa.soundtime.BitFields;
+
 public final class BcpBitString {
 
   private final long bitString0;
   private final long bitString1;
 
+  /**
+   * Make bit string from two words of bit pairs, pair of index i contains bit i of both words.
+   *
+   * @param bitString0 lower bits of pairs
+   * @param bitString1 higher bits of pairs
+   */
+  public BcpBitString(final long bitString0, final long bitString1) {
+    this.bitString0 = bitString0;
+    this.bitString1 = bitString1;
+  }
+
+  /**
+   * Parse bit string from text where each pair is written by two chars, the higher bit first.
+   * Chars other than '0' and '1' are ignored. It is slow and intended for tests and diagnostics.
+   *
+   * @param bitString text representation, must not be null
+   */
   public BcpBitString(final String bitString) {
     long mask = 1L;
 
@@ -36,23 +55,17 @@ public final class BcpBitString {
   }
 
   public boolean isEvenDiapason(final int fromPair, final int toPairInclude) {
-    int notEven = 0;
-    for (int i = fromPair; i <= toPairInclude; i++) {
-      final int bitPair = getBitPair(i);
-      if (bitPair == 1 || bitPair == 2) {
-        notEven ^= 1;
-      }
-    }
-    return notEven != 0;
+    // pairs 01 and 10 change parity, pair 11 doesn't
+    return BitFields.parity(this.bitString0 ^ this.bitString1, fromPair, toPairInclude + 1) != 0;
   }
 
   public int readDiapason(final int fromPair, final int toPairInclusive) {
-    int accum = 0;
-    for (int i = fromPair; i <= toPairInclusive; i++) {
-      accum <<= 2;
-      accum |= this.getBitPair(i);
-    }
-    return accum;
+    final int pairs = toPairInclusive - fromPair + 1;
+    final long packed = BitFields.interleave(
+        BitFields.extract(this.bitString0, fromPair, pairs),
+        BitFields.extract(this.bitString1, fromPair, pairs));
+    // the first pair is the most significant one
+    return (int) BitFields.reversePairs(packed, pairs);
   }
 
   public int getBitPair(final int index) {
@@ -60,4 +73,29 @@ public final class BcpBitString {
         | ((int) ((this.bitString1 >>> index) & 1) << 1);
   }
 
+  public long getBitString0() {
+    return this.bitString0;
+  }
+
+  public long getBitString1() {
+    return this.bitString1;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+    final BcpBitString that = (BcpBitString) o;
+    return this.bitString0 == that.bitString0 && this.bitString1 == that.bitString1;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(this.bitString0) * 31 + Long.hashCode(this.bitString1);
+  }
+
 }
@@ -1,14 +1,15 @@
 package com.igormaznitsa.soundtime.bpc;
 
-import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRenderer;
 import com.igormaznitsa.soundtime.DstDetection;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
-import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.TimeCodeDescriptor;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 
-public class BpcMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSignalWavRenderer {
+public class BpcMinuteBasedTimeSignalSignalRenderer
+    extends AbstractMinuteBasedTimeSignalRenderer {
 
   public static final ZoneId ZONE_CHN = ZoneId.of("Asia/Shanghai");
 
@@ -17,6 +18,44 @@ public class BpcMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSi
 
   public static final double BPC_STANDARD_AMPLITUDE_DEVIATION = 0.95d;
   private static final List<Integer> ALLOWED_CARRIER_FREQ = List.of(11416, 13700, 17125);
+  /**
+   * Symbol of marker second, other seconds use value of their bit pair as symbol.
+   */
+  private static final int SYMBOL_MARKER = 4;
+
+  public BpcMinuteBasedTimeSignalSignalRenderer() {
+    super(makeDescriptor());
+  }
+
+  private static TimeCodeDescriptor makeDescriptor() {
+    return TimeCodeDescriptor.builder("BPC")
+        .polarity(TimeCodeDescriptor.Polarity.LOW_FIRST)
+        .symbolReader((record, second) -> ((BpcRecord) record).getBcpBitString()
+            .getBitPair(second))
+        .pulse(0, 100)
+        .pulse(1, 200)
+        .pulse(2, 300)
+        .pulse(3, 400)
+        .pulse(SYMBOL_MARKER, 0)
+        .markers(SYMBOL_MARKER, 19, 39, 59)
+        // two bit second counter of packet
+        .syncSymbol(0, 0)
+        .syncSymbol(1, 20)
+        .syncSymbol(2, 40)
+        .recordDecoder(BpcMinuteBasedTimeSignalSignalRenderer::decodeRecord)
+        .build();
+  }
+
+  private static BpcRecord decodeRecord(final int[] symbols) {
+    long bitString0 = 0L;
+    long bitString1 = 0L;
+    for (int i = 0; i < 60; i++) {
+      final int pair = symbols[i] >= 0 && symbols[i] < SYMBOL_MARKER ? symbols[i] : 0;
+      bitString0 |= (long) (pair & 1) << i;
+      bitString1 |= (long) (pair >> 1) << i;
+    }
+    return new BpcRecord(new BcpBitString(bitString0, bitString1));
+  }
 
   @Override
   public List<Integer> getAllowedCarrierFrequencies() {
@@ -34,72 +73,6 @@ public class BpcMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSi
     return BPC_STANDARD_AMPLITUDE_DEVIATION;
   }
 
-  @Override
-  public byte[] makeMinuteWavData(
-      final MinuteBasedTimeSignalBits minuteBitStringProvider,
-      final double freq,
-      final int sampleRate,
-      final int sampleBytes,
-      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
-      final double amplitudeDeviation) {
-
-    final int samplesMarker = -1;
-    final int samples00 = sampleRate / 10;
-    final int samples01 = sampleRate / 5;
-    final int samples10 = sampleRate * 3 / 10;
-    final int samples11 = sampleRate * 2 / 5;
-
-    final BcpBitString bcpBitString = ((BpcRecord) minuteBitStringProvider).getBcpBitString();
-
-    final int second = minuteBitStringProvider.getSecond();
-    final int totalSamples = sampleRate * (60 - second);
-    final byte[] wavBuffer = new byte[totalSamples * sampleBytes];
-
-    int sampleIndex = 0;
-    for (int i = second; i < 60; i++) {
-      final int bitPair = bcpBitString.getBitPair(i);
-
-      final int syncPrefixSamples;
-      if (i == 19 || i == 39 || i == 59) {
-        // marker
-        syncPrefixSamples = samplesMarker;
-      } else {
-        switch (bitPair) {
-          case 0:
-            syncPrefixSamples = samples00;
-            break;
-          case 1:
-            syncPrefixSamples = samples01;
-            break;
-          case 2:
-            syncPrefixSamples = samples10;
-            break;
-          case 3:
-            syncPrefixSamples = samples11;
-            break;
-          default:
-            throw new Error("Unexpected:" + bitPair);
-        }
-      }
-
-      int sampleCounter = 0;
-      while (sampleCounter < sampleRate) {
-        final double amplitude;
-        if (sampleCounter <= syncPrefixSamples) {
-          amplitude = 1.0d - amplitudeDeviation;
-        } else {
-          amplitude = 1.0d;
-        }
-        final long volume = signalShape.calculate(sampleIndex, freq, amplitude, sampleRate);
-        wavBuffer[sampleIndex++] = (byte) (volume & 0xFF);
-        wavBuffer[sampleIndex++] = (byte) ((volume >>> 8) & 0xFF);
-
-        sampleCounter++;
-      }
-    }
-    return wavBuffer;
-  }
-
   @Override
   public ZonedDateTime getZonedTimeDateNow(final DstDetection dstDetection) {
     return ZonedDateTime.now(this.getStandardSignalZoneId());
@@ -110,9 +83,4 @@ public class BpcMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSi
     return ZONE_CHN;
   }
 
-  @Override
-  public String getProtocolId() {
-    return "BPC";
-  }
-
 }
@@ -1,8 +1,10 @@
 package com.igormaznitsa.soundtime.bpc;
 
 import static com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer.ZONE_CHN;
+import static java.util.Objects.requireNonNull;
 
 import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRecord;
+import com.igormaznitsa.soundtime.BitFields;
 import java.time.ZonedDateTime;
 
 public final class BpcRecord extends AbstractMinuteBasedTimeSignalRecord {
@@ -39,14 +41,19 @@ public final class BpcRecord extends AbstractMinuteBasedTimeSignalRecord {
     final int checkedYearWithinCentury = requireInclusiveRange(yearWithinCentury, 0, 99,
         "Year within century");
 
-    this.bcpBitString = new BcpBitString(makeTimePacketVersion(
+    this.bcpBitString = makeTimePacketVersion(
         checkedHour,
         checkedMinute,
         checkedDayOfWeek,
         checkedDayOfMonth,
         checkedMonth,
         checkedYearWithinCentury
-    ));
+    );
+  }
+
+  public BpcRecord(final BcpBitString bcpBitString) {
+    super(-1L, 0);
+    this.bcpBitString = requireNonNull(bcpBitString);
   }
 
   public BpcRecord(final String bits) {
@@ -55,7 +62,7 @@ public final class BpcRecord extends AbstractMinuteBasedTimeSignalRecord {
         new BcpBitString(bits);
   }
 
-  private static String makeTimePacketVersion(
+  private static BcpBitString makeTimePacketVersion(
       final int hours,
       final int minutes,
       final int dayOfWeek,
@@ -63,93 +70,69 @@ public final class BpcRecord extends AbstractMinuteBasedTimeSignalRecord {
       final int month,
       final int year
   ) {
-    final StringBuilder buffer = new StringBuilder(120);
+    long bitString0 = 0L;
+    long bitString1 = 0L;
 
     for (int i = 0; i < 3; i++) {
-      final int offset = i * 40;
+      // packet bits are written in transmission order, the first bit becomes the highest one
 
       // seconds
-      switch (i) {
-        case 0:
-          buffer.append("00");
-          break;
-        case 1:
-          buffer.append("01");
-          break;
-        case 2:
-          buffer.append("10");
-          break;
-        default:
-          throw new Error("Unexpected");
-      }
+      long packet = i;
 
       // unused
-      buffer.append("00");
+      packet = appendBits(packet, 0, 2);
 
       // hours
-      writeBinaryInt(buffer, toBpcHour(hours), 4);
+      packet = appendBits(packet, toBpcHour(hours), 4);
 
       // minute
-      writeBinaryInt(buffer, minutes, 6);
+      packet = appendBits(packet, minutes, 6);
 
       // unused
-      buffer.append('0');
+      packet = appendBits(packet, 0, 1);
 
       // day of week
-      writeBinaryInt(buffer, dayOfWeek, 3);
+      packet = appendBits(packet, dayOfWeek, 3);
 
       // PM
-      buffer.append(hours >= 12 ? '1' : '0');
+      packet = appendBits(packet, hours >= 12 ? 1 : 0, 1);
 
-      // P1
-      buffer.append(isEven(buffer, offset, offset + 18) ? '1' : '0');
+      // P1, over 18 bits before PM
+      packet = appendBits(packet, BitFields.parity(packet, 1, 19), 1);
 
       // unused
-      buffer.append('0');
+      packet = appendBits(packet, 0, 1);
 
       // day of month
-      writeBinaryInt(buffer, dayOfMonth, 5);
+      packet = appendBits(packet, dayOfMonth, 5);
 
       // month
-      writeBinaryInt(buffer, month, 4);
+      packet = appendBits(packet, month, 4);
 
       // year
-      writeBinaryInt(buffer, year & 0b111111, 6);
-      buffer.append((year & 0b1000000) == 0 ? '0' : '1');
+      packet = appendBits(packet, year & 0b111111, 6);
+      packet = appendBits(packet, (year >> 6) & 1, 1);
 
-      // P2
-      buffer.append(isEven(buffer, offset + 20, offset + 36) ? '1' : '0');
+      // P2, over 16 bits after P1 without the highest year bit
+      packet = appendBits(packet, BitFields.parity(packet, 1, 17), 1);
 
       // synchro
-      buffer.append("00");
-    }
-
-    return buffer.toString();
-  }
+      packet = appendBits(packet, 0, 2);
 
-  private static void writeBinaryInt(final StringBuilder builder, final int value, final int bits) {
-    final String bin = Integer.toBinaryString(value);
-    int zeros = bits - bin.length();
-
-    if (zeros < 0) {
-      throw new IllegalArgumentException("Unexpected value " + value + " for " + bits + " bits(s)");
+      // 20 pairs, the first transmitted pair must have index 0
+      final long pairs = BitFields.reversePairs(packet, 20);
+      bitString0 |= BitFields.evenBits(pairs) << (i * 20);
+      bitString1 |= BitFields.oddBits(pairs) << (i * 20);
     }
 
-    while (zeros > 0) {
-      builder.append('0');
-      zeros--;
-    }
-    builder.append(bin);
+    return new BcpBitString(bitString0, bitString1);
   }
 
-  private static boolean isEven(final CharSequence charSequence, final int from, final int to) {
-    int count = 0;
-    for (int i = from; i < to; i++) {
-      if (charSequence.charAt(i) == '1') {
-        count++;
-      }
+  private static long appendBits(final long packet, final int value, final int bits) {
+    if ((value & ~(int) BitFields.mask(bits)) != 0) {
+      throw new IllegalArgumentException("Unexpected value " + value + " for " + bits + " bits(s)");
     }
-    return count % 2 != 0;
+    return (packet << bits) | value;
   }
 
   private static int toBpcHour(final int hours) {
@@ -267,6 +250,13 @@ public final class BpcRecord extends AbstractMinuteBasedTimeSignalRecord {
     return buffer.toString();
   }
 
+  /**
+   * Text representation of packet pairs, it is for diagnostics only and not used by signal
+   * generation.
+   *
+   * @param msb0 if true then the lower bit of each pair is written first
+   * @return text of 120 chars
+   */
   @Override
   public String toBinaryString(boolean msb0) {
     final StringBuilder builder = new StringBuilder(120);
@@ -1,14 +1,15 @@
 package com.igormaznitsa.soundtime.dcf77;
 
-import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRenderer;
 import com.igormaznitsa.soundtime.DstDetection;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
-import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.TimeCodeDescriptor;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 
-public class Dcf77MinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSignalWavRenderer {
+public class Dcf77MinuteBasedTimeSignalSignalRenderer
+    extends AbstractMinuteBasedTimeSignalRenderer {
 
   public static final Dcf77MinuteBasedTimeSignalSignalRenderer
       INSTANCE = new Dcf77MinuteBasedTimeSignalSignalRenderer();
@@ -17,6 +18,27 @@ public class Dcf77MinuteBasedTimeSignalSignalRenderer implements MinuteBasedTime
    */
   public static final double DCF77_STANDARD_AMPLITUDE_DEVIATION = 0.85d;
   private static final List<Integer> ALLOWED_CARRIER_FREQ = List.of(12916, 15500, 19375);
+  private static final int SYMBOL_ZERO = 0;
+  private static final int SYMBOL_ONE = 1;
+  private static final int SYMBOL_MINUTE_MARK = 2;
+
+  public Dcf77MinuteBasedTimeSignalSignalRenderer() {
+    super(makeDescriptor());
+  }
+
+  private static TimeCodeDescriptor makeDescriptor() {
+    return TimeCodeDescriptor.builder("DCF77")
+        .polarity(TimeCodeDescriptor.Polarity.LOW_FIRST)
+        .pulse(SYMBOL_ZERO, 100)
+        .pulse(SYMBOL_ONE, 200)
+        .pulse(SYMBOL_MINUTE_MARK, 0)
+        .markers(SYMBOL_MINUTE_MARK, 59)
+        .syncSymbol(SYMBOL_ZERO, 0)
+        .syncSymbol(SYMBOL_ONE, 20)
+        .recordDecoder(
+            symbols -> new Dcf77Record(TimeCodeDescriptor.toBitString(symbols), false))
+        .build();
+  }
 
   @Override
   public List<Integer> getAllowedCarrierFrequencies() {
@@ -34,61 +56,11 @@ public class Dcf77MinuteBasedTimeSignalSignalRenderer implements MinuteBasedTime
     return DCF77_STANDARD_AMPLITUDE_DEVIATION;
   }
 
-  @Override
-  public byte[] makeMinuteWavData(
-      final MinuteBasedTimeSignalBits minuteBitStringProvider,
-      final double freq,
-      final int sampleRate,
-      final int sampleBytes,
-      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
-      final double amplitudeDeviation) {
-    final int samplesPerSet = sampleRate / 5;
-    final int samplesPerReset = sampleRate / 10;
-
-    long data = minuteBitStringProvider.getBitString(false);
-
-    final int second = minuteBitStringProvider.getSecond();
-    final int totalSamples = sampleRate * (60 - second);
-    final byte[] wavBuffer = new byte[totalSamples * sampleBytes];
-
-    int sampleIndex = 0;
-    for (int i = second; i < 60; i++) {
-      final boolean bitState = ((data >>> i) & 1L) != 0L;
-      final int syncPrefixSamples;
-      if (i == 59) {
-        syncPrefixSamples = -1;
-      } else {
-        syncPrefixSamples = bitState ? samplesPerSet : samplesPerReset;
-      }
-
-      int sampleCounter = 0;
-      while (sampleCounter < sampleRate) {
-        final double amplitude;
-        if (sampleCounter <= syncPrefixSamples) {
-          amplitude = 1.0d - amplitudeDeviation;
-        } else {
-          amplitude = 1.0d;
-        }
-        final long volume = signalShape.calculate(sampleIndex, freq, amplitude, sampleRate);
-        wavBuffer[sampleIndex++] = (byte) (volume & 0xFF);
-        wavBuffer[sampleIndex++] = (byte) ((volume >>> 8) & 0xFF);
-
-        sampleCounter++;
-      }
-    }
-    return wavBuffer;
-  }
-
   @Override
   public ZoneId getStandardSignalZoneId() {
     return Dcf77Record.ZONE_BERLIN;
   }
 
-  @Override
-  public String getProtocolId() {
-    return "DCF77";
-  }
-
   @Override
   public ZonedDateTime getZonedTimeDateNow(final DstDetection dstDetection) {
     switch (dstDetection) {
@@ -1,6 +1,7 @@
 package com.igormaznitsa.soundtime.dcf77;
 
 import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRecord;
+import com.igormaznitsa.soundtime.BitFields;
 import com.igormaznitsa.soundtime.DstDetection;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -189,7 +190,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return civil warning bits as LSB0
    */
   public long getCivilWarningBits() {
-    return reverseLowestBits(bits(this.getRawBitString(), 1, 0b11_1111_1111_1111L), 14);
+    return BitFields.extract(this.getRawBitString(), 1, 14);
   }
 
   /**
@@ -198,7 +199,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true or false
    */
   public boolean isCallBit() {
-    return bits(this.getRawBitString(), 15, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 15);
   }
 
   /**
@@ -207,7 +208,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return summer announcement
    */
   public boolean isSummerTimeAnnouncement() {
-    return bits(this.getRawBitString(), 16, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 16);
   }
 
   /**
@@ -216,7 +217,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true or false
    */
   public boolean isCest() {
-    return bits(this.getRawBitString(), 17, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 17);
   }
 
   /**
@@ -225,7 +226,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true or false
    */
   public boolean isCet() {
-    return bits(this.getRawBitString(), 18, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 18);
   }
 
   /**
@@ -234,7 +235,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true or false
    */
   public boolean isLeapSecondAnnouncement() {
-    return bits(this.getRawBitString(), 19, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 19);
   }
 
   /**
@@ -243,7 +244,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true if valid packet
    */
   public boolean isMinuteStartBit() {
-    return bits(this.getRawBitString(), 20, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 20);
   }
 
   /**
@@ -261,11 +262,11 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return the LSB0 raw minute value
    */
   public long getMinuteRaw() {
-    return (int) reverseLowestBits(bits(this.getRawBitString(), 21, 0b1111111L), 7);
+    return (int) BitFields.extract(this.getRawBitString(), 21, 7);
   }
 
   public boolean isMinuteEvenParity() {
-    return bits(this.getRawBitString(), 28, 0b1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 28);
   }
 
   /**
@@ -283,11 +284,11 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return the LSB0 raw hour value
    */
   public long getHourRaw() {
-    return reverseLowestBits(bits(this.getRawBitString(), 29, 0b111111L), 6);
+    return BitFields.extract(this.getRawBitString(), 29, 6);
   }
 
   public boolean isHourEvenParity() {
-    return bits(this.getRawBitString(), 35, 0b1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 35);
   }
 
   /**
@@ -305,7 +306,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return the LSB0 raw day of month value
    */
   public long getDayOfMonthRaw() {
-    return reverseLowestBits(bits(this.getRawBitString(), 36, 0b111111L), 6);
+    return BitFields.extract(this.getRawBitString(), 36, 6);
   }
 
   /**
@@ -323,7 +324,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return the LSB0 raw day of week value
    */
   public long getDayOfWeekRaw() {
-    return reverseLowestBits(bits(this.getRawBitString(), 42, 0b111L), 3);
+    return BitFields.extract(this.getRawBitString(), 42, 3);
   }
 
   /**
@@ -341,7 +342,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return the LSB0 raw month value
    */
   public long getMonthRaw() {
-    return reverseLowestBits(bits(this.getRawBitString(), 45, 0b11111L), 5);
+    return BitFields.extract(this.getRawBitString(), 45, 5);
   }
 
   /**
@@ -359,7 +360,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return the LSB0 raw year within century value
    */
   public long getYearWithinCenturyRaw() {
-    return reverseLowestBits(bits(this.getRawBitString(), 50, 0b1111_1111L), 8);
+    return BitFields.extract(this.getRawBitString(), 50, 8);
   }
 
   /**
@@ -368,7 +369,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true if even and false otherwise
    */
   public boolean isDateEvenParity() {
-    return bits(this.getRawBitString(), 58, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 58);
   }
 
   /**
@@ -377,7 +378,7 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
    * @return true or false, must be false for valid record.
    */
   public boolean isMinuteMark() {
-    return bits(this.getRawBitString(), 59, 1L) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 59);
   }
 
   @Override
@@ -405,21 +406,14 @@ public final class Dcf77Record extends AbstractMinuteBasedTimeSignalRecord {
     }
 
     final long bitString = this.getRawBitString();
-    if (
-        bits(bitString, 0, 1L) != 0L
-            || bits(bitString, 59, 1L) != 0L
-            || bits(bitString, 20, 1L) == 0L
-    ) {
+    // start of minute must be zero, start of time must be one
+    if ((bitString & (1L | 1L << 20 | 1L << 59)) != 1L << 20) {
       return false;
     }
-
-    if ((calcEvenParityOverBits(bitString, 21, 28) ? 1L : 0L) != bits(bitString, 28, 1L)) {
-      return false;
-    }
-    if ((calcEvenParityOverBits(bitString, 29, 35) ? 1L : 0L) != bits(bitString, 35, 1L)) {
-      return false;
-    }
-    return (calcEvenParityOverBits(bitString, 36, 58) ? 1L : 0L) == bits(bitString, 58, 1L);
+    // each field together with its even parity bit contains even number of set bits
+    return (BitFields.parity(bitString, 21, 29)
+        | BitFields.parity(bitString, 29, 36)
+        | BitFields.parity(bitString, 36, 59)) == 0;
   }
 
 }
@@ -1,14 +1,17 @@
 package com.igormaznitsa.soundtime.jjy;
 
-import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRenderer;
 import com.igormaznitsa.soundtime.DstDetection;
 import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
-import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.Oscillator;
+import com.igormaznitsa.soundtime.SignalSegments;
+import com.igormaznitsa.soundtime.TimeCodeDescriptor;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 
-public class JjyMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSignalWavRenderer {
+public class JjyMinuteBasedTimeSignalSignalRenderer
+    extends AbstractMinuteBasedTimeSignalRenderer {
 
   public static final JjyMinuteBasedTimeSignalSignalRenderer
       INSTANCE = new JjyMinuteBasedTimeSignalSignalRenderer();
@@ -16,6 +19,42 @@ public class JjyMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSi
   private static final String MORSE_JJY_MSB0 =
       "001011011011001011011011001101011011000101101101100101101101100110101101100";
   private static final List<Integer> ALLOWED_CARRIER_FREQ = List.of(4100, 13333, 15900);
+  private static final int SYMBOL_ZERO = 0;
+  private static final int SYMBOL_ONE = 1;
+  private static final int SYMBOL_MARKER = 2;
+  /**
+   * Base for symbols of call sign seconds 40..48, the symbol is base plus index of the second.
+   */
+  private static final int SYMBOL_MORSE_BASE = 16;
+
+  public JjyMinuteBasedTimeSignalSignalRenderer() {
+    super(makeDescriptor());
+  }
+
+  private static TimeCodeDescriptor makeDescriptor() {
+    final TimeCodeDescriptor.Builder builder = TimeCodeDescriptor.builder("JJY")
+        .polarity(TimeCodeDescriptor.Polarity.HIGH_FIRST)
+        .symbolReader((record, second) -> {
+          if (second > 39 && second < 49 && JjyRecord.isCallSignAnnouncementMinute(
+              record.extractSourceTime().getMinute())) {
+            return SYMBOL_MORSE_BASE + second - 40;
+          }
+          return TimeCodeDescriptor.BIT_PER_SECOND.readSymbol(record, second);
+        })
+        .pulse(SYMBOL_ZERO, 800)
+        .pulse(SYMBOL_ONE, 500)
+        .pulse(SYMBOL_MARKER, 200)
+        .markers(SYMBOL_MARKER, 0, 9, 19, 29, 39, 49, 59)
+        .recordDecoder(
+            symbols -> new JjyRecord(TimeCodeDescriptor.toBitString(symbols), false));
+    for (int i = 0; i < 9; i++) {
+      final int morseSecond = i;
+      builder.shaper(SYMBOL_MORSE_BASE + i,
+          (sampleRate, amplitudeDeviation, segments) ->
+              makeMorseSegments(morseSecond, sampleRate, segments));
+    }
+    return builder.build();
+  }
 
   @Override
   public List<Integer> getAllowedCarrierFrequencies() {
@@ -33,75 +72,29 @@ public class JjyMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSi
     return JJY_STANDARD_AMPLITUDE_DEVIATION;
   }
 
-  @Override
-  public byte[] makeMinuteWavData(
-      final MinuteBasedTimeSignalBits minuteBitStringProvider,
-      final double freq,
-      final int sampleRate,
-      final int sampleBytes,
-      final AmplitudeSoundSignalRenderer.SignalShape signalShape,
-      final double amplitudeDeviation) {
-    final int samplesPerMarker = sampleRate / 5;
-    final int samplesPerSet = sampleRate / 2;
-    final int samplesPerReset = (sampleRate << 2) / 5;
-
-    final boolean callSignPacket = JjyRecord.isCallSignAnnouncementMinute(
-        minuteBitStringProvider.extractSourceTime().getMinute());
-    long data = minuteBitStringProvider.getBitString(false);
-
-    final int second = minuteBitStringProvider.getSecond();
-    final int totalSamples = sampleRate * (60 - second);
-    final byte[] wavBuffer = new byte[totalSamples * sampleBytes];
-
-    int sampleIndex = 0;
-    for (int i = second; i < 60; i++) {
-      final boolean bitState = ((data >>> i) & 1L) != 0L;
-      final int syncPrefixSamples;
-      if (i == 0 || i % 10 == 9) {
-        // marker
-        syncPrefixSamples = samplesPerMarker;
-      } else {
-        syncPrefixSamples = bitState ? samplesPerSet : samplesPerReset;
-      }
-
-      if (callSignPacket && i > 39 && i < 49) {
-        // Call sign morse code
-        final int totalSignalSamples = 9 * sampleRate;
-        final double perBit = (double) MORSE_JJY_MSB0.length() / totalSignalSamples;
-        int sampleOffset = (i - 40) * sampleRate;
-
-        for (int sample = 0; sample < sampleRate; sample++) {
-          final int morseBitIndex =
-              Math.min(MORSE_JJY_MSB0.length() - 1, (int) Math.round(perBit * sampleOffset));
-          final double amplitude;
-          if ((MORSE_JJY_MSB0.charAt(morseBitIndex)) == '0') {
-            amplitude = 0.0d;
-          } else {
-            amplitude = 1.0d;
-          }
-          final long volume = signalShape.calculate(sampleIndex, freq, amplitude, sampleRate);
-          wavBuffer[sampleIndex++] = (byte) (volume & 0xFF);
-          wavBuffer[sampleIndex++] = (byte) ((volume >>> 8) & 0xFF);
-          sampleOffset++;
-        }
-      } else {
-        int sampleCounter = 0;
-        while (sampleCounter < sampleRate) {
-          final double amplitude;
-          if (sampleCounter <= syncPrefixSamples) {
-            amplitude = 1.0d;
-          } else {
-            amplitude = 1.0d - amplitudeDeviation;
-          }
-          final long volume = signalShape.calculate(sampleIndex, freq, amplitude, sampleRate);
-          wavBuffer[sampleIndex++] = (byte) (volume & 0xFF);
-          wavBuffer[sampleIndex++] = (byte) ((volume >>> 8) & 0xFF);
-
-          sampleCounter++;
-        }
+  private static void makeMorseSegments(final int morseSecond, final int sampleRate,
+                                        final SignalSegments segments) {
+    // Call sign morse code
+    final int totalSignalSamples = 9 * sampleRate;
+    final double perBit = (double) MORSE_JJY_MSB0.length() / totalSignalSamples;
+    final int sampleOffset = morseSecond * sampleRate;
+
+    // each run of the same morse bit is segment
+    int sample = 0;
+    while (sample < sampleRate) {
+      final char bit = findMorseBit(perBit, sampleOffset + sample);
+      int runEnd = sample + 1;
+      while (runEnd < sampleRate && findMorseBit(perBit, sampleOffset + runEnd) == bit) {
+        runEnd++;
       }
+      segments.append(runEnd - sample, bit == '0' ? 0 : Oscillator.GAIN_ONE);
+      sample = runEnd;
     }
-    return wavBuffer;
+  }
+
+  private static char findMorseBit(final double perBit, final int sampleOffset) {
+    return MORSE_JJY_MSB0.charAt(
+        Math.min(MORSE_JJY_MSB0.length() - 1, (int) Math.round(perBit * sampleOffset)));
   }
 
   @Override
@@ -113,9 +106,4 @@ public class JjyMinuteBasedTimeSignalSignalRenderer implements MinuteBasedTimeSi
   public ZoneId getStandardSignalZoneId() {
     return JjyRecord.ZONE_JST;
   }
-
-  @Override
-  public String getProtocolId() {
-    return "JJY";
-  }
 }
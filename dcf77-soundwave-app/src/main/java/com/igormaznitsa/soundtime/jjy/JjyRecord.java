@@ -1,6 +1,7 @@
 package com.igormaznitsa.soundtime.jjy;
 
 import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRecord;
+import com.igormaznitsa.soundtime.BitFields;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
@@ -9,6 +10,11 @@ import java.time.ZonedDateTime;
 public final class JjyRecord extends AbstractMinuteBasedTimeSignalRecord {
 
   static final ZoneId ZONE_JST = ZoneId.of("Asia/Tokyo");
+  /**
+   * Position markers and unused bits, they must be zero in valid record.
+   */
+  private static final long ZERO_BITS = 1L | 1L << 4 | 1L << 9 | 1L << 14 | 1L << 19 | 1L << 24
+      | 1L << 29 | 1L << 39 | 1L << 49 | 1L << 59;
 
   private final boolean callSignAnnouncementPacket;
 
@@ -158,16 +164,7 @@ public final class JjyRecord extends AbstractMinuteBasedTimeSignalRecord {
     }
 
     final long bitString = this.getRawBitString();
-    final long mustBeZero = bits(bitString, 0, 1L)
-        | bits(bitString, 4, 1L)
-        | bits(bitString, 9, 1L)
-        | bits(bitString, 14, 1L)
-        | bits(bitString, 19, 1L)
-        | bits(bitString, 24, 1L)
-        | bits(bitString, 29, 1L)
-        | bits(bitString, 39, 1L)
-        | bits(bitString, 49, 1L)
-        | bits(bitString, 59, 1L);
+    final long mustBeZero = bitString & ZERO_BITS;
     if (mustBeZero != 0L) {
       return false;
     }
@@ -179,95 +176,52 @@ public final class JjyRecord extends AbstractMinuteBasedTimeSignalRecord {
   }
 
   public int getMinutes() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 1, 1) * 40
-            + bits(bitString, 2, 1) * 20
-            + bits(bitString, 3, 1) * 10
-            + bits(bitString, 5, 1) * 8
-            + bits(bitString, 6, 1) * 4
-            + bits(bitString, 7, 1) * 2
-            + bits(bitString, 8, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 1, 8);
   }
 
   public int getHours() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 12, 1) * 20
-            + bits(bitString, 13, 1) * 10
-            + bits(bitString, 15, 1) * 8
-            + bits(bitString, 16, 1) * 4
-            + bits(bitString, 17, 1) * 2
-            + bits(bitString, 18, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 12, 7);
   }
 
   public int getDayOfYear() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 22, 1) * 200
-            + bits(bitString, 23, 1) * 100
-            + bits(bitString, 25, 1) * 80
-            + bits(bitString, 26, 1) * 40
-            + bits(bitString, 27, 1) * 20
-            + bits(bitString, 28, 1) * 10
-            + bits(bitString, 30, 1) * 8
-            + bits(bitString, 31, 1) * 4
-            + bits(bitString, 32, 1) * 2
-            + bits(bitString, 33, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 22, 12);
   }
 
   public int getYearInCentury() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 41, 1) * 80
-            + bits(bitString, 42, 1) * 40
-            + bits(bitString, 43, 1) * 20
-            + bits(bitString, 44, 1) * 10
-            + bits(bitString, 45, 1) * 8
-            + bits(bitString, 46, 1) * 4
-            + bits(bitString, 47, 1) * 2
-            + bits(bitString, 48, 1)
-    );
+    final long bcd = BitFields.extractReversed(this.getRawBitString(), 41, 8);
+    return (int) ((bcd >>> 4) * 10 + (bcd & 0xF));
   }
 
   public int getDayOfWeek() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 50, 1) * 4
-            + bits(bitString, 51, 1) * 2
-            + bits(bitString, 52, 1)
-    );
+    return (int) BitFields.extractReversed(this.getRawBitString(), 50, 3);
   }
 
   public boolean isLeapSecondAtCurrentUtcMonthEnd() {
-    return bits(this.getRawBitString(), 53, 1) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 53);
   }
 
   public boolean isLeapSecondAdded() {
-    return bits(this.getRawBitString(), 54, 1) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 54);
   }
 
   public boolean isPA1() {
-    return bits(this.getRawBitString(), 36, 1) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 36);
   }
 
   public boolean isPA2() {
-    return bits(this.getRawBitString(), 37, 1) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 37);
   }
 
   public int getServiceInterruptionScheduled() {
-    return (int) bits(this.getRawBitString(), 50, 0b111);
+    return (int) BitFields.extractReversed(this.getRawBitString(), 50, 3);
   }
 
   public boolean isServiceInterruptionDaytimeOnly() {
-    return bits(this.getRawBitString(), 53, 1) != 0L;
+    return BitFields.isSet(this.getRawBitString(), 53);
   }
 
   public int getServiceInterruptionDuration() {
-    return (int) bits(this.getRawBitString(), 54, 0b11);
+    return (int) BitFields.extractReversed(this.getRawBitString(), 54, 2);
   }
 
   @Override
@@ -3,6 +3,7 @@ package com.igormaznitsa.soundtime.wwvb;
 import static java.time.ZoneOffset.UTC;
 
 import com.igormaznitsa.soundtime.AbstractMinuteBasedTimeSignalRecord;
+import com.igormaznitsa.soundtime.BitFields;
 import com.igormaznitsa.soundtime.DstDetection;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -15,6 +16,11 @@ public final class WwvbRecord extends AbstractMinuteBasedTimeSignalRecord {
   public static final int DST_ENDS_TODAY = 0b01;
   public static final int DST_BEGINS_TODAY = 0b10;
   public static final int DST_IN_EFFECT = 0b11;
+  /**
+   * Position markers and unused bits, they must be zero in valid record.
+   */
+  private static final long ZERO_BITS = 1L | 1L << 4 | 1L << 9 | 1L << 14 | 1L << 19 | 1L << 24
+      | 1L << 29 | 1L << 39 | 1L << 49 | 1L << 59;
 
   public WwvbRecord(final ZonedDateTime time, final DstDetection dstDetection) {
     this(
@@ -177,72 +183,24 @@ public final class WwvbRecord extends AbstractMinuteBasedTimeSignalRecord {
     }
 
     final long bitString = this.getRawBitString();
-    final long mustBeZero = bits(bitString, 0, 1L)
-        | bits(bitString, 4, 1L)
-        | bits(bitString, 9, 1L)
-        | bits(bitString, 14, 1L)
-        | bits(bitString, 19, 1L)
-        | bits(bitString, 24, 1L)
-        | bits(bitString, 29, 1L)
-        | bits(bitString, 39, 1L)
-        | bits(bitString, 49, 1L)
-        | bits(bitString, 59, 1L);
+    final long mustBeZero = bitString & ZERO_BITS;
     return mustBeZero == 0L;
   }
 
   public int getMinutes() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 1, 1) * 40
-            + bits(bitString, 2, 1) * 20
-            + bits(bitString, 3, 1) * 10
-            + bits(bitString, 5, 1) * 8
-            + bits(bitString, 6, 1) * 4
-            + bits(bitString, 7, 1) * 2
-            + bits(bitString, 8, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 1, 8);
   }
 
   public int getHours() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 12, 1) * 20
-            + bits(bitString, 13, 1) * 10
-            + bits(bitString, 15, 1) * 8
-            + bits(bitString, 16, 1) * 4
-            + bits(bitString, 17, 1) * 2
-            + bits(bitString, 18, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 12, 7);
   }
 
   public int getDayOfYear() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 22, 1) * 200
-            + bits(bitString, 23, 1) * 100
-            + bits(bitString, 25, 1) * 80
-            + bits(bitString, 26, 1) * 40
-            + bits(bitString, 27, 1) * 20
-            + bits(bitString, 28, 1) * 10
-            + bits(bitString, 30, 1) * 8
-            + bits(bitString, 31, 1) * 4
-            + bits(bitString, 32, 1) * 2
-            + bits(bitString, 33, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 22, 12);
   }
 
   public int getYearInCentury() {
-    final long bitString = this.getRawBitString();
-    return (int) (
-        bits(bitString, 45, 1) * 80
-            + bits(bitString, 46, 1) * 40
-            + bits(bitString, 47, 1) * 20
-            + bits(bitString, 48, 1) * 10
-            + bits(bitString, 50, 1) * 8
-            + bits(bitString, 51, 1) * 4
-            + bits(bitString, 52, 1) * 2
-            + bits(bitString, 53, 1)
-    );
+    return readBcdPadded5(this.getRawBitString(), 45, 9);
   }
 
   @Override
@@ -267,30 +225,30 @@ public final class WwvbRecord extends AbstractMinuteBasedTimeSignalRecord {
 
   public int getDst() {
     final long bitString = this.getRawBitString();
-    return (int) bits(bitString, 57, 0b11);
+    return (int) BitFields.extractReversed(bitString, 57, 2);
   }
 
   public boolean isLeapSecondAtEndOfMonth() {
     final long bitString = this.getRawBitString();
-    return bits(bitString, 56, 0b1) != 0L;
+    return BitFields.isSet(bitString, 56);
   }
 
   public boolean isLeapYear() {
     final long bitString = this.getRawBitString();
-    return bits(bitString, 55, 0b1) != 0L;
+    return BitFields.isSet(bitString, 55);
   }
 
   public int getDut1Sign() {
     final long bitString = this.getRawBitString();
-    return (int) bits(bitString, 36, 0b111);
+    return (int) BitFields.extractReversed(bitString, 36, 3);
   }
 
   public float getDut1() {
     final long bitString = this.getRawBitString();
-    return bits(bitString, 40, 1) * 0.8f
-        + bits(bitString, 41, 1) * 0.4f
-        + bits(bitString, 42, 1) * 0.2f
-        + bits(bitString, 43, 1) * 0.1f;
+    return BitFields.extract(bitString, 40, 1) * 0.8f
+        + BitFields.extract(bitString, 41, 1) * 0.4f
+        + BitFields.extract(bitString, 42, 1) * 0.2f
+        + BitFields.extract(bitString, 43, 1) * 0.1f;
   }
 
   @Override
@@ -0,0 +1,25 @@
+package com.igormaznitsa.cli;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import org.junit.jupiter.api.Test;
+
+class HeadlessAppTest {
+
+  @Test
+  void testRequestedByKnownOptions() {
+    assertTrue(HeadlessApp.isRequested(HeadlessApp.OPTION_HEADLESS));
+    assertTrue(HeadlessApp.isRequested("--minutes", "5", "--out", "-"));
+    assertTrue(HeadlessApp.isRequested("-psn_0_12345", "--help"));
+  }
+
+  @Test
+  void testNotRequestedByLauncherArguments() {
+    assumeFalse(Boolean.getBoolean("java.awt.headless"));
+    assertFalse(HeadlessApp.isRequested());
+    assertFalse(HeadlessApp.isRequested("-psn_0_12345"));
+    assertFalse(HeadlessApp.isRequested("5"));
+  }
+}
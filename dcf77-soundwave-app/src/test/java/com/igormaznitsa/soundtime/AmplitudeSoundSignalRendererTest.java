@@ -0,0 +1,134 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
+import java.io.ByteArrayOutputStream;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+
+class AmplitudeSoundSignalRendererTest {
+
+  @Test
+  void testPlayedDataEqualsRenderedWav() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+    ZonedDateTime time = ZonedDateTime.of(2026, 1, 2, 3, 4, 50, 0, ZoneId.of("Asia/Tokyo"));
+    for (int i = 0; i < 3; i++) {
+      records.add(JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+          DstDetection.DST_AUTODETECT));
+      time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+    final int expectedBytes = (10 + 60 + 60) * 8000 * 2;
+
+    final ByteArrayOutputStream played = new ByteArrayOutputStream();
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, format -> FakeSourceDataLine.make(format, data -> {
+          synchronized (played) {
+            played.write(data, 0, data.length);
+          }
+        }));
+    renderer.setMetricsLogging(false);
+    renderer.setPcmBufferMilliseconds(500);
+    assertThrows(IllegalArgumentException.class, () -> renderer.setPcmBufferMilliseconds(0));
+
+    final byte[] expected;
+    try {
+      renderer.initAudioLine();
+      assertThrows(IllegalStateException.class, () -> renderer.setPcmBufferMilliseconds(100));
+      renderer.startAudio();
+      for (final MinuteBasedTimeSignalBits record : records) {
+        assertTrue(renderer.offer(record, 1000, 0.9d,
+            AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE));
+      }
+      expected = renderer.renderWav(records, 1000, 0.9d,
+          AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE);
+
+      final long deadline = System.currentTimeMillis() + 30_000L;
+      while (System.currentTimeMillis() < deadline) {
+        synchronized (played) {
+          if (played.size() >= expectedBytes) {
+            break;
+          }
+        }
+        Thread.sleep(10L);
+      }
+    } finally {
+      renderer.dispose();
+    }
+
+    final byte[] result;
+    synchronized (played) {
+      result = played.toByteArray();
+    }
+    assertArrayEquals(Arrays.copyOfRange(expected, expected.length - expectedBytes,
+        expected.length), result);
+  }
+
+  @Test
+  void testSignalMonitorDecodesPlayedSignal() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+    ZonedDateTime time = ZonedDateTime.of(2026, 1, 2, 3, 4, 30, 0, ZoneId.of("Asia/Tokyo"));
+    for (int i = 0; i < 3; i++) {
+      records.add(JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+          DstDetection.DST_AUTODETECT));
+      time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+
+    final List<MinuteBasedTimeSignalBits> decoded = new CopyOnWriteArrayList<>();
+    final SignalMonitor monitor = new SignalMonitor(
+        JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE.getDescriptor(), 8000, 200_000,
+        new TimeSignalDecoder.Listener() {
+          @Override
+          public void onMinute(final double startSample, final int[] symbols,
+                               final MinuteBasedTimeSignalBits record) {
+            decoded.add(record);
+          }
+        });
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, format -> FakeSourceDataLine.make(format, data -> {
+        }));
+    renderer.setMetricsLogging(false);
+    assertThrows(IllegalArgumentException.class, () -> renderer.setSignalMonitor(
+        new SignalMonitor(JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE.getDescriptor(), 16000,
+            100, new TimeSignalDecoder.Listener() {
+        })));
+    renderer.setSignalMonitor(monitor);
+
+    final long expectedBytes = (30 + 60 + 60) * 8000 * 2;
+    try {
+      renderer.initAudioLine();
+      assertThrows(IllegalStateException.class, () -> renderer.setSignalMonitor(null));
+      renderer.startAudio();
+      for (final MinuteBasedTimeSignalBits record : records) {
+        assertTrue(renderer.offer(record, 1000, 0.9d,
+            AmplitudeSoundSignalRenderer.SignalShape.SIN));
+      }
+      final long deadline = System.currentTimeMillis() + 30_000L;
+      while (monitor.getStatus().getAnalyzedBytes() < expectedBytes
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+    } finally {
+      renderer.dispose();
+    }
+
+    final SignalMonitor.Status status = monitor.getStatus();
+    assertEquals(expectedBytes, status.getAnalyzedBytes(), status.toString());
+    assertEquals(0L, status.getDroppedBytes());
+    assertEquals(0.9d, status.getModulationDepth(), 0.02d);
+    // start of minute is found by double marker, the last minute is not closed by next second
+    assertEquals(1, decoded.size(), status.toString());
+    assertEquals(records.get(1).getBitString(false), decoded.get(0).getBitString(false));
+  }
+}
@@ -0,0 +1,101 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BitFieldsTest {
+
+  private static long loopReverse(final long value, final int width) {
+    long acc = 0L;
+    long src = value;
+    for (int i = 0; i < width; i++) {
+      acc = (acc << 1) | (src & 1L);
+      src >>>= 1L;
+    }
+    return acc;
+  }
+
+  private static int loopParity(final long data, final int from, final int to) {
+    int result = 0;
+    for (int i = from; i < to; i++) {
+      result ^= (int) ((data >>> i) & 1L);
+    }
+    return result;
+  }
+
+  @Test
+  void testMasks() {
+    assertEquals(0L, BitFields.mask(0));
+    assertEquals(0b111L, BitFields.mask(3));
+    assertEquals(-1L, BitFields.mask(64));
+    assertEquals(0b1111_0000L, BitFields.rangeMask(4, 8));
+    assertEquals(0, BitFields.widthOf(0L));
+    assertEquals(7, BitFields.widthOf(0b1000001L));
+    assertEquals(64, BitFields.widthOf(-1L));
+  }
+
+  @Test
+  void testReverseAndParityEqualLoops() {
+    final Random random = new Random(7L);
+    for (int i = 0; i < 10_000; i++) {
+      final long value = random.nextLong();
+      final int width = random.nextInt(65);
+      assertEquals(loopReverse(value, width), BitFields.reverse(value, width));
+      final int from = random.nextInt(64);
+      final int to = from + random.nextInt(65 - from);
+      assertEquals(loopParity(value, from, to), BitFields.parity(value, from, to));
+    }
+  }
+
+  @Test
+  void testFieldInsertAndExtract() {
+    final Random random = new Random(11L);
+    for (int i = 0; i < 10_000; i++) {
+      final long data = random.nextLong();
+      final int width = 1 + random.nextInt(16);
+      final int shift = random.nextInt(64 - width);
+      final long value = random.nextLong() & BitFields.mask(width);
+
+      final long plain = BitFields.insert(data, value, shift, width);
+      assertEquals(value, BitFields.extract(plain, shift, width));
+      assertEquals(data & ~BitFields.rangeMask(shift, shift + width),
+          plain & ~BitFields.rangeMask(shift, shift + width));
+
+      final long reversed = BitFields.insertReversed(data, value, shift, width);
+      assertEquals(value, BitFields.extractReversed(reversed, shift, width));
+      assertEquals(loopReverse(value, width), BitFields.extract(reversed, shift, width));
+    }
+    assertTrue(BitFields.isSet(0b100L, 2));
+    assertFalse(BitFields.isSet(0b100L, 1));
+  }
+
+  @Test
+  void testBitPairs() {
+    assertEquals(0b10_01_11L, BitFields.interleave(0b011L, 0b101L));
+    assertEquals(0b11_01_10L, BitFields.reversePairs(0b10_01_11L, 3));
+    assertEquals(0L, BitFields.reversePairs(0b11L, 0));
+
+    final Random random = new Random(3L);
+    for (int i = 0; i < 1_000; i++) {
+      final long even = random.nextLong();
+      final long odd = random.nextLong();
+      final long interleaved = BitFields.interleave(even, odd);
+      for (int pair = 0; pair < 32; pair++) {
+        assertEquals(((even >>> pair) & 1L) | (((odd >>> pair) & 1L) << 1),
+            (interleaved >>> (pair * 2)) & 0b11L);
+      }
+      assertEquals(even & 0xFFFF_FFFFL, BitFields.evenBits(interleaved));
+      assertEquals(odd & 0xFFFF_FFFFL, BitFields.oddBits(interleaved));
+      final int pairs = random.nextInt(33);
+      final long reversed = BitFields.reversePairs(interleaved, pairs);
+      for (int pair = 0; pair < pairs; pair++) {
+        assertEquals((interleaved >>> (pair * 2)) & 0b11L,
+            (reversed >>> ((pairs - 1 - pair) * 2)) & 0b11L);
+      }
+    }
+  }
+}
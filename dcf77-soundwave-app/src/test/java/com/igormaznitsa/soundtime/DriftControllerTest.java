@@ -0,0 +1,86 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DriftControllerTest {
+
+  private static final int SAMPLE_RATE = 8000;
+  private static final int CHUNK_FRAMES = 160;
+
+  /**
+   * Simulate long playback through device which clock differs from the reference one.
+   *
+   * @param ppm     device clock error, positive if the device plays faster
+   * @param seconds duration of playback
+   * @return two values, net adjustment in samples and final timing error in nanoseconds
+   */
+  private static long[] simulate(final double ppm, final int seconds) {
+    final DriftController controller = new DriftController(SAMPLE_RATE, 8);
+    final Random random = new Random(12345L);
+    final double deviceRate = SAMPLE_RATE * (1.0d + ppm / 1.0E6d);
+
+    long written = 0L;
+    long netAdjustment = 0L;
+    // moment when the next written frame is heard, relative to the reference start
+    double heardNanos = 0.0d;
+    controller.reset(Instant.EPOCH, written);
+    for (int i = 0; i < seconds * SAMPLE_RATE / CHUNK_FRAMES; i++) {
+      written += CHUNK_FRAMES;
+      heardNanos += CHUNK_FRAMES * 1.0E9d / deviceRate;
+      // measurement has jitter of frame position and clock
+      final long jitter = (long) (random.nextGaussian() * 500_000.0d);
+      controller.update(Instant.EPOCH.plusNanos(Math.round(heardNanos) + jitter), written);
+
+      final int adjustment = controller.nextAdjustment(written);
+      if (adjustment != 0) {
+        written += adjustment;
+        netAdjustment += adjustment;
+        heardNanos += adjustment * 1.0E9d / deviceRate;
+        controller.onAdjustmentApplied(adjustment);
+      }
+    }
+    final double expectedNanos = (written - netAdjustment) * 1.0E9d / SAMPLE_RATE;
+    return new long[] {netAdjustment, Math.round(heardNanos - expectedNanos)};
+  }
+
+  @Test
+  void testNotStartedController() {
+    final DriftController controller = new DriftController(SAMPLE_RATE, 8);
+    assertFalse(controller.isStarted());
+    controller.update(Instant.EPOCH.plusSeconds(10L), 100L);
+    assertEquals(0L, controller.getErrorNanos());
+    assertEquals(0, controller.nextAdjustment(100_000L));
+    controller.reset(Instant.EPOCH, 0L);
+    assertTrue(controller.isStarted());
+    controller.stop();
+    assertFalse(controller.isStarted());
+  }
+
+  @Test
+  void testNoDriftWithoutDeviceClockError() {
+    final long[] result = simulate(0.0d, 600);
+    assertTrue(Math.abs(result[0]) <= 2L, "Adjustment: " + result[0]);
+    assertTrue(Math.abs(result[1]) < 500_000L, "Error: " + result[1]);
+  }
+
+  @Test
+  void testFastDeviceGetsInsertedSamples() {
+    final long[] result = simulate(100.0d, 1800);
+    // 100 ppm of 8000 Hz during 1800 seconds
+    assertEquals(1440L, result[0], 2L);
+    assertTrue(Math.abs(result[1]) < 500_000L, "Error: " + result[1]);
+  }
+
+  @Test
+  void testSlowDeviceGetsDroppedSamples() {
+    final long[] result = simulate(-250.0d, 1800);
+    assertEquals(-3600L, result[0], 2L);
+    assertTrue(Math.abs(result[1]) < 500_000L, "Error: " + result[1]);
+  }
+}
@@ -0,0 +1,57 @@
+package com.igormaznitsa.soundtime;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Source data line for tests, written data are consumed immediately without any delay.
+ */
+final class FakeSourceDataLine {
+
+  private FakeSourceDataLine() {
+  }
+
+  static SourceDataLine make(final AudioFormat format, final Consumer<byte[]> consumer) {
+    final AtomicLong writtenBytes = new AtomicLong();
+    final int bufferSize = (int) format.getSampleRate() * format.getFrameSize() / 5;
+    return (SourceDataLine) Proxy.newProxyInstance(FakeSourceDataLine.class.getClassLoader(),
+        new Class<?>[] {SourceDataLine.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "write": {
+              final byte[] data = (byte[]) args[0];
+              final int offset = (Integer) args[1];
+              final int length = (Integer) args[2];
+              final byte[] copy = new byte[length];
+              System.arraycopy(data, offset, copy, 0, length);
+              consumer.accept(copy);
+              writtenBytes.addAndGet(length);
+              return length;
+            }
+            case "isOpen":
+            case "isActive":
+            case "isRunning":
+              return true;
+            case "getBufferSize":
+            case "available":
+              return bufferSize;
+            case "getLongFramePosition":
+              return writtenBytes.get() / format.getFrameSize();
+            case "getFramePosition":
+              return (int) (writtenBytes.get() / format.getFrameSize());
+            case "getFormat":
+              return format;
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            case "toString":
+              return "FakeSourceDataLine";
+            default:
+              return null;
+          }
+        });
+  }
+}
@@ -0,0 +1,81 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77Record;
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MinuteRecordCacheTest {
+
+  private static final ZonedDateTime START =
+      ZonedDateTime.of(2026, 3, 29, 0, 58, 30, 0, Dcf77Record.ZONE_BERLIN);
+
+  @Test
+  void testBatchEqualsRecordsMadeOneByOne() {
+    final MinuteRecordCache cache = new MinuteRecordCache(100);
+    final MinuteBasedTimeSignalWavRenderer renderer =
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    // the batch crosses DST switch of the Berlin zone
+    final List<MinuteBasedTimeSignalBits> records =
+        cache.findMinutes(renderer, START, 70, DstDetection.DST_AUTODETECT);
+    assertEquals(70, records.size());
+    assertEquals(70L, cache.getMisses());
+
+    ZonedDateTime time = START;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      final MinuteBasedTimeSignalBits expected =
+          renderer.makeTimeSignalBits(time, DstDetection.DST_AUTODETECT);
+      assertEquals(expected.getBitString(false), record.getBitString(false), time.toString());
+      assertEquals(expected.getSecond(), record.getSecond());
+      time = time.withSecond(0).plusMinutes(1);
+    }
+
+    assertSame(records.get(10),
+        cache.find(renderer, START.withSecond(0).plusMinutes(10), DstDetection.DST_AUTODETECT));
+    assertEquals(1L, cache.getHits());
+  }
+
+  @Test
+  void testKeyContainsProtocolDstAndZone() {
+    final MinuteRecordCache cache = new MinuteRecordCache(100);
+    final MinuteBasedTimeSignalBits record = cache.find(
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, START, DstDetection.DST_AUTODETECT);
+    assertSame(record, cache.find(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, START,
+        DstDetection.DST_AUTODETECT));
+    assertNotSame(record, cache.find(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, START,
+        DstDetection.DST_FORCE_ON));
+    assertNotSame(record, cache.find(WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE, START,
+        DstDetection.DST_AUTODETECT));
+    assertNotSame(record, cache.find(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        START.withZoneSameInstant(ZoneOffset.UTC), DstDetection.DST_AUTODETECT));
+    assertEquals(4, cache.size());
+  }
+
+  @Test
+  void testLeastRecentlyUsedRemoved() {
+    final MinuteRecordCache cache = new MinuteRecordCache(3);
+    final MinuteBasedTimeSignalWavRenderer renderer =
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final List<MinuteBasedTimeSignalBits> records =
+        cache.findMinutes(renderer, START, 3, DstDetection.DST_AUTODETECT);
+    cache.find(renderer, START, DstDetection.DST_AUTODETECT);
+    cache.find(renderer, START.withSecond(0).plusMinutes(3), DstDetection.DST_AUTODETECT);
+    assertEquals(3, cache.size());
+    assertSame(records.get(0), cache.find(renderer, START, DstDetection.DST_AUTODETECT));
+    assertNotSame(records.get(1), cache.find(renderer, START.withSecond(0).plusMinutes(1),
+        DstDetection.DST_AUTODETECT));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertThrows(IllegalArgumentException.class,
+        () -> cache.findMinutes(renderer, START, 0, DstDetection.DST_AUTODETECT));
+  }
+}
@@ -0,0 +1,101 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checksums of whole minutes rendered by fixed point synthesis, any change of synthesis output
+ * breaks them, so they must be updated only together with intended change of output.
+ */
+class MinuteWavGoldenTest {
+
+  // JJY transmits call sign in the 15th minute, so morse seconds are covered too
+  private static final ZonedDateTime TIME = ZonedDateTime.of(2026, 3, 1, 12, 15, 0, 0,
+      ZoneOffset.UTC);
+
+  private static void assertGolden(final long expectedCrc,
+                                   final MinuteBasedTimeSignalWavRenderer renderer,
+                                   final AmplitudeSoundSignalRenderer.SignalShape shape,
+                                   final double freq,
+                                   final int sampleRate) {
+    final byte[] data = renderer.makeMinuteWavData(
+        renderer.makeTimeSignalBits(TIME, DstDetection.DST_AUTODETECT), freq, sampleRate, 2,
+        shape, renderer.getAmplitudeDeviation());
+    final CRC32 crc = new CRC32();
+    crc.update(data);
+    assertEquals(Long.toHexString(expectedCrc), Long.toHexString(crc.getValue()),
+        renderer.getClass().getSimpleName() + ' ' + shape);
+  }
+
+  @Test
+  void testDcf77() {
+    final MinuteBasedTimeSignalWavRenderer renderer =
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    assertGolden(0x2ac0e440L, renderer, AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        13000.5d, 48000);
+    assertGolden(0xce9f427fL, renderer, AmplitudeSoundSignalRenderer.SignalShape.SQUARE,
+        13000.5d, 48000);
+    assertGolden(0xd173079dL, renderer, AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE,
+        13000.5d, 48000);
+    assertGolden(0x001e62d7L, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE_BAND_LIMITED, 4100, 96000);
+    assertGolden(0x178bf1c2L, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED, 4100, 96000);
+  }
+
+  @Test
+  void testWwvb() {
+    final MinuteBasedTimeSignalWavRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    assertGolden(0xf58dd19bL, renderer, AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        13000.5d, 48000);
+    assertGolden(0xc2be332cL, renderer, AmplitudeSoundSignalRenderer.SignalShape.SQUARE,
+        13000.5d, 48000);
+    assertGolden(0xd3ed299aL, renderer, AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE,
+        13000.5d, 48000);
+    assertGolden(0x65efbb25L, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE_BAND_LIMITED, 4100, 96000);
+    assertGolden(0x18817149L, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED, 4100, 96000);
+  }
+
+  @Test
+  void testJjy() {
+    final MinuteBasedTimeSignalWavRenderer renderer =
+        JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    assertGolden(0x790371e8L, renderer, AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        13000.5d, 48000);
+    assertGolden(0x02e9e7c7L, renderer, AmplitudeSoundSignalRenderer.SignalShape.SQUARE,
+        13000.5d, 48000);
+    assertGolden(0x7a4ee8d7L, renderer, AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE,
+        13000.5d, 48000);
+    assertGolden(0x25e1848dL, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE_BAND_LIMITED, 4100, 96000);
+    assertGolden(0xb0f7e0a5L, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED, 4100, 96000);
+  }
+
+  @Test
+  void testBpc() {
+    final MinuteBasedTimeSignalWavRenderer renderer =
+        BpcMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    assertGolden(0xc3993effL, renderer, AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        13000.5d, 48000);
+    assertGolden(0x15754f80L, renderer, AmplitudeSoundSignalRenderer.SignalShape.SQUARE,
+        13000.5d, 48000);
+    assertGolden(0xd0913186L, renderer, AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE,
+        13000.5d, 48000);
+    assertGolden(0xb1f7431eL, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE_BAND_LIMITED, 4100, 96000);
+    assertGolden(0x0a98bf61L, renderer,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED, 4100, 96000);
+  }
+}
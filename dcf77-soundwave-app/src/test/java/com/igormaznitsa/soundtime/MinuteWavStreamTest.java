@@ -0,0 +1,279 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+import java.io.ByteArrayOutputStream;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class MinuteWavStreamTest {
+
+  @Test
+  void testChunkedReadEqualsWholeMinute() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final MinuteBasedTimeSignalBits record = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 23, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+
+    final byte[] whole = renderer.makeMinuteWavData(record, 12000, 48000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE, 0.9d);
+
+    final MinuteWavStream stream = new MinuteWavStream(renderer, record, 12000, 48000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE, 0.9d, 0.0d);
+    assertEquals(whole.length, stream.getTotalBytes());
+
+    final ByteArrayOutputStream collected = new ByteArrayOutputStream();
+    final byte[] chunk = new byte[1922];
+    int read;
+    while ((read = stream.read(chunk, 0, chunk.length)) > 0) {
+      collected.write(chunk, 0, read);
+    }
+    assertTrue(stream.isCompleted());
+    assertEquals(-1, stream.read(chunk, 0, chunk.length));
+    assertArrayEquals(whole, collected.toByteArray());
+  }
+
+  @Test
+  void testEndPhaseForFractionalFrequency() {
+    final MinuteBasedTimeSignalBits record =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(
+            ZonedDateTime.of(2026, 7, 4, 10, 11, 58, 0, ZoneOffset.UTC),
+            DstDetection.DST_AUTODETECT);
+    final MinuteWavStream stream =
+        new MinuteWavStream(WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE, record, 1000.25d,
+            8000, 2, AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d, 0.5d);
+    assertEquals(0.0d, stream.getEndPhase(), 1.0E-12);
+  }
+
+  @Test
+  void testStartOffset() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final MinuteBasedTimeSignalBits record = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 23, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+    final MinuteBasedTimeSignalBits wholeRecord = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 0, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+    final byte[] whole = renderer.makeMinuteWavData(wholeRecord, 1000, 8000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d);
+
+    for (final long offset : new long[] {-8000L * 30, -12345L, 0L, 777L, 8000L * 36, 8000L * 40}) {
+      final int startSample = (int) Math.max(0L, Math.min(60L * 8000, 23 * 8000 + offset));
+      // carrier phase of the whole minute at the first stream sample
+      final double startPhase = (startSample * 1000L % 8000L) / 8000.0d;
+      final MinuteWavStream stream = new MinuteWavStream(renderer, record, 1000, 8000, 2,
+          AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d, startPhase, offset);
+      final int start = startSample * 2;
+      assertEquals(0.0d, stream.getEndPhase(), 1.0E-12);
+      assertEquals(whole.length - start, stream.getTotalBytes());
+
+      final ByteArrayOutputStream collected = new ByteArrayOutputStream();
+      final byte[] chunk = new byte[1000];
+      int read;
+      while ((read = stream.read(chunk, 0, chunk.length)) > 0) {
+        collected.write(chunk, 0, read);
+      }
+      assertArrayEquals(Arrays.copyOfRange(whole, start, whole.length), collected.toByteArray());
+    }
+  }
+
+  @Test
+  void testStartOffsetOutOfMinute() {
+    final MinuteBasedTimeSignalBits record =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(
+            ZonedDateTime.of(2026, 7, 4, 10, 11, 58, 0, ZoneOffset.UTC),
+            DstDetection.DST_AUTODETECT);
+    assertEquals(60L * 8000 * 2,
+        new MinuteWavStream(WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE, record, 1000,
+            8000, 2, AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d, 0.0d, -1_000_000L)
+            .getTotalBytes());
+    final MinuteWavStream completed =
+        new MinuteWavStream(WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE, record, 1000,
+            8000, 2, AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d, 0.0d, 16000L);
+    assertTrue(completed.isCompleted());
+    assertEquals(0L, completed.getTotalBytes());
+  }
+
+  private static byte[] readFully(final MinuteWavStream stream, final byte[] head) {
+    final ByteArrayOutputStream collected = new ByteArrayOutputStream();
+    collected.write(head, 0, head.length);
+    final byte[] chunk = new byte[1000];
+    int read;
+    while ((read = stream.read(chunk, 0, chunk.length)) > 0) {
+      collected.write(chunk, 0, read);
+    }
+    return collected.toByteArray();
+  }
+
+  @Test
+  void testDropSamplesKeepsCarrierPhase() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final MinuteBasedTimeSignalBits record = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 58, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+    final AmplitudeSoundSignalRenderer.SignalShape shape =
+        AmplitudeSoundSignalRenderer.SignalShape.SIN;
+
+    final MinuteWavStream stream =
+        new MinuteWavStream(renderer, record, 1000, 8000, 2, shape, 0.9d, 0.0d);
+    final byte[] head = new byte[1000];
+    assertEquals(head.length, stream.read(head, 0, head.length));
+    assertTrue(stream.requestAdjustment(-3));
+    assertFalse(stream.requestAdjustment(1));
+    final byte[] data = readFully(stream, head);
+
+    assertFalse(stream.hasPendingAdjustment());
+    assertEquals(-3, stream.getAppliedAdjustment());
+    assertEquals(data.length, stream.getTotalBytes());
+    assertEquals(2 * 8000 * 2 - 3 * 2, data.length);
+
+    // the started second is played whole, samples are dropped from the end of the next one
+    final byte[] first = renderer.makeSecondWavData(record, 58, 1000, 8000, 2, shape, 0.9d, 0.0d);
+    assertArrayEquals(first, Arrays.copyOf(data, first.length));
+    // carrier of the shortened second is detuned to reach the phase of the next second
+    final byte[] second = renderer.renderSecondWavData(record, 59, 1000.0d * 8000 / 7997, 8000,
+        2, shape, 0.9d, 0.0d);
+    assertArrayEquals(Arrays.copyOf(second, second.length - 3 * 2),
+        Arrays.copyOfRange(data, first.length, data.length));
+    assertEquals(0.0d, stream.getEndPhase(), 1.0E-12);
+  }
+
+  @Test
+  void testInsertSamplesKeepsCarrierPhase() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final MinuteBasedTimeSignalBits record = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 58, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+    final AmplitudeSoundSignalRenderer.SignalShape shape =
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE;
+
+    final MinuteWavStream stream =
+        new MinuteWavStream(renderer, record, 1000, 8000, 2, shape, 0.9d, 0.0d);
+    final byte[] head = new byte[1000];
+    assertEquals(head.length, stream.read(head, 0, head.length));
+    assertTrue(stream.requestAdjustment(5));
+    final byte[] data = readFully(stream, head);
+
+    assertEquals(5, stream.getAppliedAdjustment());
+    assertEquals(data.length, stream.getTotalBytes());
+    assertEquals(2 * 8000 * 2 + 5 * 2, data.length);
+
+    final byte[] first = renderer.makeSecondWavData(record, 58, 1000, 8000, 2, shape, 0.9d, 0.0d);
+    assertArrayEquals(first, Arrays.copyOf(data, first.length));
+    // inserted samples are the second start, then the second continues the carrier
+    final byte[] inserted =
+        renderer.makeSecondWavData(record, 59, 1000, 8000, 2, shape, 0.9d, 0.0d);
+    assertArrayEquals(Arrays.copyOf(inserted, 5 * 2),
+        Arrays.copyOfRange(data, first.length, first.length + 5 * 2));
+    // carrier of the second is detuned to come back to the phase of not adjusted stream
+    final byte[] second =
+        renderer.renderSecondWavData(record, 59, 1000.375d, 8000, 2, shape, 0.9d, 0.625d);
+    assertArrayEquals(second, Arrays.copyOfRange(data, first.length + 5 * 2, data.length));
+    assertEquals(0.0d, stream.getEndPhase(), 1.0E-12);
+  }
+
+  @Test
+  void testAdjustmentsKeepTemplatesCached() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final AmplitudeSoundSignalRenderer.SignalShape shape =
+        AmplitudeSoundSignalRenderer.SignalShape.SIN;
+    final long hits = SecondTemplateCache.INSTANCE.getHits();
+    final long misses = SecondTemplateCache.INSTANCE.getMisses();
+
+    // aligned start and adjustment on each second, as drift correction at 20 ppm does
+    double phase = 0.3173d;
+    long startOffset = -1234L;
+    int adjustment = 1;
+    int applied = 0;
+    final byte[] chunk = new byte[48000 * 2 / 50];
+    for (int minute = 0; minute < 3; minute++) {
+      final MinuteWavStream stream = new MinuteWavStream(renderer,
+          renderer.makeTimeSignalBits(
+              ZonedDateTime.of(2026, 7, 4, 10, 11 + minute, minute == 0 ? 30 : 0, 0,
+                  ZoneOffset.UTC), DstDetection.DST_AUTODETECT),
+          15500, 48000, 2, shape, 0.9d, phase, startOffset);
+      long read = 0L;
+      int length;
+      while ((length = stream.read(chunk, 0, chunk.length)) > 0) {
+        read += length;
+        if (stream.requestAdjustment(adjustment)) {
+          adjustment = adjustment == 1 ? -2 : 1;
+        }
+      }
+      assertEquals(stream.getTotalBytes(), read);
+      applied += stream.getAppliedAdjustment();
+      phase = stream.getEndPhase();
+      startOffset = 0L;
+    }
+    assertTrue(applied != 0);
+
+    final long hitCount = SecondTemplateCache.INSTANCE.getHits() - hits;
+    final long missCount = SecondTemplateCache.INSTANCE.getMisses() - misses;
+    assertTrue(missCount <= 6, "Misses: " + missCount);
+    assertTrue(hitCount >= 9 * (hitCount + missCount) / 10,
+        "Hits " + hitCount + ", misses " + missCount);
+  }
+
+  @Test
+  void testParametersChangedOnSecondBoundary() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final MinuteBasedTimeSignalBits record = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 57, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+    final AmplitudeSoundSignalRenderer.SignalShape sin =
+        AmplitudeSoundSignalRenderer.SignalShape.SIN;
+    final AmplitudeSoundSignalRenderer.SignalShape square =
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE;
+
+    final MinuteWavStream stream =
+        new MinuteWavStream(renderer, record, 1000.25d, 8000, 2, sin, 0.9d, 0.0d);
+    final byte[] head = new byte[1000];
+    assertEquals(head.length, stream.read(head, 0, head.length));
+    stream.changeParameters(1500.5d, square, 0.5d);
+    final byte[] data = readFully(stream, head);
+    assertEquals(3 * 8000 * 2, data.length);
+
+    final int second = 8000 * 2;
+    assertArrayEquals(renderer.makeSecondWavData(record, 57, 1000.25d, 8000, 2, sin, 0.9d, 0.0d),
+        Arrays.copyOf(data, second));
+    // new carrier continues from the phase reached by the old one
+    assertArrayEquals(
+        renderer.makeSecondWavData(record, 58, 1500.5d, 8000, 2, square, 0.5d, 0.25d),
+        Arrays.copyOfRange(data, second, 2 * second));
+    assertArrayEquals(
+        renderer.makeSecondWavData(record, 59, 1500.5d, 8000, 2, square, 0.5d, 0.75d),
+        Arrays.copyOfRange(data, 2 * second, 3 * second));
+    assertEquals(0.25d, stream.getEndPhase(), 1.0E-12);
+  }
+
+  @Test
+  void testCompleteAtSecondEnd() {
+    final WwvbMinuteBasedTimeSignalSignalRenderer renderer =
+        WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final MinuteBasedTimeSignalBits record = renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 7, 4, 10, 11, 20, 0, ZoneOffset.UTC), DstDetection.DST_AUTODETECT);
+
+    final MinuteWavStream stream = new MinuteWavStream(renderer, record, 1000.25d, 8000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d, 0.0d, 4000L);
+    final byte[] head = new byte[1000];
+    assertEquals(head.length, stream.read(head, 0, head.length));
+    stream.completeAtSecondEnd();
+    assertEquals(4000L * 2, stream.getTotalBytes());
+    assertEquals(4000 * 2, readFully(stream, head).length);
+    assertTrue(stream.isCompleted());
+    // half of second at 1000.25 Hz
+    assertEquals(0.125d, stream.getEndPhase(), 1.0E-12);
+
+    final MinuteWavStream notStarted = new MinuteWavStream(renderer, record, 1000, 8000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.9d, 0.0d);
+    notStarted.completeAtSecondEnd();
+    assertTrue(notStarted.isCompleted());
+    assertEquals(0L, notStarted.getTotalBytes());
+  }
+}
@@ -0,0 +1,119 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class OscillatorTest {
+
+  private static long legacySin(final int sample, final double freq, final double amplitude,
+                                final int sampleRate) {
+    final double time = (double) sample / sampleRate;
+    return Math.round(Math.sin(2.0d * Math.PI * freq * time) * Short.MAX_VALUE * amplitude);
+  }
+
+  private static long legacyTriangle(final int sample, final double freq, final double amplitude,
+                                     final int sampleRate) {
+    final double time = (double) sample / sampleRate;
+    final double sine = Math.sin(2.0d * Math.PI * freq * time);
+    return Math.round((2 / Math.PI) * Math.asin(sine) * Short.MAX_VALUE * amplitude);
+  }
+
+  @Test
+  void testSineMatchesDirectCalculation() {
+    final Oscillator oscillator =
+        AmplitudeSoundSignalRenderer.SignalShape.SIN.makeOscillator(15500, 44100);
+    for (int i = 0; i < 44100 * 3; i++) {
+      final double amplitude = (i & 1) == 0 ? 1.0d : 0.15d;
+      assertTrue(Math.abs(legacySin(i, 15500, amplitude, 44100) - oscillator.next(amplitude)) <= 1,
+          "Sample " + i);
+    }
+  }
+
+  @Test
+  void testTriangleMatchesDirectCalculation() {
+    final Oscillator oscillator =
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE.makeOscillator(12916, 96000);
+    for (int i = 0; i < 96000; i++) {
+      assertTrue(Math.abs(legacyTriangle(i, 12916, 1.0d, 96000) - oscillator.next(1.0d)) <= 2,
+          "Sample " + i);
+    }
+  }
+
+  @Test
+  void testSquareHasOnlyTwoLevels() {
+    final Oscillator oscillator =
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE.makeOscillator(13700, 48000);
+    for (int i = 0; i < 48000; i++) {
+      final long value = oscillator.next(1.0d);
+      assertTrue(value == Short.MAX_VALUE || value == Short.MIN_VALUE);
+    }
+  }
+
+  @Test
+  void testBandLimitedShapesDoNotClip() {
+    for (final AmplitudeSoundSignalRenderer.SignalShape shape : new AmplitudeSoundSignalRenderer.SignalShape[] {
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE_BAND_LIMITED,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED}) {
+      final Oscillator oscillator = shape.makeOscillator(4100, 96000);
+      for (int i = 0; i < 96000; i++) {
+        final long value = oscillator.next(1.0d);
+        assertTrue(value >= -Short.MAX_VALUE && value <= Short.MAX_VALUE);
+      }
+    }
+  }
+
+  @Test
+  void testPhaseIsContinuousAfterSet() {
+    final Oscillator a = AmplitudeSoundSignalRenderer.SignalShape.SIN.makeOscillator(12916, 44100);
+    for (int i = 0; i < 1000; i++) {
+      a.next(1.0d);
+    }
+    final Oscillator b = AmplitudeSoundSignalRenderer.SignalShape.SIN.makeOscillator(12916, 44100);
+    b.setPhase(1000.0d * 12916 / 44100);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(a.next(1.0d), b.next(1.0d));
+    }
+  }
+
+  @Test
+  void testRenderEqualsSampleBySampleGeneration() {
+    final Oscillator a =
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED.makeOscillator(4100, 96000);
+    final Oscillator b =
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE_BAND_LIMITED.makeOscillator(4100, 96000);
+    a.setPhase(0.3d);
+    b.setPhase(0.3d);
+    final int gain = Oscillator.toGain(0.15d);
+    final byte[] rendered = new byte[2000];
+    assertEquals(rendered.length, a.render(rendered, 0, 1000, gain));
+    for (int i = 0; i < 1000; i++) {
+      final int value = b.next(gain);
+      assertEquals((byte) value, rendered[i * 2], "Sample " + i);
+      assertEquals((byte) (value >>> 8), rendered[i * 2 + 1], "Sample " + i);
+    }
+    assertEquals(a.getPhase(), b.getPhase());
+  }
+
+  @Test
+  void testGain() {
+    assertEquals(0, Oscillator.toGain(-0.5d));
+    assertEquals(Oscillator.GAIN_ONE, Oscillator.toGain(1.0d));
+    assertEquals(Oscillator.GAIN_ONE, Oscillator.toGain(2.0d));
+    final Oscillator oscillator =
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE.makeOscillator(1000, 8000);
+    for (int i = 0; i < 8000; i++) {
+      assertEquals(0, oscillator.next(0));
+    }
+  }
+
+  @Test
+  void testPhaseRoundTrip() {
+    final Oscillator oscillator =
+        AmplitudeSoundSignalRenderer.SignalShape.SIN.makeOscillator(12916.37d, 44100);
+    assertEquals(12916.37d / 44100, oscillator.getPhaseIncrement(), 1.0E-15);
+    oscillator.setPhase(3.625d);
+    assertEquals(0.625d, oscillator.getPhase(), 0.0d);
+  }
+}
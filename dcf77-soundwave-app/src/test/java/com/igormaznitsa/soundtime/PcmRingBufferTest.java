@@ -0,0 +1,103 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+class PcmRingBufferTest {
+
+  @Test
+  void testCapacityInMilliseconds() {
+    final PcmRingBuffer buffer = PcmRingBuffer.ofMilliseconds(250, 48000, 2);
+    assertEquals(12000 * 2, buffer.getCapacity());
+    assertEquals(2, buffer.getFrameBytes());
+    assertThrows(IllegalArgumentException.class, () -> PcmRingBuffer.ofMilliseconds(0, 48000, 2));
+  }
+
+  @Test
+  void testWholeFramesAndWrapAround() {
+    final PcmRingBuffer buffer = new PcmRingBuffer(5, 2);
+    final byte[] data = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+
+    assertEquals(6, buffer.write(data, 0, 7));
+    assertEquals(6, buffer.size());
+    assertEquals(4, buffer.write(data, 6, 6));
+    assertEquals(0, buffer.write(data, 10, 2));
+    assertEquals(10, buffer.size());
+
+    final byte[] read = new byte[12];
+    assertEquals(4, buffer.read(read, 0, 5));
+    assertArrayEquals(new byte[] {1, 2, 3, 4}, Arrays.copyOf(read, 4));
+
+    // wrapped around the array end
+    assertEquals(2, buffer.write(data, 10, 2));
+    assertEquals(8, buffer.read(read, 4, 8));
+    assertArrayEquals(data, read);
+    assertEquals(0, buffer.size());
+    assertEquals(12L, buffer.getWrittenBytes());
+    assertEquals(12L, buffer.getReadBytes());
+    assertEquals(0, buffer.read(read, 0, read.length));
+  }
+
+  @Test
+  void testProducerConsumerThreads() throws Exception {
+    final PcmRingBuffer buffer = new PcmRingBuffer(1021, 2);
+    final int total = 8_000_000;
+    final AtomicReference<String> error = new AtomicReference<>();
+
+    final Thread producer = new Thread(() -> {
+      final byte[] chunk = new byte[734];
+      int counter = 0;
+      while (counter < total) {
+        final int length = Math.min(chunk.length, total - counter);
+        for (int i = 0; i < length; i++) {
+          chunk[i] = (byte) (counter + i);
+        }
+        int offset = 0;
+        while (offset < length) {
+          final int written = buffer.write(chunk, offset, length - offset);
+          if (written == 0) {
+            LockSupport.parkNanos(10_000L);
+          }
+          offset += written;
+        }
+        counter += length;
+      }
+    }, "test-producer");
+
+    final Thread consumer = new Thread(() -> {
+      final byte[] chunk = new byte[512];
+      int counter = 0;
+      while (counter < total && error.get() == null) {
+        final int read = buffer.read(chunk, 0, chunk.length);
+        if (read == 0) {
+          LockSupport.parkNanos(10_000L);
+        }
+        for (int i = 0; i < read; i++) {
+          if (chunk[i] != (byte) (counter + i)) {
+            error.set("Wrong byte at " + (counter + i));
+            break;
+          }
+        }
+        counter += read;
+      }
+    }, "test-consumer");
+
+    producer.setDaemon(true);
+    consumer.setDaemon(true);
+    producer.start();
+    consumer.start();
+    producer.join(60_000L);
+    consumer.join(60_000L);
+
+    assertNull(error.get());
+    assertEquals(total, buffer.getReadBytes());
+    assertEquals(0, buffer.size());
+  }
+}
@@ -0,0 +1,47 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PlaybackMetricsCollectorTest {
+
+  @Test
+  void testReport() {
+    final PlaybackMetricsCollector collector = new PlaybackMetricsCollector(48000, 1000L);
+    assertFalse(collector.isReportDue(5_000_000_000L));
+
+    collector.syncLineStart(1_000_000_000L);
+    assertFalse(collector.checkUnderrun(9600, 9600));
+    collector.onWrite(2_000_000L, 48000);
+    collector.onWrite(4_000_000L, 48000);
+    assertFalse(collector.checkUnderrun(9600, 100));
+    assertTrue(collector.checkUnderrun(9600, 9600));
+    assertFalse(collector.isReportDue(1_500_000_000L));
+    assertTrue(collector.isReportDue(2_000_000_000L));
+
+    final PlaybackMetrics report =
+        collector.makeReport(3_000_000_000L, 7, 9600, 4800, 72000L, -120L);
+    assertEquals(7, report.getQueueSize());
+    assertEquals(2L, report.getWriteCalls());
+    assertEquals(3000L, report.getAverageWriteMicros());
+    assertEquals(4000L, report.getMaxWriteMicros());
+    assertEquals(1L, report.getUnderruns());
+    assertEquals(48000L, report.getBytesPerSecond());
+    assertEquals(96000L, report.getTotalBytes());
+    assertEquals(-500_000L, report.getDriftMicros());
+    assertEquals(-120L, report.getAlignOffsetSamples());
+
+    assertFalse(collector.isReportDue(3_500_000_000L));
+    final PlaybackMetrics next = collector.makeReport(4_000_000_000L, 0, 9600, 9600, 144000L, 0L);
+    assertEquals(0L, next.getWriteCalls());
+    assertEquals(0L, next.getBytesPerSecond());
+    assertEquals(96000L, next.getTotalBytes());
+    assertEquals(0L, next.getDriftMicros());
+
+    collector.syncLineStart(5_000_000_000L);
+    assertEquals(0L, collector.makeReport(6_000_000_000L, 0, 9600, 9600, 0L, 0L).getUnderruns());
+  }
+}
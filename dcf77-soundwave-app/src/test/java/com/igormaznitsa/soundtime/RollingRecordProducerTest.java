@@ -0,0 +1,119 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77Record;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RollingRecordProducerTest {
+
+  @Test
+  void testConsecutiveMinutesWithinLookAhead() throws Exception {
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 3,
+            8000, format -> FakeSourceDataLine.make(format, data -> {
+        }));
+    renderer.setMetricsLogging(false);
+
+    final List<MinuteBasedTimeSignalBits> played = new CopyOnWriteArrayList<>();
+    final AtomicInteger maxQueueSize = new AtomicInteger();
+    renderer.addAmplitudeSoundSignalRendererListener((source, record) -> {
+      played.add(record);
+      maxQueueSize.accumulateAndGet(source.getQueueSize(), Math::max);
+    });
+
+    final ZonedDateTime start =
+        ZonedDateTime.of(2026, 3, 29, 0, 58, 30, 0, Dcf77Record.ZONE_BERLIN);
+    final RollingRecordProducer producer =
+        new RollingRecordProducer(renderer, Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+            DstDetection.DST_AUTODETECT, 1000, 0.85d,
+            AmplitudeSoundSignalRenderer.SignalShape.SIN, 2);
+    try {
+      renderer.initAudioLine();
+      renderer.startAudio();
+      producer.start(start, null);
+      final long deadline = System.currentTimeMillis() + 30_000L;
+      while (played.size() < 8 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+      assertTrue(producer.isActive());
+    } finally {
+      producer.stop();
+      producer.join();
+      renderer.dispose();
+    }
+    assertFalse(producer.isActive());
+    assertTrue(played.size() >= 8, "Played: " + played.size());
+    assertTrue(maxQueueSize.get() <= 2, "Queue: " + maxQueueSize.get());
+
+    assertEquals(30, played.get(0).getSecond());
+    ZonedDateTime expected = start;
+    for (final MinuteBasedTimeSignalBits record : played) {
+      assertEquals(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(expected,
+          DstDetection.DST_AUTODETECT).toString(), record.toString());
+      expected = expected.withSecond(0).plusMinutes(1);
+    }
+  }
+
+  @Test
+  void testRestartContinuesFromNewTime() throws Exception {
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 3,
+            8000, format -> FakeSourceDataLine.make(format, data -> {
+        }));
+    renderer.setMetricsLogging(false);
+
+    final List<String> played = new CopyOnWriteArrayList<>();
+    renderer.addAmplitudeSoundSignalRendererListener(
+        (source, record) -> played.add(record.toString()));
+
+    final ZonedDateTime start =
+        ZonedDateTime.of(2026, 3, 29, 0, 58, 30, 0, Dcf77Record.ZONE_BERLIN);
+    final ZonedDateTime restart =
+        ZonedDateTime.of(2026, 10, 25, 2, 30, 10, 0, Dcf77Record.ZONE_BERLIN);
+    final String restartRecord = Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE
+        .makeTimeSignalBits(restart, DstDetection.DST_AUTODETECT).toString();
+
+    final RollingRecordProducer producer =
+        new RollingRecordProducer(renderer, Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+            DstDetection.DST_AUTODETECT, 1000, 0.85d,
+            AmplitudeSoundSignalRenderer.SignalShape.SIN, 2);
+    try {
+      renderer.initAudioLine();
+      renderer.startAudio();
+      producer.start(start, null);
+      final long deadline = System.currentTimeMillis() + 30_000L;
+      while (played.size() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+      producer.restart(restart, Instant.now());
+      while ((!played.contains(restartRecord)
+          || played.size() - played.indexOf(restartRecord) < 4)
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+    } finally {
+      producer.stop();
+      producer.join();
+      renderer.dispose();
+    }
+
+    final int restartIndex = played.indexOf(restartRecord);
+    assertTrue(restartIndex >= 2, "Restart index: " + restartIndex);
+    assertTrue(played.size() - restartIndex >= 4, "Played: " + played.size());
+    ZonedDateTime expected = restart;
+    for (final String record : played.subList(restartIndex, played.size())) {
+      assertEquals(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(expected,
+          DstDetection.DST_AUTODETECT).toString(), record);
+      expected = expected.withSecond(0).plusMinutes(1);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class SecondBoundaryAlignerTest {
+
+  @Test
+  void testStartOffset() {
+    final Instant secondStart = Instant.parse("2026-05-01T10:11:23Z");
+    assertEquals(0L,
+        SecondBoundaryAligner.calculateStartOffsetSamples(secondStart, secondStart, 48000));
+    assertEquals(12000L, SecondBoundaryAligner.calculateStartOffsetSamples(secondStart,
+        secondStart.plusMillis(250), 48000));
+    assertEquals(-66150L, SecondBoundaryAligner.calculateStartOffsetSamples(secondStart,
+        secondStart.minusMillis(1500), 44100));
+    assertEquals(1L, SecondBoundaryAligner.calculateStartOffsetSamples(secondStart,
+        secondStart.plusNanos(10_417), 96000));
+  }
+
+  @Test
+  void testPlayMoment() {
+    final Instant now = Instant.parse("2026-05-01T10:11:23.100Z");
+    assertEquals(now,
+        SecondBoundaryAligner.calculatePlayMoment(now, 0L, 0L, 48000, 0L));
+    assertEquals(now.plusMillis(100).plusNanos(1500_000L),
+        SecondBoundaryAligner.calculatePlayMoment(now, 9600L, 4800L, 48000, 1500L));
+    assertEquals(now,
+        SecondBoundaryAligner.calculatePlayMoment(now, 4800L, 9600L, 48000, 0L));
+  }
+}
@@ -0,0 +1,86 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77Record;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+
+class SecondTemplateCacheTest {
+
+  private static byte[] renderDcf77Continuously(final MinuteBasedTimeSignalBits record,
+                                                final double freq,
+                                                final int sampleRate,
+                                                final double amplitudeDeviation) {
+    final long data = record.getBitString(false);
+    final byte[] result = new byte[(60 - record.getSecond()) * sampleRate * 2];
+    final Oscillator oscillator =
+        AmplitudeSoundSignalRenderer.SignalShape.SIN.makeOscillator(freq, sampleRate);
+    int offset = 0;
+    for (int i = record.getSecond(); i < 60; i++) {
+      final int prefix =
+          i == 59 ? -1 : (((data >>> i) & 1L) != 0L ? sampleRate / 5 : sampleRate / 10);
+      for (int s = 0; s < sampleRate; s++) {
+        final long volume = oscillator.next(s <= prefix ? 1.0d - amplitudeDeviation : 1.0d);
+        result[offset++] = (byte) volume;
+        result[offset++] = (byte) (volume >>> 8);
+      }
+    }
+    return result;
+  }
+
+  private static void assertPcmClose(final byte[] expected, final byte[] actual) {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i += 2) {
+      final int e = (expected[i] & 0xFF) | (expected[i + 1] << 8);
+      final int a = (actual[i] & 0xFF) | (actual[i + 1] << 8);
+      assertTrue(Math.abs(e - a) <= 1, "Sample " + (i / 2) + ": " + e + " != " + a);
+    }
+  }
+
+  @Test
+  void testMinuteFromTemplatesEqualsContinuousSynthesis() {
+    final Dcf77Record record = new Dcf77Record(
+        ZonedDateTime.of(2026, 3, 1, 12, 34, 17, 0, Dcf77Record.ZONE_BERLIN),
+        DstDetection.DST_AUTODETECT);
+    final byte[] rendered = Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeMinuteWavData(
+        record, 12916, 44100, 2, AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.85d);
+    assertPcmClose(renderDcf77Continuously(record, 12916, 44100, 0.85d), rendered);
+  }
+
+  @Test
+  void testPhaseContinuityForFractionalCyclesPerSecond() {
+    final Dcf77Record record = new Dcf77Record(
+        ZonedDateTime.of(2026, 3, 1, 12, 34, 50, 0, Dcf77Record.ZONE_BERLIN),
+        DstDetection.DST_AUTODETECT);
+    final byte[] rendered = Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeMinuteWavData(
+        record, 12916.37d, 44100, 2, AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.85d);
+    assertPcmClose(renderDcf77Continuously(record, 12916.37d, 44100, 0.85d), rendered);
+  }
+
+  @Test
+  void testPhaseAfterSeconds() {
+    assertEquals(0.0d, SecondTemplateCache.phaseAfterSeconds(0.0d, 12916, 59));
+    assertEquals(0.5d, SecondTemplateCache.phaseAfterSeconds(0.0d, 100.5d, 3), 1.0E-12);
+    assertEquals(0.25d, SecondTemplateCache.phaseAfterSeconds(0.75d, 100.5d, 1), 1.0E-12);
+  }
+
+  @Test
+  void testCacheIsBounded() {
+    final SecondTemplateCache cache = new SecondTemplateCache(2);
+    final SecondTemplateCache.Key key1 = new SecondTemplateCache.Key("X", 1, 1000, 8000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.5d, 0.0d);
+    final SecondTemplateCache.Key key2 = new SecondTemplateCache.Key("X", 2, 1000, 8000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.5d, 0.0d);
+    final SecondTemplateCache.Key key3 = new SecondTemplateCache.Key("X", 3, 1000, 8000, 2,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 0.5d, 0.0d);
+    final byte[] template1 = cache.find(key1, () -> new byte[1]);
+    assertSame(template1, cache.find(key1, () -> new byte[1]));
+    cache.find(key2, () -> new byte[1]);
+    cache.find(key3, () -> new byte[1]);
+    assertEquals(2, cache.size());
+  }
+}
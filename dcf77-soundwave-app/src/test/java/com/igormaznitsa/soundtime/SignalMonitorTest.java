@@ -0,0 +1,184 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SignalMonitorTest {
+
+  private static final int SAMPLE_RATE = 48000;
+  private static final int CARRIER = 15500;
+
+  private static byte[] renderMinutes(final List<MinuteBasedTimeSignalBits> records) {
+    final AbstractMinuteBasedTimeSignalRenderer renderer =
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final byte[] result = new byte[records.size() * 60 * SAMPLE_RATE * 2];
+    int offset = 0;
+    for (final MinuteBasedTimeSignalBits record : records) {
+      offset += renderer.makeMinuteWavData(record, CARRIER, SAMPLE_RATE, 2,
+          AmplitudeSoundSignalRenderer.SignalShape.SIN, renderer.getAmplitudeDeviation(),
+          SecondTemplateCache.phaseAfterSeconds(0.0d, CARRIER, offset / (SAMPLE_RATE * 2)),
+          result, offset);
+    }
+    return result;
+  }
+
+  private static void awaitAnalyzed(final SignalMonitor monitor, final long bytes)
+      throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 30_000L;
+    while (monitor.getStatus().getAnalyzedBytes() < bytes
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertEquals(bytes, monitor.getStatus().getAnalyzedBytes());
+  }
+
+  @Test
+  void testDecodesTappedChunks() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new MinuteRecordCache(8).findMinutes(
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        ZonedDateTime.of(2026, 5, 4, 3, 2, 0, 0, ZoneOffset.UTC), 3,
+        DstDetection.DST_AUTODETECT);
+    final byte[] pcm = renderMinutes(records);
+
+    final List<MinuteBasedTimeSignalBits> decoded = new CopyOnWriteArrayList<>();
+    final SignalMonitor monitor = new SignalMonitor(
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.getDescriptor(), SAMPLE_RATE, 200_000,
+        new TimeSignalDecoder.Listener() {
+          @Override
+          public void onMinute(final double startSample, final int[] symbols,
+                               final MinuteBasedTimeSignalBits record) {
+            decoded.add(record);
+          }
+        });
+    monitor.setCarrierFrequency(CARRIER);
+
+    final Thread analyzer = new Thread(monitor::analyzerRunnable, "test-monitor");
+    analyzer.start();
+    try {
+      final int chunk = SAMPLE_RATE * 2 / 50;
+      for (int offset = 0; offset < pcm.length; offset += chunk) {
+        assertTrue(monitor.tap(pcm, offset, Math.min(chunk, pcm.length - offset)));
+      }
+      awaitAnalyzed(monitor, pcm.length);
+    } finally {
+      analyzer.interrupt();
+      analyzer.join();
+    }
+
+    final SignalMonitor.Status status = monitor.getStatus();
+    assertEquals(0L, status.getDroppedBytes());
+    assertTrue(status.isSynchronized(), status.toString());
+    assertEquals(1.0d, status.getCarrierLevel(), 0.01d);
+    assertEquals(0.85d, status.getModulationDepth(), 0.02d);
+    assertEquals(58, status.getLastSecond().getSecond());
+    // the first second has no start edge, the last minute is not closed by next second
+    assertEquals(2, decoded.size());
+    assertEquals(records.get(1).getBitString(false), decoded.get(1).getBitString(false));
+    assertEquals(records.get(1).extractSourceTime(), decoded.get(1).extractSourceTime());
+  }
+
+  @Test
+  void testDropsDataIfAnalyzerIsBehind() throws Exception {
+    final SignalMonitor monitor = new SignalMonitor(
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.getDescriptor(), SAMPLE_RATE, 100,
+        new TimeSignalDecoder.Listener() {
+        });
+    monitor.setCarrierFrequency(CARRIER);
+    final byte[] chunk = new byte[SAMPLE_RATE * 2 / 50];
+
+    // analyzer is not started, so the ring is filled and the rest is dropped
+    int accepted = 0;
+    for (int i = 0; i < 50; i++) {
+      if (monitor.tap(chunk, 0, chunk.length)) {
+        accepted++;
+      }
+    }
+    assertEquals(5, accepted);
+    assertEquals(45L * chunk.length, monitor.getDroppedBytes());
+    assertFalse(monitor.tap(chunk, 0, chunk.length));
+
+    final Thread analyzer = new Thread(monitor::analyzerRunnable, "test-monitor");
+    analyzer.start();
+    try {
+      awaitAnalyzed(monitor, 5L * chunk.length);
+      assertTrue(monitor.tap(chunk, 0, chunk.length));
+      awaitAnalyzed(monitor, 6L * chunk.length);
+    } finally {
+      analyzer.interrupt();
+      analyzer.join();
+    }
+    assertEquals(46L * chunk.length, monitor.getStatus().getDroppedBytes());
+  }
+
+  @Test
+  void testHoldsDataUntilAnalyzerReachesGap() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new MinuteRecordCache(8).findMinutes(
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        ZonedDateTime.of(2026, 5, 4, 3, 2, 0, 0, ZoneOffset.UTC), 1,
+        DstDetection.DST_AUTODETECT);
+    final byte[] pcm = renderMinutes(records);
+
+    // analyzer is stopped on the first decoded second, so it has taken part of data only
+    final CountDownLatch stalled = new CountDownLatch(1);
+    final CountDownLatch resume = new CountDownLatch(1);
+    final SignalMonitor monitor = new SignalMonitor(
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.getDescriptor(), SAMPLE_RATE, 10_000,
+        new TimeSignalDecoder.Listener() {
+          @Override
+          public void onSecond(final TimeSignalDecoder.DecodedSecond second) {
+            if (stalled.getCount() > 0L) {
+              stalled.countDown();
+              try {
+                resume.await();
+              } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+              }
+            }
+          }
+        });
+    monitor.setCarrierFrequency(CARRIER);
+
+    final int chunk = SAMPLE_RATE * 2 / 50;
+    int offset = 0;
+    long accepted = 0L;
+    while (monitor.tap(pcm, offset, chunk)) {
+      accepted += chunk;
+      offset += chunk;
+    }
+    offset += chunk;
+
+    final Thread analyzer = new Thread(monitor::analyzerRunnable, "test-monitor");
+    analyzer.start();
+    try {
+      assertTrue(stalled.await(30L, TimeUnit.SECONDS));
+      // there is free space in the ring now, but the second drop would hide the first gap
+      assertFalse(monitor.tap(pcm, offset, chunk));
+      offset += chunk;
+      assertFalse(monitor.tap(pcm, offset, chunk));
+      offset += chunk;
+      assertEquals(3L * chunk, monitor.getDroppedBytes());
+
+      resume.countDown();
+      awaitAnalyzed(monitor, accepted);
+      assertTrue(monitor.tap(pcm, offset, chunk));
+      awaitAnalyzed(monitor, accepted + chunk);
+    } finally {
+      resume.countDown();
+      analyzer.interrupt();
+      analyzer.join();
+    }
+    assertEquals(3L * chunk, monitor.getStatus().getDroppedBytes());
+    // decoder is restarted on the gap, so the signal after it is not framed yet
+    assertFalse(monitor.getStatus().isSynchronized());
+  }
+}
@@ -0,0 +1,104 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SignalSegmentsTest {
+
+  private static final List<MinuteBasedTimeSignalWavRenderer> RENDERERS = List.of(
+      Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+      WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+      JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+      BpcMinuteBasedTimeSignalSignalRenderer.INSTANCE);
+
+  @Test
+  void testAppendMergesSameGain() {
+    final SignalSegments segments = new SignalSegments()
+        .append(10, 100)
+        .append(0, 200)
+        .append(5, 100)
+        .append(20, Oscillator.GAIN_ONE);
+    for (int i = 0; i < 40; i++) {
+      segments.append(1, i % 2 == 0 ? 0 : 1);
+    }
+    assertEquals(42, segments.size());
+    assertEquals(15, segments.getSamples(0));
+    assertEquals(100, segments.getGain(0));
+    assertEquals(Oscillator.GAIN_ONE, segments.getGain(1));
+    assertEquals(75L, segments.getTotalSamples());
+    assertThrows(IllegalArgumentException.class, () -> segments.append(1, -1));
+    assertThrows(IndexOutOfBoundsException.class, () -> segments.getGain(42));
+
+    segments.clear();
+    assertEquals(0, segments.size());
+    assertEquals(0L, segments.getTotalSamples());
+  }
+
+  @Test
+  void testPlayEqualsOscillatorRender() {
+    final SignalSegments segments = new SignalSegments()
+        .append(1000, Oscillator.toGain(0.15d))
+        .append(3000, Oscillator.GAIN_ONE)
+        .append(777, 0);
+    final byte[] played = new byte[(int) segments.getTotalSamples() * 2];
+    final Oscillator oscillator = AmplitudeSoundSignalRenderer.SignalShape.SIN
+        .makeOscillator(15500, 48000);
+    oscillator.setPhase(0.3d);
+    assertEquals(played.length, segments.play(oscillator, played, 0));
+
+    final byte[] expected = new byte[played.length];
+    final Oscillator reference = AmplitudeSoundSignalRenderer.SignalShape.SIN
+        .makeOscillator(15500, 48000);
+    reference.setPhase(0.3d);
+    int position = reference.render(expected, 0, 1000, Oscillator.toGain(0.15d));
+    position = reference.render(expected, position, 3000, Oscillator.GAIN_ONE);
+    reference.render(expected, position, 777, 0);
+
+    assertArrayEquals(expected, played);
+    assertArrayEquals(expected, segments.play(AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        15500, 48000, 2, 0.3d));
+    assertThrows(IllegalArgumentException.class,
+        () -> segments.play(oscillator, new byte[played.length - 1], 0));
+  }
+
+  @Test
+  void testMinuteSegmentsOfAllProtocols() {
+    // the 15th minute contains JJY call sign
+    final ZonedDateTime time = ZonedDateTime.of(2026, 3, 1, 12, 15, 0, 0, ZoneOffset.UTC);
+    final int sampleRate = 48000;
+    for (final MinuteBasedTimeSignalWavRenderer renderer : RENDERERS) {
+      final MinuteBasedTimeSignalBits record =
+          renderer.makeTimeSignalBits(time, DstDetection.DST_AUTODETECT);
+      final SignalSegments segments =
+          renderer.makeMinuteSegments(record, sampleRate, renderer.getAmplitudeDeviation());
+      assertEquals(60L * sampleRate, segments.getTotalSamples(), renderer.getProtocolId());
+      assertTrue(segments.size() <= 300, renderer.getProtocolId() + ' ' + segments.size());
+
+      // every second template is the same as played segments of the second
+      for (int second = 0; second < 60; second++) {
+        final SignalSegments secondSegments = new SignalSegments();
+        renderer.makeSecondSegments(record, second, sampleRate,
+            renderer.getAmplitudeDeviation(), secondSegments);
+        assertEquals(sampleRate, secondSegments.getTotalSamples());
+        assertArrayEquals(
+            renderer.makeSecondWavData(record, second, 19375, sampleRate, 2,
+                AmplitudeSoundSignalRenderer.SignalShape.SQUARE,
+                renderer.getAmplitudeDeviation(), 0.25d),
+            secondSegments.play(AmplitudeSoundSignalRenderer.SignalShape.SQUARE, 19375,
+                sampleRate, 2, 0.25d),
+            renderer.getProtocolId() + " second " + second);
+      }
+    }
+  }
+}
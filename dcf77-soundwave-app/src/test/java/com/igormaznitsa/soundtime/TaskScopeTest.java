@@ -0,0 +1,97 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TaskScopeTest {
+
+  private static void sleepTillInterrupted() {
+    try {
+      Thread.sleep(60_000L);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void testVirtualThreadsDetectedByJvmVersion() {
+    assertEquals(Runtime.version().feature() >= 21, TaskScope.isVirtualThreadsSupported());
+    try (TaskScope scope = new TaskScope("test")) {
+      assertEquals(TaskScope.isVirtualThreadsSupported(), scope.isVirtualThreads());
+      assertEquals(TaskScope.isVirtualThreadsSupported(),
+          scope.start("task", () -> {
+          }).isVirtual());
+      assertFalse(scope.startPlatform("platform", () -> {
+      }, 0L).isVirtual());
+    }
+  }
+
+  @Test
+  void testCancelParentStopsAllTasks() throws Exception {
+    for (final boolean virtual : new boolean[] {false, true}) {
+      final TaskScope root = new TaskScope("root", null, virtual);
+      final TaskScope child = root.newChild("child");
+      final CountDownLatch started = new CountDownLatch(3);
+      root.start("first", () -> {
+        started.countDown();
+        sleepTillInterrupted();
+      });
+      child.start("second", () -> {
+        started.countDown();
+        sleepTillInterrupted();
+      });
+      child.startPlatform("third", () -> {
+        started.countDown();
+        sleepTillInterrupted();
+      }, 16384);
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      assertEquals(3, root.getActiveTaskCount());
+
+      root.cancel();
+      assertTrue(child.isCancelled());
+      assertTrue(root.awaitTermination(5000L));
+      assertEquals(0, root.getActiveTaskCount());
+      assertThrows(IllegalStateException.class, () -> child.start("late", () -> {
+      }));
+      assertThrows(IllegalStateException.class, () -> root.newChild("late"));
+    }
+  }
+
+  @Test
+  void testCloseFromOwnTask() throws Exception {
+    final TaskScope scope = new TaskScope("self");
+    final TaskScope.Task task = scope.start("closing", scope::close);
+    task.join();
+    assertTrue(scope.isCancelled());
+    assertEquals(0, scope.getActiveTaskCount());
+  }
+
+  @Test
+  void testScheduledTaskRepeatsTillCancel() throws Exception {
+    try (TaskScope scope = new TaskScope("scheduled")) {
+      final AtomicInteger counter = new AtomicInteger();
+      final CountDownLatch repeated = new CountDownLatch(3);
+      final TaskScope.Task task = scope.scheduleWithFixedDelay("counter", () -> {
+        counter.incrementAndGet();
+        repeated.countDown();
+        if (counter.get() == 1) {
+          throw new IllegalStateException("must not stop repetition");
+        }
+      }, 0L, 5L);
+      assertTrue(repeated.await(5, TimeUnit.SECONDS));
+      task.cancel(false);
+      assertTrue(task.join(5000L));
+      final int executions = counter.get();
+      Thread.sleep(30L);
+      assertEquals(executions, counter.get());
+      assertTrue(task.isCancelled());
+    }
+  }
+}
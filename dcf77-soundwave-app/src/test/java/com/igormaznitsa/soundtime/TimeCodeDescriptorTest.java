@@ -0,0 +1,96 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+
+class TimeCodeDescriptorTest {
+
+  private static final MinuteBasedTimeSignalBits RECORD = new MinuteBasedTimeSignalBits() {
+    @Override
+    public long getBitString(final boolean msb0) {
+      return 0b1010L;
+    }
+
+    @Override
+    public ZonedDateTime extractSourceTime() {
+      return null;
+    }
+
+    @Override
+    public int getSecond() {
+      return 0;
+    }
+  };
+
+  @Test
+  void testLowFirstPulses() {
+    final TimeCodeDescriptor descriptor = TimeCodeDescriptor.builder("TEST")
+        .pulse(0, 100)
+        .pulse(1, 200)
+        .pulse(2, 0)
+        .markers(2, 0, 59)
+        .build();
+    assertTrue(descriptor.isMarker(0));
+    assertFalse(descriptor.isMarker(1));
+    assertEquals(2, descriptor.findSymbol(RECORD, 0));
+    assertEquals(1, descriptor.findSymbol(RECORD, 1));
+    assertEquals(0, descriptor.findSymbol(RECORD, 2));
+
+    final SignalSegments segments =
+        descriptor.appendSymbolSegments(1, 1000, 0.75d, new SignalSegments());
+    assertEquals(2, segments.size());
+    assertEquals(201, segments.getSamples(0));
+    assertEquals(Oscillator.toGain(0.25d), segments.getGain(0));
+    assertEquals(799, segments.getSamples(1));
+    assertEquals(Oscillator.GAIN_ONE, segments.getGain(1));
+
+    final SignalSegments marker =
+        descriptor.appendSymbolSegments(2, 1000, 0.75d, new SignalSegments());
+    assertEquals(1, marker.size());
+    assertEquals(Oscillator.GAIN_ONE, marker.getGain(0));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> descriptor.appendSymbolSegments(3, 1000, 0.75d, new SignalSegments()));
+  }
+
+  @Test
+  void testHighFirstAndShaper() {
+    final TimeCodeDescriptor descriptor = TimeCodeDescriptor.builder("TEST")
+        .polarity(TimeCodeDescriptor.Polarity.HIGH_FIRST)
+        .pulse(0, 500)
+        .shaper(3, (sampleRate, deviation, segments) -> segments
+            .append(sampleRate / 2, 0)
+            .append(sampleRate - sampleRate / 2, Oscillator.GAIN_ONE))
+        .build();
+    final SignalSegments segments = new SignalSegments();
+    descriptor.appendSymbolSegments(0, 48000, 0.5d, segments);
+    descriptor.appendSymbolSegments(3, 48000, 0.5d, segments);
+    assertEquals(4, segments.size());
+    assertEquals(24001, segments.getSamples(0));
+    assertEquals(Oscillator.GAIN_ONE, segments.getGain(0));
+    assertEquals(Oscillator.toGain(0.5d), segments.getGain(1));
+    assertEquals(0, segments.getGain(2));
+    assertEquals(96000L, segments.getTotalSamples());
+  }
+
+  @Test
+  void testWrongDescription() {
+    assertThrows(IllegalStateException.class,
+        () -> TimeCodeDescriptor.builder("TEST").pulse(0, 100).markers(1, 59).build());
+    assertThrows(IllegalArgumentException.class,
+        () -> TimeCodeDescriptor.builder("TEST").pulse(0, 1000));
+    assertThrows(IllegalArgumentException.class,
+        () -> TimeCodeDescriptor.builder("TEST").markers(0, 60));
+
+    final TimeCodeDescriptor shortSymbol = TimeCodeDescriptor.builder("TEST")
+        .shaper(0, (sampleRate, deviation, segments) -> segments.append(sampleRate - 1, 0))
+        .build();
+    assertThrows(IllegalStateException.class,
+        () -> shortSymbol.appendSymbolSegments(0, 1000, 0.5d, new SignalSegments()));
+  }
+}
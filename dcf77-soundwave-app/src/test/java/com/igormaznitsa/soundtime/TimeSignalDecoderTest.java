@@ -0,0 +1,123 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TimeSignalDecoderTest {
+
+  // JJY transmits call sign in the 15th minute, so morse seconds are covered too
+  private static final ZonedDateTime START = ZonedDateTime.of(2026, 3, 1, 12, 13, 0, 0,
+      ZoneOffset.UTC);
+
+  // edges are found with precision about one sample
+  private static double maxJitterMicros(final int sampleRate) {
+    return 1.5d * 1.0e6d / sampleRate;
+  }
+
+  private static LoopbackVerifier.Report assertLoopback(
+      final AbstractMinuteBasedTimeSignalRenderer renderer,
+      final AmplitudeSoundSignalRenderer.SignalShape shape,
+      final double freq,
+      final int sampleRate) {
+    final List<MinuteBasedTimeSignalBits> records =
+        new MinuteRecordCache(16).findMinutes(renderer, START, 4, DstDetection.DST_AUTODETECT);
+    final LoopbackVerifier.Report report = LoopbackVerifier.verify(renderer, records, freq,
+        sampleRate, shape, renderer.getAmplitudeDeviation());
+    final String message = renderer.getProtocolId() + ' ' + shape + ": " + report;
+    assertTrue(report.isPassed(), message);
+    assertEquals(4, report.getDecodedMinutes(), message);
+    assertTrue(report.getStartJitter().getMaxAbsMicros() < maxJitterMicros(sampleRate), message);
+    assertTrue(report.getPulseEndJitter().getMaxAbsMicros() < maxJitterMicros(sampleRate),
+        message);
+    assertEquals(renderer.getAmplitudeDeviation(), report.getModulationDepth(), 0.02d, message);
+    return report;
+  }
+
+  @Test
+  void testLoopbackDcf77() {
+    assertLoopback(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 13000.5d, 48000);
+    assertLoopback(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE, 4100, 44100);
+  }
+
+  @Test
+  void testLoopbackWwvb() {
+    assertLoopback(WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE, 13000.5d, 48000);
+  }
+
+  @Test
+  void testLoopbackJjy() {
+    assertLoopback(JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, 15900, 48000);
+  }
+
+  @Test
+  void testLoopbackBpc() {
+    assertLoopback(BpcMinuteBasedTimeSignalSignalRenderer.INSTANCE,
+        AmplitudeSoundSignalRenderer.SignalShape.SQUARE_BAND_LIMITED, 13700, 96000);
+  }
+
+  @Test
+  void testDecodeWavStreamStartedInsideMinute() throws IOException {
+    final AbstractMinuteBasedTimeSignalRenderer renderer =
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE;
+    final int sampleRate = 48000;
+    final List<MinuteBasedTimeSignalBits> records = new MinuteRecordCache(16).findMinutes(
+        renderer, START.plusSeconds(25), 3, DstDetection.DST_AUTODETECT);
+
+    final ByteBuffer wav = ByteBuffer.allocate(
+        WavFileWriter.HEADER_SIZE + (60 * 3 - 25) * sampleRate * 2);
+    wav.put(WavFileWriter.makeHeader(sampleRate, 1, 16, wav.capacity() - WavFileWriter.HEADER_SIZE));
+    for (final MinuteBasedTimeSignalBits record : records) {
+      renderer.makeMinuteWavData(record, 15500, sampleRate, 2,
+          AmplitudeSoundSignalRenderer.SignalShape.SIN, renderer.getAmplitudeDeviation(), 0.0d,
+          wav);
+    }
+
+    final List<MinuteBasedTimeSignalBits> decoded = new ArrayList<>();
+    try (WavFileReader reader = new WavFileReader(new ByteArrayInputStream(wav.array()))) {
+      assertEquals(sampleRate, reader.getSampleRate());
+      assertEquals(1, reader.getChannels());
+      assertEquals(16, reader.getBitsPerSample());
+      final TimeSignalDecoder decoder = new TimeSignalDecoder(renderer.getDescriptor(), 15500,
+          reader.getSampleRate(), new TimeSignalDecoder.Listener() {
+        @Override
+        public void onMinute(final double startSample, final int[] symbols,
+                             final MinuteBasedTimeSignalBits record) {
+          decoded.add(record);
+        }
+      });
+      // odd buffer size splits samples between calls
+      final byte[] buffer = new byte[4095];
+      int read;
+      while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+        decoder.process(buffer, 0, read);
+      }
+      decoder.flush();
+      assertTrue(decoder.getStartJitter().getMaxAbsMicros() < maxJitterMicros(sampleRate));
+      assertTrue(decoder.getWidthJitter().getMaxAbsMicros() < 2.0d * maxJitterMicros(sampleRate));
+    }
+
+    // the first minute is not complete, next ones are decoded into the same records
+    assertEquals(3, decoded.size());
+    assertEquals(records.get(1).getBitString(false), decoded.get(1).getBitString(false));
+    assertEquals(records.get(2).getBitString(false), decoded.get(2).getBitString(false));
+    assertEquals(records.get(1).extractSourceTime(), decoded.get(1).extractSourceTime());
+    assertTrue(((AbstractMinuteBasedTimeSignalRecord) decoded.get(2)).isValid());
+  }
+}
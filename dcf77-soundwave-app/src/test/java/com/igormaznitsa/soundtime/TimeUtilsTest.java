@@ -0,0 +1,36 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+
+class TimeUtilsTest {
+
+  @Test
+  void testUpcomingMinuteKeepsSecondOfPlayback() {
+    final ZonedDateTime now =
+        ZonedDateTime.of(2026, 12, 31, 23, 59, 42, 250_000_000, ZoneId.of("Europe/Berlin"));
+    final ZonedDateTime upcoming = TimeUtils.upcomingMinute(now);
+    assertEquals(ZonedDateTime.of(2027, 1, 1, 0, 0, 42, 250_000_000, ZoneId.of("Europe/Berlin")),
+        upcoming);
+    // second start used for alignment is not changed
+    assertEquals(now.getNano(), upcoming.getNano());
+  }
+
+  @Test
+  void testRestartRecordEncodesUpcomingMinute() {
+    // restart of continuous playback and start of playback make the same record
+    final ZonedDateTime now =
+        ZonedDateTime.of(2026, 3, 1, 10, 15, 20, 0, ZoneId.of("Europe/Berlin"));
+    final MinuteBasedTimeSignalBits record =
+        Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(
+            TimeUtils.upcomingMinute(now), DstDetection.DST_AUTODETECT);
+    assertEquals(20, record.getSecond());
+    assertEquals(ZonedDateTime.of(2026, 3, 1, 10, 16, 0, 0, ZoneId.of("Europe/Berlin"))
+        .toInstant(), record.extractSourceTime().truncatedTo(ChronoUnit.MINUTES).toInstant());
+  }
+}
@@ -0,0 +1,205 @@
+package com.igormaznitsa.soundtime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77Record;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WavFileWriterTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testFileEqualsInMemoryRendering() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+    ZonedDateTime time = ZonedDateTime.of(2026, 5, 1, 23, 58, 0, 0, Dcf77Record.ZONE_BERLIN);
+    for (int i = 0; i < 3; i++) {
+      records.add(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+          DstDetection.DST_AUTODETECT));
+      time = time.plusMinutes(1);
+    }
+
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, a -> null);
+
+    final byte[] inMemory =
+        renderer.renderWav(records, 1000, 0.85d, AmplitudeSoundSignalRenderer.SignalShape.SIN);
+
+    final File file = this.tempDir.resolve("test.wav").toFile();
+    final long length = renderer.renderWavParallel(records, 1000, 0.85d,
+        AmplitudeSoundSignalRenderer.SignalShape.SIN, file.toPath(), ForkJoinPool.commonPool());
+    assertEquals(file.length(), length);
+
+    final AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(file);
+    assertEquals(AudioFileFormat.Type.WAVE, fileFormat.getType());
+    assertEquals(3L * 60 * 8000, fileFormat.getFrameLength());
+
+    final byte[] written = Files.readAllBytes(file.toPath());
+    final int pcmLength = 3 * 60 * 8000 * 2;
+    assertArrayEquals(
+        Arrays.copyOfRange(inMemory, inMemory.length - pcmLength, inMemory.length),
+        Arrays.copyOfRange(written, WavFileWriter.HEADER_SIZE, written.length));
+  }
+
+  @Test
+  void testParallelRenderingEqualsStreamed() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+    ZonedDateTime time = ZonedDateTime.of(2026, 5, 1, 23, 58, 17, 0, Dcf77Record.ZONE_BERLIN);
+    for (int i = 0; i < 5; i++) {
+      records.add(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+          DstDetection.DST_AUTODETECT));
+      time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, a -> null);
+
+    final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+    renderer.renderWav(records, 1000, 0.85d, AmplitudeSoundSignalRenderer.SignalShape.SQUARE,
+        streamed);
+    final Path parallel = this.tempDir.resolve("parallel.wav");
+    final ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      final long length = renderer.renderWavParallel(records, 1000, 0.85d,
+          AmplitudeSoundSignalRenderer.SignalShape.SQUARE, parallel, pool);
+      assertEquals(Files.size(parallel), length);
+    } finally {
+      pool.shutdown();
+    }
+    assertArrayEquals(streamed.toByteArray(), Files.readAllBytes(parallel));
+  }
+
+  @Test
+  void testParallelRenderingOfMinutesNotDividedByPool() throws Exception {
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, a -> null);
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (final int minutes : new int[] {1, 3, 7, 9}) {
+        final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+        ZonedDateTime time = ZonedDateTime.of(2026, 5, 1, 23, 55, 33, 0, Dcf77Record.ZONE_BERLIN);
+        for (int i = 0; i < minutes; i++) {
+          records.add(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+              DstDetection.DST_AUTODETECT));
+          time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        }
+
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        renderer.renderWav(records, 1000, 0.85d, AmplitudeSoundSignalRenderer.SignalShape.SIN,
+            expected);
+        final Path parallel = this.tempDir.resolve("parallel" + minutes + ".wav");
+        final long length = renderer.renderWavParallel(records, 1000, 0.85d,
+            AmplitudeSoundSignalRenderer.SignalShape.SIN, parallel, pool);
+
+        assertEquals(expected.size(), length, minutes + " minute(s)");
+        assertArrayEquals(expected.toByteArray(), Files.readAllBytes(parallel),
+            minutes + " minute(s)");
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testParallelRenderingOfLazyRecordsInSeveralBatches() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+    ZonedDateTime time = ZonedDateTime.of(2026, 5, 1, 23, 55, 12, 0, Dcf77Record.ZONE_BERLIN);
+    for (int i = 0; i < 11; i++) {
+      records.add(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+          DstDetection.DST_AUTODETECT));
+      time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+    // not a list, so records can be taken only by iteration
+    final Iterable<MinuteBasedTimeSignalBits> lazyRecords = records::iterator;
+
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, a -> null);
+    final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    renderer.renderWav(records, 1000, 0.85d, AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        expected);
+
+    // single thread pool renders batches of four minutes
+    final ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      final Path parallel = this.tempDir.resolve("lazy.wav");
+      final long length = renderer.renderWavParallel(lazyRecords, 1000, 0.85d,
+          AmplitudeSoundSignalRenderer.SignalShape.SIN, parallel, pool);
+      assertEquals(expected.size(), length);
+      assertArrayEquals(expected.toByteArray(), Files.readAllBytes(parallel));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testStreamRenderingEqualsInMemoryRendering() throws Exception {
+    final List<MinuteBasedTimeSignalBits> records = new ArrayList<>();
+    ZonedDateTime time = ZonedDateTime.of(2026, 5, 1, 23, 58, 41, 0, Dcf77Record.ZONE_BERLIN);
+    for (int i = 0; i < 2; i++) {
+      records.add(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE.makeTimeSignalBits(time,
+          DstDetection.DST_AUTODETECT));
+      time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+
+    final AmplitudeSoundSignalRenderer renderer =
+        new AmplitudeSoundSignalRenderer(Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE, 4,
+            8000, a -> null);
+
+    final byte[] inMemory = renderer.renderWav(records, 1000, 0.85d,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE);
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    final long length = renderer.renderWav(records, 1000, 0.85d,
+        AmplitudeSoundSignalRenderer.SignalShape.TRIANGLE, stream);
+
+    assertEquals(stream.size(), length);
+    final byte[] streamed = stream.toByteArray();
+    final int pcmLength = (19 + 60) * 8000 * 2;
+    assertEquals(WavFileWriter.HEADER_SIZE + pcmLength, streamed.length);
+    assertArrayEquals(
+        Arrays.copyOfRange(inMemory, inMemory.length - pcmLength, inMemory.length),
+        Arrays.copyOfRange(streamed, WavFileWriter.HEADER_SIZE, streamed.length));
+  }
+
+  @Test
+  void testRf64HeaderForHugeData() {
+    final long dataBytes = 7L * 24 * 3600 * 44100 * 2;
+    final ByteBuffer header =
+        WavFileWriter.makeHeader(44100, 1, 16, dataBytes).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(WavFileWriter.HEADER_SIZE, header.remaining());
+
+    final byte[] id = new byte[4];
+    header.get(id);
+    assertEquals("RF64", new String(id, StandardCharsets.US_ASCII));
+    assertEquals(-1, header.getInt());
+    header.position(12);
+    header.get(id);
+    assertEquals("ds64", new String(id, StandardCharsets.US_ASCII));
+    assertEquals(28, header.getInt());
+    assertEquals(WavFileWriter.HEADER_SIZE - 8 + dataBytes, header.getLong());
+    assertEquals(dataBytes, header.getLong());
+    assertEquals(dataBytes / 2, header.getLong());
+  }
+}
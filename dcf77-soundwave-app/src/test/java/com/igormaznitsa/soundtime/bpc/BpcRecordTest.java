@@ -160,6 +160,19 @@ class BpcRecordTest {
     assertThrows(IllegalArgumentException.class, () -> new BpcRecord(0, 0, 1, 1, 1, 100, 0));
   }
 
+  @Test
+  void testDirectEncodingEqualsParsedText() {
+    ZonedDateTime time = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZONE_CHN);
+    for (int i = 0; i < 2000; i++) {
+      final BpcRecord record = new BpcRecord(time);
+      assertTrue(record.isValid(), time.toString());
+      assertEquals(time, record.extractSourceTime());
+      assertEquals(new BpcRecord(record.toBinaryString(false)).getBcpBitString(),
+          record.getBcpBitString(), time.toString());
+      time = time.plusMinutes(7919);
+    }
+  }
+
   @Test
   void testInvalidHourPayloadDetectedByIsValid() {
     final BpcRecord valid = new BpcRecord(
@@ -0,0 +1,90 @@
+package com.igormaznitsa.soundtime.benchmarks;
+
+import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.DstDetection;
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.SecondTemplateCache;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Synthesis of whole minute PCM data for all protocols, signal shapes and sample rates. Warm
+ * variant shows assembling of minute from cached second templates, cold variant drops the
+ * template cache before each call so that every symbol is synthesized again. Allocating variant
+ * makes new minute buffer for each call, allocation rate against reused buffer is shown by
+ * {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MinuteWavDataBenchmark {
+
+  @Param({"DCF77", "JJY", "WWVB", "BPC"})
+  public String protocol;
+
+  @Param({"SIN", "SQUARE", "TRIANGLE", "SQUARE_BAND_LIMITED", "TRIANGLE_BAND_LIMITED"})
+  public AmplitudeSoundSignalRenderer.SignalShape shape;
+
+  @Param({"44100", "48000", "96000"})
+  public int sampleRate;
+
+  private MinuteBasedTimeSignalWavRenderer renderer;
+  private MinuteBasedTimeSignalBits record;
+  private int carrierFreq;
+  private byte[] target;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.renderer = Protocols.find(this.protocol);
+    // minute 15 makes JJY to render call sign seconds
+    this.record = this.renderer.makeTimeSignalBits(
+        ZonedDateTime.of(2026, 3, 17, 10, 15, 0, 0, ZoneOffset.UTC)
+            .withZoneSameInstant(this.renderer.getStandardSignalZoneId()),
+        DstDetection.DST_AUTODETECT);
+    this.carrierFreq = this.renderer.getAllowedCarrierFrequencies().get(0);
+    this.target = new byte[60 * this.sampleRate * 2];
+  }
+
+  @Benchmark
+  public byte[] makeMinuteWavData() {
+    this.renderer.makeMinuteWavData(this.record, this.carrierFreq, this.sampleRate, 2, this.shape,
+        this.renderer.getAmplitudeDeviation(), this.target, 0);
+    return this.target;
+  }
+
+  @Benchmark
+  public byte[] makeMinuteWavDataAllocating() {
+    return this.renderer.makeMinuteWavData(this.record, this.carrierFreq, this.sampleRate, 2,
+        this.shape, this.renderer.getAmplitudeDeviation());
+  }
+
+  @Benchmark
+  public byte[] makeMinuteWavDataColdCache(final ColdCache coldCache) {
+    return this.makeMinuteWavData();
+  }
+
+  @State(Scope.Thread)
+  public static class ColdCache {
+    @Setup(Level.Invocation)
+    public void clear() {
+      SecondTemplateCache.INSTANCE.clear();
+    }
+  }
+}
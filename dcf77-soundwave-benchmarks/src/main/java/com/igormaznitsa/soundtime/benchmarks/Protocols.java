@@ -0,0 +1,31 @@
+package com.igormaznitsa.soundtime.benchmarks;
+
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import com.igormaznitsa.soundtime.bpc.BpcMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.dcf77.Dcf77MinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.jjy.JjyMinuteBasedTimeSignalSignalRenderer;
+import com.igormaznitsa.soundtime.wwvb.WwvbMinuteBasedTimeSignalSignalRenderer;
+
+/**
+ * Protocol renderers selectable by benchmark parameter.
+ */
+final class Protocols {
+
+  private Protocols() {
+  }
+
+  static MinuteBasedTimeSignalWavRenderer find(final String id) {
+    switch (id) {
+      case "DCF77":
+        return Dcf77MinuteBasedTimeSignalSignalRenderer.INSTANCE;
+      case "JJY":
+        return JjyMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+      case "WWVB":
+        return WwvbMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+      case "BPC":
+        return BpcMinuteBasedTimeSignalSignalRenderer.INSTANCE;
+      default:
+        throw new IllegalArgumentException("Unknown protocol: " + id);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.igormaznitsa.soundtime.benchmarks;
+
+import com.igormaznitsa.soundtime.DstDetection;
+import com.igormaznitsa.soundtime.bpc.BpcRecord;
+import com.igormaznitsa.soundtime.dcf77.Dcf77Record;
+import com.igormaznitsa.soundtime.jjy.JjyRecord;
+import com.igormaznitsa.soundtime.wwvb.WwvbRecord;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction of minute records, it includes encoding of time fields into bit strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecordBenchmark {
+
+  private ZonedDateTime time;
+  private BpcRecord bpcRecord;
+  private String bpcBits;
+
+  @Setup
+  public void setup() {
+    this.time = ZonedDateTime.of(2026, 3, 17, 10, 15, 0, 0, ZoneOffset.UTC);
+    this.bpcRecord = new BpcRecord(this.time);
+    this.bpcBits = this.bpcRecord.toBinaryString(true);
+  }
+
+  @Benchmark
+  public Dcf77Record dcf77Record() {
+    return new Dcf77Record(this.time, DstDetection.DST_AUTODETECT);
+  }
+
+  @Benchmark
+  public WwvbRecord wwvbRecord() {
+    return new WwvbRecord(this.time, DstDetection.DST_AUTODETECT);
+  }
+
+  @Benchmark
+  public JjyRecord jjyRecord() {
+    return JjyRecord.makeWithAnnounceCallSignAwareness(this.time);
+  }
+
+  @Benchmark
+  public BpcRecord bpcRecord() {
+    return new BpcRecord(this.time);
+  }
+
+  @Benchmark
+  public String bpcToBinaryString() {
+    return this.bpcRecord.toBinaryString(true);
+  }
+
+  @Benchmark
+  public BpcRecord bpcRecordFromString() {
+    return new BpcRecord(this.bpcBits);
+  }
+}
@@ -0,0 +1,102 @@
+package com.igormaznitsa.soundtime.benchmarks;
+
+import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.DstDetection;
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalBits;
+import com.igormaznitsa.soundtime.MinuteBasedTimeSignalWavRenderer;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of several minutes as WAV, in memory and into file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderWavBenchmark {
+
+  @Param({"DCF77", "JJY", "WWVB", "BPC"})
+  public String protocol;
+
+  @Param({"15"})
+  public int minutes;
+
+  @Param({"48000"})
+  public int sampleRate;
+
+  private MinuteBasedTimeSignalWavRenderer minuteRenderer;
+  private AmplitudeSoundSignalRenderer renderer;
+  private List<MinuteBasedTimeSignalBits> records;
+  private int carrierFreq;
+  private Path file;
+
+  @Setup
+  public void setup() throws IOException {
+    this.minuteRenderer = Protocols.find(this.protocol);
+    this.renderer =
+        new AmplitudeSoundSignalRenderer(this.minuteRenderer, 1, this.sampleRate, a -> null);
+    this.carrierFreq = this.minuteRenderer.getAllowedCarrierFrequencies().get(0);
+    this.records = new ArrayList<>(this.minutes);
+    ZonedDateTime time = ZonedDateTime.of(2026, 3, 17, 10, 0, 0, 0, ZoneOffset.UTC)
+        .withZoneSameInstant(this.minuteRenderer.getStandardSignalZoneId());
+    for (int i = 0; i < this.minutes; i++) {
+      this.records.add(this.minuteRenderer.makeTimeSignalBits(time, DstDetection.DST_AUTODETECT));
+      time = time.plusMinutes(1);
+    }
+    this.file = Files.createTempFile("benchmark", ".wav");
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    this.renderer.dispose();
+    Files.deleteIfExists(this.file);
+  }
+
+  @Benchmark
+  public byte[] renderWavInMemory() throws IOException {
+    return this.renderer.renderWav(this.records, this.carrierFreq,
+        this.minuteRenderer.getAmplitudeDeviation(),
+        AmplitudeSoundSignalRenderer.SignalShape.SIN);
+  }
+
+  @Benchmark
+  public long renderWavStreamedFile() throws IOException {
+    try (final OutputStream outputStream = new BufferedOutputStream(
+        Files.newOutputStream(this.file))) {
+      return this.renderer.renderWav(this.records, this.carrierFreq,
+          this.minuteRenderer.getAmplitudeDeviation(),
+          AmplitudeSoundSignalRenderer.SignalShape.SIN, outputStream);
+    }
+  }
+
+  @Benchmark
+  public long renderWavParallelFile() throws IOException {
+    return this.renderer.renderWavParallel(this.records, this.carrierFreq,
+        this.minuteRenderer.getAmplitudeDeviation(), AmplitudeSoundSignalRenderer.SignalShape.SIN,
+        this.file, ForkJoinPool.commonPool());
+  }
+}
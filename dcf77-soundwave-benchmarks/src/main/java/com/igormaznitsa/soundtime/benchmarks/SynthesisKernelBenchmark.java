@@ -0,0 +1,80 @@
+package com.igormaznitsa.soundtime.benchmarks;
+
+import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.Oscillator;
+import com.igormaznitsa.soundtime.SynthesisKernel;
+import com.igormaznitsa.soundtime.SynthesisKernels;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of one second of carrier by scalar and vector synthesis kernels. The vector kernel is
+ * present only if benchmarks are built with profile {@code vector} and forks are started with the
+ * incubator module, for instance
+ * {@code java -jar benchmarks.jar SynthesisKernelBenchmark -jvmArgsAppend
+ * --add-modules=jdk.incubator.vector}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SynthesisKernelBenchmark {
+
+  @Param({"scalar", "vector"})
+  public String kernel;
+
+  @Param({"SIN", "SQUARE_BAND_LIMITED"})
+  public AmplitudeSoundSignalRenderer.SignalShape shape;
+
+  @Param({"48000", "96000"})
+  public int sampleRate;
+
+  private Oscillator oscillator;
+  private byte[] target;
+
+  private static SynthesisKernel findKernel(final String name) {
+    if (SynthesisKernels.getScalar().getName().equals(name)) {
+      return SynthesisKernels.getScalar();
+    }
+    for (final SynthesisKernel provided : ServiceLoader.load(SynthesisKernel.class)) {
+      if (provided.getName().equals(name) && provided.isAvailable()) {
+        return provided;
+      }
+    }
+    throw new IllegalStateException("Synthesis kernel is not available: " + name);
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final double freq = 15500.0d;
+    this.oscillator = new Oscillator(this.shape.findWaveTable(freq, this.sampleRate), freq,
+        this.sampleRate, findKernel(this.kernel));
+    this.target = new byte[this.sampleRate * 2];
+  }
+
+  @Benchmark
+  public byte[] renderSecondFullGain() {
+    this.oscillator.render(this.target, 0, this.sampleRate, Oscillator.GAIN_ONE);
+    return this.target;
+  }
+
+  @Benchmark
+  public byte[] renderSecondReducedGain() {
+    this.oscillator.render(this.target, 0, this.sampleRate, Oscillator.GAIN_ONE * 15 / 100);
+    return this.target;
+  }
+}
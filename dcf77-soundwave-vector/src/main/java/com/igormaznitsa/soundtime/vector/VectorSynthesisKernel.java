@@ -0,0 +1,99 @@
+package com.igormaznitsa.soundtime.vector;
+
+import com.igormaznitsa.soundtime.SynthesisKernel;
+import com.igormaznitsa.soundtime.SynthesisKernels;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Synthesis kernel processing samples in SIMD lanes of Vector API. Table samples are picked by
+ * scalar code, interpolation and gain are calculated for all lanes at once in 32 bit lanes, 64
+ * bit product of the scalar kernel is split into two 32 bit products so that the output is
+ * bit-identical. Samples which don't fill whole vector are rendered by the scalar kernel.
+ *
+ * @author Igor Maznitsa
+ */
+public final class VectorSynthesisKernel implements SynthesisKernel {
+
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+  private static final int LANES = SPECIES.length();
+  /**
+   * Less lanes are emulated by Java code slower than scalar loop.
+   */
+  private static final int MIN_LANES = 4;
+  /**
+   * Lane buffers between scalar lookup and vector math, the kernel is shared by rendering threads
+   * so that each thread has its own ones.
+   */
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+  /**
+   * Constructor called by service loader.
+   */
+  public VectorSynthesisKernel() {
+  }
+
+  @Override
+  public String getName() {
+    return "vector";
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return LANES >= MIN_LANES;
+  }
+
+  @Override
+  public long render(final int[] samples, final int[] deltas, final long phase,
+                     final long phaseIncrement, final int gain, final byte[] target,
+                     final int offset, final int count) {
+    final Scratch scratch = SCRATCH.get();
+    final int[] words = scratch.words;
+    final int[] levels = scratch.levels;
+    final int[] slopes = scratch.slopes;
+    final int[] volumes = scratch.volumes;
+    final int bound = SPECIES.loopBound(count);
+
+    long current = phase;
+    int index = offset;
+    for (int i = 0; i < bound; i += LANES) {
+      // table lookup is made by scalar code, gather of JDK 17 incubator crashes C2 on some CPUs
+      for (int lane = 0; lane < LANES; lane++) {
+        final int word = (int) (current >>> 32);
+        final int position = word >>> (INDEX_SHIFT - 32);
+        words[lane] = word;
+        levels[lane] = samples[position];
+        slopes[lane] = deltas[position];
+        current += phaseIncrement;
+      }
+      final IntVector fraction = IntVector.fromArray(SPECIES, words, 0)
+          .lanewise(VectorOperators.LSHR, FRACTION_SHIFT - 32).and(FRACTION_MASK);
+      final IntVector value = IntVector.fromArray(SPECIES, levels, 0)
+          .lanewise(VectorOperators.LSHL, FRACTION_BITS)
+          .add(IntVector.fromArray(SPECIES, slopes, 0).mul(fraction));
+
+      // value is not greater than 32767 << 15, so both products fit into 32 bits
+      final IntVector high = value.lanewise(VectorOperators.ASHR, FRACTION_BITS).mul(gain);
+      final IntVector low = value.and(FRACTION_MASK).mul(gain)
+          .lanewise(VectorOperators.ASHR, FRACTION_BITS);
+      high.add(low).add(1 << 15).lanewise(VectorOperators.ASHR, 16).intoArray(volumes, 0);
+
+      for (int lane = 0; lane < LANES; lane++) {
+        final int volume = volumes[lane];
+        target[index] = (byte) volume;
+        target[index + 1] = (byte) (volume >>> 8);
+        index += 2;
+      }
+    }
+    return SynthesisKernels.getScalar().render(samples, deltas, current, phaseIncrement, gain,
+        target, index, count - bound);
+  }
+
+  private static final class Scratch {
+    private final int[] words = new int[LANES];
+    private final int[] levels = new int[LANES];
+    private final int[] slopes = new int[LANES];
+    private final int[] volumes = new int[LANES];
+  }
+}
@@ -0,0 +1,54 @@
+package com.igormaznitsa.soundtime.vector;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.igormaznitsa.soundtime.AmplitudeSoundSignalRenderer;
+import com.igormaznitsa.soundtime.Oscillator;
+import com.igormaznitsa.soundtime.SynthesisKernel;
+import com.igormaznitsa.soundtime.SynthesisKernels;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class VectorSynthesisKernelTest {
+
+  @Test
+  void testSelectedByServiceLoader() {
+    final VectorSynthesisKernel kernel = new VectorSynthesisKernel();
+    assertEquals(kernel.isAvailable() ? "vector" : "scalar",
+        SynthesisKernels.getActive().getName());
+  }
+
+  @Test
+  void testBitIdenticalToScalar() {
+    final SynthesisKernel vector = new VectorSynthesisKernel();
+    final Random random = new Random(12345L);
+    for (final AmplitudeSoundSignalRenderer.SignalShape shape :
+        AmplitudeSoundSignalRenderer.SignalShape.values()) {
+      for (final int sampleRate : new int[] {44100, 48000, 96000}) {
+        final double freq = 1000.0d + random.nextInt(20000) + random.nextDouble();
+        final Oscillator scalarOscillator = new Oscillator(shape.findWaveTable(freq, sampleRate),
+            freq, sampleRate, SynthesisKernels.getScalar());
+        final Oscillator vectorOscillator = new Oscillator(shape.findWaveTable(freq, sampleRate),
+            freq, sampleRate, vector);
+        final double phase = random.nextDouble();
+        scalarOscillator.setPhase(phase);
+        vectorOscillator.setPhase(phase);
+
+        final byte[] expected = new byte[sampleRate * 2];
+        final byte[] actual = new byte[sampleRate * 2];
+        int position = 0;
+        while (position < expected.length) {
+          // segments of odd lengths check tails which don't fill whole vector
+          final int samples = Math.min((expected.length - position) / 2, 1 + random.nextInt(5000));
+          final int gain = random.nextBoolean() ? Oscillator.GAIN_ONE
+              : random.nextInt(Oscillator.GAIN_ONE + 1);
+          scalarOscillator.render(expected, position, samples, gain);
+          position = vectorOscillator.render(actual, position, samples, gain);
+        }
+        assertArrayEquals(expected, actual, shape + " " + freq + " Hz at " + sampleRate);
+        assertEquals(scalarOscillator.getPhase(), vectorOscillator.getPhase());
+      }
+    }
+  }
+}